@@ -0,0 +1,93 @@
+package neoflex.calculator.service;
+
+import neoflex.calculator.engine.CompoundFactorCache;
+import neoflex.calculator.engine.MoneyEngine;
+import neoflex.calculator.scoring.ScoringRuleEngine;
+import neoflex.dto.EmploymentDto;
+import neoflex.dto.ScoringDataDto;
+import neoflex.enums.EmploymentPosition;
+import neoflex.enums.EmploymentStatus;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Вспомогательные методы для подготовки состояния бенчмарков калькулятора без поднятия Spring-контекста.
+ */
+final class CalculatorBenchmarkSupport {
+
+    /**
+     * Базовая ставка, с которой сервис работает в docker-compose по умолчанию.
+     */
+    static final BigDecimal BASE_INTEREST_RATE = new BigDecimal("0.10");
+
+    /**
+     * Размер кэша множителей наращения, как в application.yml калькулятора.
+     */
+    static final long COMPOUND_FACTOR_CACHE_MAX_SIZE = 1024;
+
+    /**
+     * Правила скоринга из ресурсов калькулятора.
+     */
+    static final String SCORING_RULES_LOCATION = "classpath:scoring-rules.yml";
+
+    private CalculatorBenchmarkSupport() {
+    }
+
+    /**
+     * Создает сервис калькулятора с заданной базовой ставкой и движком денежных расчетов.
+     *
+     * @param baseInterestRate базовая процентная ставка
+     * @param moneyEngine      имя движка денежных расчетов, как в {@code calculator.money-engine}
+     * @return сервис калькулятора
+     */
+    static CalculatorService calculatorService(BigDecimal baseInterestRate, String moneyEngine) {
+        CalculatorService calculatorService = new CalculatorService(
+                MoneyEngine.of(moneyEngine, new CompoundFactorCache(COMPOUND_FACTOR_CACHE_MAX_SIZE)),
+                new ScoringRuleEngine(new DefaultResourceLoader(), SCORING_RULES_LOCATION));
+        Field field = ReflectionUtils.findField(CalculatorService.class, "baseInterestRate");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, calculatorService, baseInterestRate);
+        return calculatorService;
+    }
+
+    /**
+     * Создает данные для скоринга, проходящие все правила отказа.
+     * Страховка выключена, так как {@link CalculatorService#calculateCredit} увеличивает сумму в переданном DTO.
+     *
+     * @param amount сумма кредита
+     * @param term   срок кредита в месяцах
+     * @return данные для скоринга
+     */
+    static ScoringDataDto scoringData(BigDecimal amount, int term) {
+        return ScoringDataDto.builder()
+                .amount(amount)
+                .term(term)
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .middleName("Ivanovich")
+                .gender(Gender.MALE)
+                .birthdate(LocalDate.now().minusYears(35))
+                .passportSeries("1234")
+                .passportNumber("567890")
+                .maritalStatus(MaritalStatus.MARRIED)
+                .dependentAmount(0)
+                .employment(EmploymentDto.builder()
+                        .employmentStatus(EmploymentStatus.EMPLOYED)
+                        .employerINN("1234567890")
+                        .salary(amount)
+                        .position(EmploymentPosition.MIDDLE_MANAGER)
+                        .workExperienceTotal(60)
+                        .workExperienceCurrent(24)
+                        .build())
+                .accountNumber("40817810099910004312")
+                .isInsuranceEnabled(false)
+                .isSalaryClient(true)
+                .build();
+    }
+}
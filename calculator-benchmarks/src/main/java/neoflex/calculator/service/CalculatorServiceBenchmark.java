@@ -0,0 +1,65 @@
+package neoflex.calculator.service;
+
+import neoflex.dto.CreditDto;
+import neoflex.dto.PaymentScheduleElementDto;
+import neoflex.dto.ScoringDataDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарки горячих путей {@link CalculatorService}.
+ * <p>
+ * Режим {@link Mode#Throughput} дает ops/us, режим {@link Mode#SampleTime} — распределение времени вызова
+ * с перцентилями (p99). Скорость аллокаций снимается профайлером {@code -prof gc}:
+ * <pre>
+ * java -jar calculator-benchmarks/target/benchmarks.jar CalculatorServiceBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class CalculatorServiceBenchmark {
+
+    @Param({"big-decimal", "fixed-point"})
+    private String engine;
+
+    @Param({"6", "12", "60", "120", "240", "360"})
+    private int term;
+
+    @Param({"20000", "500000", "5000000"})
+    private String amount;
+
+    private CalculatorService calculatorService;
+    private BigDecimal loanAmount;
+    private BigDecimal rate;
+    private ScoringDataDto scoringData;
+
+    @Setup
+    public void setUp() {
+        calculatorService = CalculatorBenchmarkSupport.calculatorService(CalculatorBenchmarkSupport.BASE_INTEREST_RATE, engine);
+        loanAmount = new BigDecimal(amount);
+        rate = CalculatorBenchmarkSupport.BASE_INTEREST_RATE;
+        scoringData = CalculatorBenchmarkSupport.scoringData(loanAmount, term);
+    }
+
+    @Benchmark
+    public BigDecimal annuityMonthlyPayment() {
+        return calculatorService.calculateAnnuityMonthlyPayment(loanAmount, rate, term);
+    }
+
+    @Benchmark
+    public List<PaymentScheduleElementDto> annuityPaymentSchedule() {
+        return calculatorService.calculateAnnuityPaymentSchedule(loanAmount, rate, term);
+    }
+
+    @Benchmark
+    public CreditDto calculateCredit() {
+        return calculatorService.calculateCredit(scoringData);
+    }
+}
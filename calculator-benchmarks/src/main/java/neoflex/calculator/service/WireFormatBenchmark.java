@@ -0,0 +1,76 @@
+package neoflex.calculator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import neoflex.dto.CreditDto;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарки форматов обмена между МС Сделка и МС Калькулятор: JSON и бинарный Smile.
+ * <p>
+ * Сериализуется и десериализуется ответ {@code /calculator/calc} — {@link CreditDto} с полным графиком платежей.
+ * Размер сообщения в байтах выводится в лог перед замерами:
+ * <pre>
+ * java -jar calculator-benchmarks/target/benchmarks.jar WireFormatBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class WireFormatBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(WireFormatBenchmark.class);
+
+    @Param({"json", "smile"})
+    private String format;
+
+    @Param({"12", "360"})
+    private int term;
+
+    private ObjectMapper objectMapper;
+    private CreditDto credit;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Настройки дат как у ObjectMapper Spring Boot в обоих сервисах
+        objectMapper = switch (format) {
+            case "json" -> JsonMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "smile" -> SmileMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> throw new IllegalArgumentException("Неизвестный формат: " + format);
+        };
+        CalculatorService calculatorService = CalculatorBenchmarkSupport.calculatorService(
+                CalculatorBenchmarkSupport.BASE_INTEREST_RATE, "big-decimal");
+        credit = calculatorService.calculateCredit(CalculatorBenchmarkSupport.scoringData(new BigDecimal("500000"), term));
+        payload = objectMapper.writeValueAsBytes(credit);
+        // Размер сообщения не зависит от итерации, поэтому пишется в лог один раз за форк
+        logger.info("Размер сообщения ({}, срок {}): {} байт", format, term, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(credit);
+    }
+
+    @Benchmark
+    public CreditDto deserialize() throws IOException {
+        return objectMapper.readValue(payload, CreditDto.class);
+    }
+}
@@ -0,0 +1,19 @@
+package neoflex.calculator.config;
+
+import neoflex.calculator.scoring.ScoringRuleEngine;
+import neoflex.calculator.service.CalculatorService;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация расчетного ядра калькулятора: движок денежных расчетов, правила скоринга и {@link CalculatorService}.
+ * <p>
+ * Подключается МС Калькулятор и МС Сделка во встроенном режиме ({@code calculator.mode=embedded}).
+ * Планировщик нужен для перечитывания правил скоринга.
+ */
+@Configuration
+@EnableScheduling
+@ComponentScan(basePackageClasses = {MoneyEngineConfig.class, ScoringRuleEngine.class, CalculatorService.class})
+public class CalculatorCoreConfig {
+}
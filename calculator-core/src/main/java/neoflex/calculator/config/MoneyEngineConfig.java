@@ -0,0 +1,45 @@
+package neoflex.calculator.config;
+
+import neoflex.calculator.engine.CompoundFactorCache;
+import neoflex.calculator.engine.MoneyEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация движка денежных расчетов.
+ */
+@Configuration
+public class MoneyEngineConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MoneyEngineConfig.class);
+
+    @Value("${calculator.money-engine:big-decimal}")
+    private String moneyEngine;
+
+    @Value("${calculator.compound-factor-cache.max-size:1024}")
+    private long compoundFactorCacheMaxSize;
+
+    /**
+     * Создает кэш множителей наращения. Метрики кэша регистрируются actuator как {@link io.micrometer.core.instrument.binder.MeterBinder}.
+     *
+     * @return кэш множителей наращения
+     */
+    @Bean
+    public CompoundFactorCache compoundFactorCache() {
+        return new CompoundFactorCache(compoundFactorCacheMaxSize);
+    }
+
+    /**
+     * Создает движок денежных расчетов, выбранный свойством {@code calculator.money-engine}.
+     *
+     * @param compoundFactorCache кэш множителей наращения
+     * @return движок денежных расчетов
+     */
+    @Bean
+    public MoneyEngine moneyEngine(CompoundFactorCache compoundFactorCache) {
+        logger.info("Используется движок денежных расчетов: {}", moneyEngine);
+        return MoneyEngine.of(moneyEngine, compoundFactorCache);
+    }
+}
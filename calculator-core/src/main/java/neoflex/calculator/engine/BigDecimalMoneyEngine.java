@@ -0,0 +1,70 @@
+package neoflex.calculator.engine;
+
+import neoflex.dto.PaymentScheduleElementDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Эталонный движок денежных расчетов на {@link BigDecimal} с точностью DECIMAL128.
+ * Множители наращения (1 + r/12)^n берутся из {@link CompoundFactorCache}.
+ */
+public class BigDecimalMoneyEngine implements MoneyEngine {
+
+    private final CompoundFactorCache compoundFactorCache;
+
+    public BigDecimalMoneyEngine(CompoundFactorCache compoundFactorCache) {
+        this.compoundFactorCache = compoundFactorCache;
+    }
+
+    /**
+     * Возвращает месячную ставку и множитель наращения (1 + r/12)^n из кэша.
+     *
+     * @param rate       годовая процентная ставка
+     * @param termMonths срок кредита в месяцах
+     * @return месячная ставка и множитель наращения
+     */
+    CompoundFactor compoundFactor(BigDecimal rate, int termMonths) {
+        return compoundFactorCache.get(rate, termMonths);
+    }
+
+    @Override
+    public BigDecimal calculateAnnuityMonthlyPayment(BigDecimal loanAmount, BigDecimal rate, int termMonths) {
+        CompoundFactor compoundFactor = compoundFactor(rate, termMonths);
+        BigDecimal monthlyRate = compoundFactor.monthlyRate();
+        BigDecimal onePlusRateToPowerTerm = compoundFactor.factor();
+        BigDecimal numerator = loanAmount.multiply(monthlyRate).multiply(onePlusRateToPowerTerm);
+        BigDecimal denominator = onePlusRateToPowerTerm.subtract(BigDecimal.ONE);
+        return numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public void calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term, LocalDate startDate,
+                                                Consumer<PaymentScheduleElementDto> consumer) {
+        BigDecimal monthlyRate = compoundFactor(rate, term).monthlyRate();
+        BigDecimal remainingPrincipal = loanAmount;
+        BigDecimal monthlyPayment = calculateAnnuityMonthlyPayment(loanAmount, rate, term);
+
+        for (int i = 0; i < term; i++) {
+            // Прибавляем i месяцев к дате начала
+            LocalDate paymentDate = startDate.plusMonths((long) i + 1);
+
+            BigDecimal interestPayment = remainingPrincipal.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPayment = monthlyPayment.subtract(interestPayment).setScale(2, RoundingMode.HALF_UP);
+            remainingPrincipal = remainingPrincipal.subtract(principalPayment).setScale(2, RoundingMode.HALF_UP);
+
+            PaymentScheduleElementDto element = PaymentScheduleElementDto.builder()
+                    .number(i + 1)
+                    .date(paymentDate)
+                    .totalPayment(monthlyPayment)
+                    .interestPayment(interestPayment)
+                    .debtPayment(principalPayment)
+                    .remainingDebt(remainingPrincipal)
+                    .build();
+
+            consumer.accept(element);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package neoflex.calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Месячная ставка r/12 и множитель наращения (1 + r/12)^n с точностью {@link MathContext#DECIMAL128}.
+ *
+ * @param monthlyRate месячная ставка
+ * @param factor      множитель наращения за весь срок
+ */
+record CompoundFactor(BigDecimal monthlyRate, BigDecimal factor) {
+
+    private static final BigDecimal MONTHS_IN_YEAR = BigDecimal.valueOf(12);
+
+    /**
+     * Рассчитывает множитель наращения для годовой ставки и срока.
+     *
+     * @param rate       годовая процентная ставка
+     * @param termMonths срок кредита в месяцах
+     * @return месячная ставка и множитель наращения
+     */
+    static CompoundFactor compute(BigDecimal rate, int termMonths) {
+        BigDecimal monthlyRate = rate.divide(MONTHS_IN_YEAR, MathContext.DECIMAL128);
+        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(termMonths, MathContext.DECIMAL128);
+        return new CompoundFactor(monthlyRate, factor);
+    }
+}
@@ -0,0 +1,56 @@
+package neoflex.calculator.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.math.BigDecimal;
+
+/**
+ * Ограниченный потокобезопасный кэш множителей наращения (1 + r/12)^n.
+ * <p>
+ * Ставки складываются из базовой ставки и небольшого набора фиксированных надбавок, поэтому различных пар
+ * (ставка, срок) немного и повторный расчет сводится к поиску в кэше. Метрики попаданий и промахов
+ * публикуются в actuator как {@code cache.gets} с тегом {@code cache=compound-factor}.
+ */
+public class CompoundFactorCache implements MeterBinder {
+
+    static final String CACHE_NAME = "compound-factor";
+
+    private final Cache<Key, CompoundFactor> cache;
+
+    /**
+     * @param maximumSize максимальное число пар (ставка, срок) в кэше
+     */
+    public CompoundFactorCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Возвращает множитель наращения из кэша, рассчитывая его при промахе.
+     *
+     * @param rate       годовая процентная ставка
+     * @param termMonths срок кредита в месяцах
+     * @return месячная ставка и множитель наращения
+     */
+    CompoundFactor get(BigDecimal rate, int termMonths) {
+        return cache.get(new Key(rate, termMonths), key -> CompoundFactor.compute(key.rate(), key.termMonths()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Ключ кэша. Ставки сравниваются через {@link BigDecimal#equals}, то есть с учетом масштаба:
+     * 0.1 и 0.10 дают разные записи, зато результат не зависит от того, какая из них попала в кэш первой.
+     */
+    private record Key(BigDecimal rate, int termMonths) {
+    }
+}
@@ -0,0 +1,156 @@
+package neoflex.calculator.engine;
+
+import neoflex.dto.PaymentScheduleElementDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Движок денежных расчетов в копейках на примитивах {@code long} и {@code double}.
+ * <p>
+ * Каждое округление до копейки выполняется по приближенному значению в {@code double} с гарантированной
+ * оценкой погрешности: если граница округления HALF_UP (x.5 копейки) лежит ближе оценки погрешности,
+ * это значение пересчитывается точно через {@link BigDecimalMoneyEngine}. Поэтому результат совпадает
+ * с эталонным движком до масштаба {@link BigDecimal}.
+ * <p>
+ * Область применимости (вне ее весь расчет делегируется эталонному движку):
+ * <ul>
+ *     <li>сумма кредита положительна, не больше {@value #MAX_AMOUNT_CENTS} копеек и задана не точнее копейки;</li>
+ *     <li>модуль годовой ставки от {@value #MIN_ABS_RATE} до {@value #MAX_ABS_RATE};</li>
+ *     <li>срок от 1 до {@value #MAX_TERM_MONTHS} месяцев.</li>
+ * </ul>
+ */
+public class FixedPointMoneyEngine implements MoneyEngine {
+
+    static final long MAX_AMOUNT_CENTS = 1_000_000_000_000_000L;
+    static final double MIN_ABS_RATE = 0.0001;
+    static final double MAX_ABS_RATE = 1.0;
+    static final int MAX_TERM_MONTHS = 1200;
+
+    /**
+     * Оценка сверху относительной погрешности вычислений в {@code double} внутри области применимости
+     * (фактическая погрешность не превышает 1e-13 для аннуитетного платежа и 1e-15 для процентов).
+     */
+    private static final double RELATIVE_ERROR_BOUND = 1e-12;
+    private static final long NOT_SUPPORTED = -1;
+    private static final long UNDECIDED = Long.MIN_VALUE;
+
+    private final BigDecimalMoneyEngine exactEngine;
+
+    public FixedPointMoneyEngine(BigDecimalMoneyEngine exactEngine) {
+        this.exactEngine = exactEngine;
+    }
+
+    @Override
+    public BigDecimal calculateAnnuityMonthlyPayment(BigDecimal loanAmount, BigDecimal rate, int termMonths) {
+        long amountCents = toCents(loanAmount);
+        if (amountCents == NOT_SUPPORTED || !isSupported(rate, termMonths)) {
+            return exactEngine.calculateAnnuityMonthlyPayment(loanAmount, rate, termMonths);
+        }
+        long paymentCents = annuityPaymentCents(amountCents, monthlyRate(rate, termMonths).doubleValue(), termMonths);
+        if (paymentCents == UNDECIDED) {
+            return exactEngine.calculateAnnuityMonthlyPayment(loanAmount, rate, termMonths);
+        }
+        return BigDecimal.valueOf(paymentCents, 2);
+    }
+
+    @Override
+    public void calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term, LocalDate startDate,
+                                                Consumer<PaymentScheduleElementDto> consumer) {
+        long remainingCents = toCents(loanAmount);
+        if (remainingCents == NOT_SUPPORTED || !isSupported(rate, term)) {
+            exactEngine.calculateAnnuityPaymentSchedule(loanAmount, rate, term, startDate, consumer);
+            return;
+        }
+
+        BigDecimal monthlyRate = monthlyRate(rate, term);
+        double approxMonthlyRate = monthlyRate.doubleValue();
+
+        long paymentCents = annuityPaymentCents(remainingCents, approxMonthlyRate, term);
+        if (paymentCents == UNDECIDED) {
+            paymentCents = exactEngine.calculateAnnuityMonthlyPayment(loanAmount, rate, term).movePointRight(2).longValueExact();
+        }
+        BigDecimal monthlyPayment = BigDecimal.valueOf(paymentCents, 2);
+
+        for (int i = 0; i < term; i++) {
+            long interestCents = roundHalfUp(remainingCents * approxMonthlyRate);
+            if (interestCents == UNDECIDED) {
+                interestCents = BigDecimal.valueOf(remainingCents).multiply(monthlyRate)
+                        .setScale(0, RoundingMode.HALF_UP).longValueExact();
+            }
+            long principalCents = paymentCents - interestCents;
+            remainingCents -= principalCents;
+
+            consumer.accept(new PaymentScheduleElementDto(
+                    i + 1,
+                    startDate.plusMonths((long) i + 1),
+                    monthlyPayment,
+                    BigDecimal.valueOf(interestCents, 2),
+                    BigDecimal.valueOf(principalCents, 2),
+                    BigDecimal.valueOf(remainingCents, 2)
+            ));
+        }
+    }
+
+    /**
+     * Месячная ставка r/12, округленная до DECIMAL128, — та же, на которую эталонный движок умножает остаток.
+     * Берется из {@link CompoundFactorCache}, поэтому платеж и график считаются по одной ставке без повторного деления.
+     */
+    private BigDecimal monthlyRate(BigDecimal rate, int termMonths) {
+        return exactEngine.compoundFactor(rate, termMonths).monthlyRate();
+    }
+
+    /**
+     * Проверяет, что ставка и срок входят в область применимости движка.
+     */
+    private static boolean isSupported(BigDecimal rate, int termMonths) {
+        double absRate = Math.abs(rate.doubleValue());
+        return termMonths >= 1 && termMonths <= MAX_TERM_MONTHS && absRate >= MIN_ABS_RATE && absRate <= MAX_ABS_RATE;
+    }
+
+    /**
+     * Переводит сумму в копейки.
+     *
+     * @return сумма в копейках или {@link #NOT_SUPPORTED}, если сумма вне области применимости
+     */
+    private static long toCents(BigDecimal amount) {
+        if (amount.signum() <= 0 || amount.scale() > 2 && amount.stripTrailingZeros().scale() > 2) {
+            return NOT_SUPPORTED;
+        }
+        BigDecimal cents = amount.movePointRight(2);
+        if (cents.compareTo(BigDecimal.valueOf(MAX_AMOUNT_CENTS)) > 0) {
+            return NOT_SUPPORTED;
+        }
+        return cents.longValueExact();
+    }
+
+    /**
+     * Рассчитывает аннуитетный платеж A * r * (1 + r)^n / ((1 + r)^n - 1) в копейках.
+     * (1 + r)^n - 1 считается через log1p/expm1 без потери точности при малых ставках.
+     *
+     * @return платеж в копейках или {@link #UNDECIDED}, если округление нельзя гарантировать
+     */
+    private static long annuityPaymentCents(long amountCents, double monthlyRate, int termMonths) {
+        double growthMinusOne = Math.expm1(termMonths * Math.log1p(monthlyRate));
+        return roundHalfUp(amountCents * monthlyRate * (growthMinusOne + 1) / growthMinusOne);
+    }
+
+    /**
+     * Округляет приближенное значение до целого по правилу HALF_UP (половина — от нуля), как {@link BigDecimal}.
+     *
+     * @return округленное значение или {@link #UNDECIDED}, если точное значение может лежать по другую сторону
+     * от границы округления
+     */
+    private static long roundHalfUp(double value) {
+        double magnitude = Math.abs(value);
+        double floor = Math.floor(magnitude);
+        double fraction = magnitude - floor;
+        if (Math.abs(fraction - 0.5) <= magnitude * RELATIVE_ERROR_BOUND) {
+            return UNDECIDED;
+        }
+        long rounded = (long) floor + (fraction > 0.5 ? 1 : 0);
+        return value < 0 ? -rounded : rounded;
+    }
+}
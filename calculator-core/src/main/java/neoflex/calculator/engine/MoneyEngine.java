@@ -0,0 +1,72 @@
+package neoflex.calculator.engine;
+
+import neoflex.dto.PaymentScheduleElementDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Движок денежных расчетов калькулятора: аннуитетный платеж и график платежей.
+ * <p>
+ * Все реализации обязаны давать результат, идентичный {@link BigDecimalMoneyEngine}
+ * (включая масштаб {@link BigDecimal}), реализация выбирается свойством {@code calculator.money-engine}.
+ */
+public interface MoneyEngine {
+
+    /**
+     * Рассчитывает аннуитетный ежемесячный платеж.
+     *
+     * @param loanAmount сумма кредита
+     * @param rate       годовая процентная ставка
+     * @param termMonths срок кредита в месяцах
+     * @return аннуитетный ежемесячный платеж, округленный до копеек
+     */
+    BigDecimal calculateAnnuityMonthlyPayment(BigDecimal loanAmount, BigDecimal rate, int termMonths);
+
+    /**
+     * Рассчитывает график аннуитетных платежей и передает элементы по одному по мере расчета,
+     * не накапливая график в памяти.
+     *
+     * @param loanAmount сумма кредита
+     * @param rate       годовая процентная ставка
+     * @param term       срок кредита в месяцах
+     * @param startDate  дата, от которой отсчитываются даты платежей
+     * @param consumer   получатель элементов графика в порядке номеров платежей
+     */
+    void calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term, LocalDate startDate,
+                                         Consumer<PaymentScheduleElementDto> consumer);
+
+    /**
+     * Рассчитывает график аннуитетных платежей.
+     *
+     * @param loanAmount сумма кредита
+     * @param rate       годовая процентная ставка
+     * @param term       срок кредита в месяцах
+     * @param startDate  дата, от которой отсчитываются даты платежей
+     * @return график аннуитетных платежей
+     */
+    default List<PaymentScheduleElementDto> calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term, LocalDate startDate) {
+        List<PaymentScheduleElementDto> paymentSchedule = new ArrayList<>(Math.max(term, 0));
+        calculateAnnuityPaymentSchedule(loanAmount, rate, term, startDate, paymentSchedule::add);
+        return paymentSchedule;
+    }
+
+    /**
+     * Создает движок по его имени из конфигурации.
+     *
+     * @param name                имя движка: {@code big-decimal} или {@code fixed-point}
+     * @param compoundFactorCache кэш множителей наращения
+     * @return движок денежных расчетов
+     * @throws IllegalArgumentException если имя движка неизвестно
+     */
+    static MoneyEngine of(String name, CompoundFactorCache compoundFactorCache) {
+        return switch (name) {
+            case "big-decimal" -> new BigDecimalMoneyEngine(compoundFactorCache);
+            case "fixed-point" -> new FixedPointMoneyEngine(new BigDecimalMoneyEngine(compoundFactorCache));
+            default -> throw new IllegalArgumentException("Неизвестный движок денежных расчетов: " + name);
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package neoflex.calculator.scoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Движок правил скоринга.
+ * <p>
+ * Правила читаются из YAML файла ({@code calculator.scoring.rules-location}) и компилируются в {@link ScoringRules}
+ * при старте. Файл периодически проверяется на изменение и при изменении перечитывается без перезапуска сервиса;
+ * если новые правила некорректны, продолжают действовать предыдущие.
+ */
+@Component
+public class ScoringRuleEngine {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringRuleEngine.class);
+
+    private static final String RULES_PREFIX = "scoring";
+
+    private final Resource rulesResource;
+    private volatile ScoringRules rules;
+    private volatile long lastModified;
+
+    public ScoringRuleEngine(ResourceLoader resourceLoader,
+                             @Value("${calculator.scoring.rules-location:classpath:scoring-rules.yml}") String rulesLocation) {
+        this.rulesResource = resourceLoader.getResource(rulesLocation);
+        this.lastModified = lastModified();
+        this.rules = load();
+        logger.info("Загружены правила скоринга из {}", rulesLocation);
+    }
+
+    /**
+     * Возвращает действующие правила скоринга.
+     *
+     * @return скомпилированные правила скоринга
+     */
+    public ScoringRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Перечитывает правила, если файл правил изменился.
+     */
+    @Scheduled(fixedDelayString = "${calculator.scoring.reload-interval-ms:30000}")
+    public void reloadIfModified() {
+        long modified = lastModified();
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            rules = load();
+            logger.info("Правила скоринга перезагружены из {}", rulesResource);
+        } catch (RuntimeException e) {
+            logger.error("Не удалось перезагрузить правила скоринга из {}, действуют предыдущие правила: {}",
+                    rulesResource, e.getMessage());
+        }
+    }
+
+    private ScoringRules load() {
+        try {
+            Binder binder = new Binder(ConfigurationPropertySources.from(
+                    new YamlPropertySourceLoader().load(rulesResource.getDescription(), rulesResource)));
+            ScoringRulesProperties properties = binder.bind(RULES_PREFIX, ScoringRulesProperties.class)
+                    .orElseThrow(() -> new IllegalStateException("В " + rulesResource + " нет правил скоринга"));
+            return ScoringRules.compile(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать правила скоринга из " + rulesResource, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return rulesResource.lastModified();
+        } catch (IOException e) {
+            logger.debug("Не удалось получить время изменения {}: {}", rulesResource, e.getMessage());
+            return 0;
+        }
+    }
+}
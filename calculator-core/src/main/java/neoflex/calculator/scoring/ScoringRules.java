@@ -0,0 +1,145 @@
+package neoflex.calculator.scoring;
+
+import neoflex.calculator.util.AgeUtils;
+import neoflex.dto.EmploymentDto;
+import neoflex.dto.ScoringDataDto;
+import neoflex.enums.EmploymentPosition;
+import neoflex.enums.EmploymentStatus;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Скомпилированные правила скоринга.
+ * <p>
+ * Надбавки хранятся в массивах, индексированных порядковым номером значения перечисления, поэтому применение
+ * правила сводится к чтению элемента массива без ветвлений и аллокаций. Экземпляр неизменяемый и может
+ * безопасно использоваться из нескольких потоков.
+ */
+public final class ScoringRules {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringRules.class);
+
+    private final String[] employmentStatusRejections;
+    private final int minWorkExperienceTotal;
+    private final int minWorkExperienceCurrent;
+    private final BigDecimal maxSalaries;
+
+    private final BigDecimal[] employmentStatusAdjustments;
+    private final BigDecimal[] employmentPositionAdjustments;
+    private final BigDecimal[] maritalStatusAdjustments;
+    private final BigDecimal[] genderAdjustments;
+    private final int[] genderMinAges;
+    private final int[] genderMaxAges;
+
+    private ScoringRules(ScoringRulesProperties properties) {
+        ScoringRulesProperties.Reject reject = properties.getReject();
+        this.employmentStatusRejections = toArray(reject.getEmploymentStatuses(), EmploymentStatus.values().length, String[]::new);
+        this.minWorkExperienceTotal = required(reject.getMinWorkExperienceTotal(), "reject.min-work-experience-total");
+        this.minWorkExperienceCurrent = required(reject.getMinWorkExperienceCurrent(), "reject.min-work-experience-current");
+        this.maxSalaries = required(reject.getMaxSalaries(), "reject.max-salaries");
+
+        ScoringRulesProperties.RateAdjustments adjustments = properties.getRateAdjustments();
+        this.employmentStatusAdjustments = toArray(adjustments.getEmploymentStatus(), EmploymentStatus.values().length, BigDecimal[]::new);
+        this.employmentPositionAdjustments = toArray(adjustments.getEmploymentPosition(), EmploymentPosition.values().length, BigDecimal[]::new);
+        this.maritalStatusAdjustments = toArray(adjustments.getMaritalStatus(), MaritalStatus.values().length, BigDecimal[]::new);
+
+        int genders = Gender.values().length;
+        this.genderAdjustments = new BigDecimal[genders];
+        this.genderMinAges = new int[genders];
+        this.genderMaxAges = new int[genders];
+        for (Map.Entry<Gender, ScoringRulesProperties.GenderRule> entry : adjustments.getGender().entrySet()) {
+            ScoringRulesProperties.GenderRule rule = entry.getValue();
+            int ordinal = entry.getKey().ordinal();
+            genderAdjustments[ordinal] = required(rule.getAdjustment(), "rate-adjustments.gender." + entry.getKey() + ".adjustment");
+            genderMinAges[ordinal] = rule.getMinAge() != null ? rule.getMinAge() : Integer.MIN_VALUE;
+            genderMaxAges[ordinal] = rule.getMaxAge() != null ? rule.getMaxAge() : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Компилирует правила скоринга.
+     *
+     * @param properties правила скоринга из конфигурации
+     * @return скомпилированные правила
+     * @throws IllegalStateException если обязательное правило не задано
+     */
+    public static ScoringRules compile(ScoringRulesProperties properties) {
+        return new ScoringRules(properties);
+    }
+
+    /**
+     * Проверяет правила отказа. Проверки идут от самых дешевых: статус занятости, стаж, сумма займа.
+     *
+     * @param scoringData данные для скоринга
+     * @throws IllegalArgumentException если заявка отклонена
+     */
+    public void checkRejections(ScoringDataDto scoringData) {
+        EmploymentDto employment = scoringData.getEmployment();
+
+        String employmentStatusRejection = employmentStatusRejections[employment.getEmploymentStatus().ordinal()];
+        if (employmentStatusRejection != null) {
+            logger.warn("Заявка отклонена: Статус занятости - {}.", employment.getEmploymentStatus());
+            throw new IllegalArgumentException(employmentStatusRejection);
+        }
+
+        if (employment.getWorkExperienceTotal() < minWorkExperienceTotal || employment.getWorkExperienceCurrent() < minWorkExperienceCurrent) {
+            logger.warn("Заявка отклонена: Недостаточный стаж работы.");
+            throw new IllegalArgumentException("Отказ: стаж работы менее " + minWorkExperienceTotal
+                    + " месяцев или текущий стаж менее " + minWorkExperienceCurrent + " месяцев.");
+        }
+
+        if (scoringData.getAmount().compareTo(employment.getSalary().multiply(maxSalaries)) > 0) {
+            logger.warn("Заявка отклонена: Сумма займа превышает {} зарплаты.", maxSalaries);
+            throw new IllegalArgumentException("Отказ: сумма займа больше, чем " + maxSalaries + " зарплат.");
+        }
+    }
+
+    /**
+     * Применяет надбавки к ставке по статусу занятости, должности, семейному положению и полу.
+     *
+     * @param rate        ставка до применения надбавок
+     * @param scoringData данные для скоринга
+     * @param currentDate текущая дата для расчета возраста клиента
+     * @return ставка с надбавками
+     */
+    public BigDecimal adjustRate(BigDecimal rate, ScoringDataDto scoringData, LocalDate currentDate) {
+        EmploymentDto employment = scoringData.getEmployment();
+        rate = add(rate, employmentStatusAdjustments[employment.getEmploymentStatus().ordinal()]);
+        rate = add(rate, employmentPositionAdjustments[employment.getPosition().ordinal()]);
+        rate = add(rate, maritalStatusAdjustments[scoringData.getMaritalStatus().ordinal()]);
+
+        Gender gender = scoringData.getGender();
+        if (gender != null && genderAdjustments[gender.ordinal()] != null) {
+            int ordinal = gender.ordinal();
+            boolean ageLimited = genderMinAges[ordinal] != Integer.MIN_VALUE || genderMaxAges[ordinal] != Integer.MAX_VALUE;
+            int age = ageLimited ? AgeUtils.calculateAge(scoringData.getBirthdate(), currentDate) : 0;
+            if (!ageLimited || age >= genderMinAges[ordinal] && age <= genderMaxAges[ordinal]) {
+                rate = rate.add(genderAdjustments[ordinal]);
+            }
+        }
+        return rate;
+    }
+
+    private static BigDecimal add(BigDecimal rate, BigDecimal adjustment) {
+        return adjustment != null ? rate.add(adjustment) : rate;
+    }
+
+    private static <E extends Enum<E>, V> V[] toArray(Map<E, V> values, int size, IntFunction<V[]> arrayFactory) {
+        V[] array = arrayFactory.apply(size);
+        values.forEach((key, value) -> array[key.ordinal()] = value);
+        return array;
+    }
+
+    private static <T> T required(T value, String name) {
+        if (value == null) {
+            throw new IllegalStateException("Не задано правило скоринга scoring." + name);
+        }
+        return value;
+    }
+}
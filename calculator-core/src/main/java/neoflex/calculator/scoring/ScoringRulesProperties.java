@@ -0,0 +1,53 @@
+package neoflex.calculator.scoring;
+
+import lombok.Data;
+import neoflex.enums.EmploymentPosition;
+import neoflex.enums.EmploymentStatus;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Правила скоринга в том виде, в котором они описаны в scoring-rules.yml.
+ */
+@Data
+public class ScoringRulesProperties {
+
+    private Reject reject = new Reject();
+    private RateAdjustments rateAdjustments = new RateAdjustments();
+
+    /**
+     * Правила отказа.
+     */
+    @Data
+    public static class Reject {
+        private Map<EmploymentStatus, String> employmentStatuses = new HashMap<>();
+        private Integer minWorkExperienceTotal;
+        private Integer minWorkExperienceCurrent;
+        private BigDecimal maxSalaries;
+    }
+
+    /**
+     * Надбавки к ставке.
+     */
+    @Data
+    public static class RateAdjustments {
+        private Map<EmploymentStatus, BigDecimal> employmentStatus = new HashMap<>();
+        private Map<EmploymentPosition, BigDecimal> employmentPosition = new HashMap<>();
+        private Map<MaritalStatus, BigDecimal> maritalStatus = new HashMap<>();
+        private Map<Gender, GenderRule> gender = new HashMap<>();
+    }
+
+    /**
+     * Надбавка по полу с необязательными границами возраста.
+     */
+    @Data
+    public static class GenderRule {
+        private Integer minAge;
+        private Integer maxAge;
+        private BigDecimal adjustment;
+    }
+}
@@ -1,8 +1,11 @@
 package neoflex.calculator.service;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import neoflex.calculator.engine.MoneyEngine;
+import neoflex.calculator.scoring.ScoringRuleEngine;
+import neoflex.calculator.scoring.ScoringRules;
 import neoflex.dto.*;
-import neoflex.enums.Gender;
 import neoflex.calculator.util.AgeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,24 +13,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
-
-import static neoflex.calculator.util.AgeUtils.calculateAge;
+import java.util.function.Consumer;
 
 /**
  * Сервис для генерации кредитных предложений.
  */
 @Service
+@RequiredArgsConstructor
 public class CalculatorService {
     private static final Logger logger = LoggerFactory.getLogger(CalculatorService.class);
 
+    private final MoneyEngine moneyEngine;
+    private final ScoringRuleEngine scoringRuleEngine;
+
     @Getter
     @Value("${base.interest.rate}")
     private BigDecimal baseInterestRate;
@@ -46,13 +50,7 @@ public class CalculatorService {
     public List<LoanOfferDto> generateLoanOffers(LoanStatementRequestDto request) {
         logger.info("Генерация кредитных предложений для запроса: {}", request);
 
-        int age = AgeUtils.calculateAge(request.getBirthDate(), LocalDate.now());
-        logger.debug("Рассчитанный возраст клиента: {}", age);
-
-        if (age < 20 || age > 65) {
-            logger.warn("Возраст клиента {} не подходит для кредита. Заявка отклонена.", age);
-            throw new IllegalArgumentException("Отказ: возраст клиента должен быть от 20 до 65 лет.");
-        }
+        checkAge(request.getBirthDate());
 
         List<LoanOfferDto> offers = new ArrayList<>();
 
@@ -67,6 +65,42 @@ public class CalculatorService {
         return offers;
     }
 
+    /**
+     * Проверяет возраст клиента при прескоринге.
+     *
+     * @param birthDate дата рождения клиента
+     * @throws IllegalArgumentException если возраст клиента не от 20 до 65 лет
+     */
+    void checkAge(LocalDate birthDate) {
+        int age = AgeUtils.calculateAge(birthDate, LocalDate.now());
+        logger.debug("Рассчитанный возраст клиента: {}", age);
+
+        if (age < 20 || age > 65) {
+            logger.warn("Возраст клиента {} не подходит для кредита. Заявка отклонена.", age);
+            throw new IllegalArgumentException("Отказ: возраст клиента должен быть от 20 до 65 лет.");
+        }
+    }
+
+    /**
+     * Создает 4 кредитных предложения для суммы и срока без идентификатора заявки и без логирования
+     * каждого предложения. Используется для массового расчета сетки предложений.
+     *
+     * @param amount запрошенная сумма кредита
+     * @param term   срок кредита в месяцах
+     * @return кредитные предложения от "худшего" к "лучшему"
+     */
+    List<LoanOfferDto> generateLoanOfferOptions(BigDecimal amount, int term) {
+        List<LoanOfferDto> offers = new ArrayList<>(4);
+
+        offers.add(buildLoanOffer(null, amount, term, false, false));
+        offers.add(buildLoanOffer(null, amount, term, false, true));
+        offers.add(buildLoanOffer(null, amount, term, true, false));
+        offers.add(buildLoanOffer(null, amount, term, true, true));
+
+        offers.sort(Comparator.comparing(LoanOfferDto::getRate));
+        return offers;
+    }
+
     /**
      * Создает кредитное предложение.
      *
@@ -78,9 +112,27 @@ public class CalculatorService {
     private LoanOfferDto createLoanOffer(LoanStatementRequestDto request, boolean isInsuranceEnabled, boolean isSalaryClient) {
         logger.debug("Создание кредитного предложения с insuranceEnabled: {}, salaryClient: {}", isInsuranceEnabled, isSalaryClient);
 
+        LoanOfferDto loanOfferDto = buildLoanOffer(UUID.randomUUID(), request.getAmount(), request.getTerm(), isInsuranceEnabled, isSalaryClient);
+
+        logger.debug("Создано кредитное предложение: {}", loanOfferDto);
+        return loanOfferDto;
+    }
+
+    /**
+     * Рассчитывает кредитное предложение по правилам прескоринга.
+     *
+     * @param statementId        идентификатор заявки
+     * @param requestedAmount    запрошенная сумма кредита
+     * @param term               срок кредита в месяцах
+     * @param isInsuranceEnabled включено ли страхование
+     * @param isSalaryClient     является ли клиент зарплатным клиентом
+     * @return кредитное предложение
+     */
+    private LoanOfferDto buildLoanOffer(UUID statementId, BigDecimal requestedAmount, int term,
+                                        boolean isInsuranceEnabled, boolean isSalaryClient) {
         BigDecimal interestRate = baseInterestRate;
 
-        BigDecimal loanAmount = request.getAmount();
+        BigDecimal loanAmount = requestedAmount;
 
         //Применение правил скоринга по страховке
         if (isInsuranceEnabled) {
@@ -93,22 +145,19 @@ public class CalculatorService {
             interestRate = interestRate.subtract(SALARY_CLIENT_DISCOUNT);
         }
 
-        BigDecimal monthlyPayment = calculateAnnuityMonthlyPayment(loanAmount, interestRate, request.getTerm());
-        BigDecimal totalAmount = monthlyPayment.multiply(BigDecimal.valueOf(request.getTerm()));
+        BigDecimal monthlyPayment = moneyEngine.calculateAnnuityMonthlyPayment(loanAmount, interestRate, term);
+        BigDecimal totalAmount = monthlyPayment.multiply(BigDecimal.valueOf(term));
 
-        LoanOfferDto loanOfferDto = new LoanOfferDto(
-                UUID.randomUUID(),
-                request.getAmount(),
-                request.getTerm(),
+        return new LoanOfferDto(
+                statementId,
+                requestedAmount,
+                term,
                 monthlyPayment,
                 totalAmount,
                 interestRate,
                 isInsuranceEnabled,
                 isSalaryClient
         );
-
-        logger.debug("Создано кредитное предложение: {}", loanOfferDto);
-        return loanOfferDto;
     }
 
     /**
@@ -122,11 +171,7 @@ public class CalculatorService {
     BigDecimal calculateAnnuityMonthlyPayment(BigDecimal loanAmount, BigDecimal rate, int termMonths) {
         logger.debug("Расчет аннуитетного ежемесячного платежа для loanAmount: {}, rate: {}, termMonths: {}", loanAmount, rate, termMonths);
 
-        BigDecimal monthlyRate = rate.divide(BigDecimal.valueOf(12), MathContext.DECIMAL128);
-        BigDecimal onePlusRateToPowerTerm = BigDecimal.ONE.add(monthlyRate).pow(termMonths, MathContext.DECIMAL128);
-        BigDecimal numerator = loanAmount.multiply(monthlyRate).multiply(onePlusRateToPowerTerm);
-        BigDecimal denominator = onePlusRateToPowerTerm.subtract(BigDecimal.ONE);
-        BigDecimal annuityPayment = numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+        BigDecimal annuityPayment = moneyEngine.calculateAnnuityMonthlyPayment(loanAmount, rate, termMonths);
 
         logger.debug("Рассчитан аннуитетный ежемесячный платеж: {}", annuityPayment);
         return annuityPayment;
@@ -139,89 +184,51 @@ public class CalculatorService {
      * @return детали кредита
      */
     public CreditDto calculateCredit(ScoringDataDto scoringData) {
+        CreditDto creditDto = calculateCreditTerms(scoringData);
+        creditDto.setPaymentSchedule(calculateAnnuityPaymentSchedule(creditDto.getAmount(), creditDto.getRate(), creditDto.getTerm()));
+
+        logger.info("Рассчитанные данные кредита: {}", creditDto);
+        return creditDto;
+    }
+
+    /**
+     * Рассчитывает условия кредита без графика платежей: скоринг, итоговую ставку, ежемесячный платеж и ПСК.
+     *
+     * @param scoringData данные для скоринга
+     * @return детали кредита без графика платежей
+     */
+    public CreditDto calculateCreditTerms(ScoringDataDto scoringData) {
         logger.info("Расчет кредита для данных скоринга: {}", scoringData);
 
-        BigDecimal rate = baseInterestRate;
+        ScoringRules scoringRules = scoringRuleEngine.getRules();
 
         try {
-            //Применение правил скоринга по страховке
+            // Страховка увеличивает сумму займа до проверки правил отказа по сумме
             if (scoringData.getIsInsuranceEnabled()) {
-                rate = rate.subtract(INSURANCE_DISCOUNT);
                 scoringData.setAmount(scoringData.getAmount().add(scoringData.getAmount().multiply(INSURANCE_COST_RATE)));
             }
 
-            //Применение правил скоринга по зарплатному клиенту
-            if (scoringData.getIsSalaryClient()) {
-                rate = rate.subtract(SALARY_CLIENT_DISCOUNT);
-            }
-            // Применение правил скоринга по статусу занятости
-            switch (scoringData.getEmployment().getEmploymentStatus()) {
-                case UNEMPLOYED:
-                    logger.warn("Заявка отклонена: Статус - безработный.");
-                    throw new IllegalArgumentException("Отказ: статус - безработный.");
-                case SELF_EMPLOYED:
-                    rate = rate.add(BigDecimal.valueOf(0.02));
-                    break;
-                case BUSINESS_OWNER:
-                    rate = rate.add(BigDecimal.valueOf(0.01));
-                    break;
-                default:
-                    break;
-            }
-
-            // Применение правил скоринга по позиции на работе
-            switch (scoringData.getEmployment().getPosition()) {
-                case MIDDLE_MANAGER:
-                    rate = rate.subtract(BigDecimal.valueOf(0.02));
-                    break;
-                case TOP_MANAGER:
-                    rate = rate.subtract(BigDecimal.valueOf(0.03));
-                    break;
-                default:
-                    break;
-            }
+            // Правила отказа проверяются до расчета ставки
+            scoringRules.checkRejections(scoringData);
 
-            // Применение правил скоринга по сумме займа
-            if (scoringData.getAmount().compareTo(scoringData.getEmployment().getSalary().multiply(BigDecimal.valueOf(24))) > 0) {
-                logger.warn("Заявка отклонена: Сумма займа превышает 24 зарплаты.");
-                throw new IllegalArgumentException("Отказ: сумма займа больше, чем 24 зарплат.");
-            }
+            BigDecimal rate = baseInterestRate;
 
-            // Применение правил скоринга по семейному положению
-            switch (scoringData.getMaritalStatus()) {
-                case MARRIED:
-                    rate = rate.subtract(BigDecimal.valueOf(0.03));
-                    break;
-                case DIVORCED:
-                    rate = rate.add(BigDecimal.valueOf(0.01));
-                    break;
-                case WIDOW_WIDOWER:
-                    rate = rate.add(BigDecimal.valueOf(0.02));
-                    break;
-                default:
-                    break;
+            //Применение правил скоринга по страховке
+            if (scoringData.getIsInsuranceEnabled()) {
+                rate = rate.subtract(INSURANCE_DISCOUNT);
             }
 
-            // Применение правил скоринга по полу
-            int age = calculateAge(scoringData.getBirthdate(), LocalDate.now());
-            if (scoringData.getGender() == Gender.FEMALE && age >= 32 && age <= 60) {
-                rate = rate.subtract(BigDecimal.valueOf(0.03));
-            } else if (scoringData.getGender() == Gender.MALE && age >= 30 && age <= 55) {
-                rate = rate.subtract(BigDecimal.valueOf(0.03));
-            } else if (scoringData.getGender() == Gender.NON_BINARY) {
-                rate = rate.add(BigDecimal.valueOf(0.07));
+            //Применение правил скоринга по зарплатному клиенту
+            if (scoringData.getIsSalaryClient()) {
+                rate = rate.subtract(SALARY_CLIENT_DISCOUNT);
             }
 
-            // Применение правил скоринга по стажу работы
-            if (scoringData.getEmployment().getWorkExperienceTotal() < 18 || scoringData.getEmployment().getWorkExperienceCurrent() < 3) {
-                logger.warn("Заявка отклонена: Недостаточный стаж работы.");
-                throw new IllegalArgumentException("Отказ: стаж работы менее 18 месяцев или текущий стаж менее 3 месяцев.");
-            }
+            // Применение правил скоринга по статусу занятости, должности, семейному положению и полу
+            rate = scoringRules.adjustRate(rate, scoringData, LocalDate.now());
 
             // Расчет аннуитентного платежа и ПСК
             BigDecimal monthlyPayment = calculateAnnuityMonthlyPayment(scoringData.getAmount(), rate, scoringData.getTerm());
             BigDecimal psk = monthlyPayment.multiply(BigDecimal.valueOf(scoringData.getTerm()));
-            List<PaymentScheduleElementDto> paymentSchedule = calculateAnnuityPaymentSchedule(scoringData.getAmount(), rate, scoringData.getTerm());
 
             // Создание и возвращение CreditDto
             CreditDto creditDto = CreditDto.builder()
@@ -232,10 +239,9 @@ public class CalculatorService {
                     .psk(psk)
                     .isInsuranceEnabled(scoringData.getIsInsuranceEnabled())
                     .isSalaryClient(scoringData.getIsSalaryClient())
-                    .paymentSchedule(paymentSchedule)
                     .build();
 
-            logger.info("Рассчитанные данные кредита: {}", creditDto);
+            logger.debug("Рассчитаны условия кредита: {}", creditDto);
             return creditDto;
         } catch (IllegalArgumentException e) {
             logger.error("Ошибка при расчете кредита: {}", e.getMessage());
@@ -251,38 +257,25 @@ public class CalculatorService {
      * @param term        срок кредита в месяцах
      * @return график аннуитетных платежей
      */
-    private List<PaymentScheduleElementDto> calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term) {
+    List<PaymentScheduleElementDto> calculateAnnuityPaymentSchedule(BigDecimal loanAmount, BigDecimal rate, int term) {
         logger.debug("Расчет графика аннуитетных платежей для loanAmount: {}, rate: {}, term: {}", loanAmount, rate, term);
 
-        List<PaymentScheduleElementDto> paymentSchedule = new ArrayList<>();
-        BigDecimal monthlyRate = rate.divide(BigDecimal.valueOf(12), MathContext.DECIMAL128);
-        BigDecimal remainingPrincipal = loanAmount;
-        BigDecimal monthlyPayment = calculateAnnuityMonthlyPayment(loanAmount, rate, term);
-
-        // Получаем текущую дату
-        LocalDate currentDate = LocalDate.now();
-
-        for (int i = 0; i < term; i++) {
-            // Прибавляем i месяцев к текущей дате
-            LocalDate paymentDate = currentDate.plusMonths((long) i + 1);
-
-            BigDecimal interestPayment = remainingPrincipal.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal principalPayment = monthlyPayment.subtract(interestPayment).setScale(2, RoundingMode.HALF_UP);
-            remainingPrincipal = remainingPrincipal.subtract(principalPayment).setScale(2, RoundingMode.HALF_UP);
-
-            PaymentScheduleElementDto element = PaymentScheduleElementDto.builder()
-                    .number(i + 1)
-                    .date(paymentDate)
-                    .totalPayment(monthlyPayment)
-                    .interestPayment(interestPayment)
-                    .debtPayment(principalPayment)
-                    .remainingDebt(remainingPrincipal)
-                    .build();
-
-            paymentSchedule.add(element);
-        }
+        List<PaymentScheduleElementDto> paymentSchedule =
+                moneyEngine.calculateAnnuityPaymentSchedule(loanAmount, rate, term, LocalDate.now());
 
         logger.debug("Рассчитан график аннуитетных платежей: {}", paymentSchedule);
         return paymentSchedule;
     }
+
+    /**
+     * Рассчитывает график платежей по условиям кредита и передает элементы по одному по мере расчета.
+     *
+     * @param creditDto условия кредита, рассчитанные {@link #calculateCreditTerms}
+     * @param consumer  получатель элементов графика платежей
+     */
+    public void calculatePaymentSchedule(CreditDto creditDto, Consumer<PaymentScheduleElementDto> consumer) {
+        logger.debug("Потоковый расчет графика аннуитетных платежей для loanAmount: {}, rate: {}, term: {}",
+                creditDto.getAmount(), creditDto.getRate(), creditDto.getTerm());
+        moneyEngine.calculateAnnuityPaymentSchedule(creditDto.getAmount(), creditDto.getRate(), creditDto.getTerm(), LocalDate.now(), consumer);
+    }
 }
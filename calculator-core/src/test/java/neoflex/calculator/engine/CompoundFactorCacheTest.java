@@ -0,0 +1,40 @@
+package neoflex.calculator.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CompoundFactorCacheTest {
+
+    @Test
+    void testRepeatedLookupIsCacheHit() {
+        CompoundFactorCache cache = new CompoundFactorCache(16);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        CompoundFactor first = cache.get(new BigDecimal("0.10"), 24);
+        CompoundFactor second = cache.get(new BigDecimal("0.10"), 24);
+        cache.get(new BigDecimal("0.10"), 36);
+
+        assertSame(first, second);
+        assertEquals(1, registry.get("cache.gets").tag("cache", "compound-factor").tag("result", "hit").functionCounter().count());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "compound-factor").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testCachedFactorMatchesDirectCalculation() {
+        CompoundFactorCache cache = new CompoundFactorCache(16);
+        BigDecimal rate = new BigDecimal("0.07");
+
+        CompoundFactor compoundFactor = cache.get(rate, 360);
+
+        BigDecimal monthlyRate = rate.divide(BigDecimal.valueOf(12), MathContext.DECIMAL128);
+        assertEquals(monthlyRate, compoundFactor.monthlyRate());
+        assertEquals(BigDecimal.ONE.add(monthlyRate).pow(360, MathContext.DECIMAL128), compoundFactor.factor());
+    }
+}
@@ -0,0 +1,82 @@
+package neoflex.calculator.engine;
+
+import neoflex.dto.PaymentScheduleElementDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FixedPointMoneyEngineTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 31);
+
+    private final BigDecimalMoneyEngine exactEngine = new BigDecimalMoneyEngine(new CompoundFactorCache(1024));
+    private final FixedPointMoneyEngine fixedPointEngine = new FixedPointMoneyEngine(new BigDecimalMoneyEngine(new CompoundFactorCache(1024)));
+
+    @Test
+    void testScheduleMatchesBigDecimalEngineOnRateGrid() {
+        String[] amounts = {"20000", "20000.01", "123456.78", "500000", "5000000.50", "30000000"};
+        int[] terms = {1, 2, 6, 7, 12, 13, 24, 60, 120, 240, 360};
+
+        for (String amount : amounts) {
+            for (int term : terms) {
+                // Ставки, которые дают правила скоринга: от -13% до 30% с шагом 0.01
+                for (int percent = -13; percent <= 30; percent++) {
+                    if (percent != 0) {
+                        assertSameResult(new BigDecimal(amount), BigDecimal.valueOf(percent, 2), term);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testScheduleMatchesBigDecimalEngineOnRandomInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(2_000_000 + random.nextLong(1_000_000_000L), 2);
+            BigDecimal rate = BigDecimal.valueOf(1 + random.nextInt(3000), 4);
+            int term = 6 + random.nextInt(355);
+            assertSameResult(amount, rate, term);
+        }
+    }
+
+    @Test
+    void testRoundingTiesAreResolvedExactly() {
+        // Ставка 12% дает месячную ставку ровно 0.01, поэтому проценты с остатка ...50 копеек попадают на границу округления
+        assertSameResult(new BigDecimal("150.50"), new BigDecimal("0.12"), 12);
+        assertSameResult(new BigDecimal("1000050"), new BigDecimal("0.12"), 360);
+        assertSameResult(new BigDecimal("1000050"), new BigDecimal("-0.12"), 36);
+    }
+
+    @Test
+    void testInputsOutsideDomainAreDelegated() {
+        assertSameResult(new BigDecimal("100000.005"), new BigDecimal("0.10"), 12);
+        assertSameResult(new BigDecimal("100000"), new BigDecimal("0.00001"), 12);
+        assertSameResult(new BigDecimal("100000"), new BigDecimal("1.5"), 12);
+        assertSameResult(new BigDecimal("-100000"), new BigDecimal("0.10"), 12);
+    }
+
+    @Test
+    void testAmountWithTrailingZerosIsSupported() {
+        assertSameResult(new BigDecimal("100000.000"), new BigDecimal("0.10"), 12);
+        assertSameResult(new BigDecimal("1E+5"), new BigDecimal("0.10"), 12);
+    }
+
+    private void assertSameResult(BigDecimal amount, BigDecimal rate, int term) {
+        String message = "amount=" + amount + ", rate=" + rate + ", term=" + term;
+
+        BigDecimal expectedPayment = exactEngine.calculateAnnuityMonthlyPayment(amount, rate, term);
+        BigDecimal actualPayment = fixedPointEngine.calculateAnnuityMonthlyPayment(amount, rate, term);
+        // Сравнение через toString проверяет и значение, и масштаб
+        assertEquals(expectedPayment.toString(), actualPayment.toString(), message);
+
+        List<PaymentScheduleElementDto> expectedSchedule = exactEngine.calculateAnnuityPaymentSchedule(amount, rate, term, START_DATE);
+        List<PaymentScheduleElementDto> actualSchedule = fixedPointEngine.calculateAnnuityPaymentSchedule(amount, rate, term, START_DATE);
+        assertEquals(expectedSchedule.toString(), actualSchedule.toString(), message);
+    }
+}
@@ -0,0 +1,124 @@
+package neoflex.calculator.scoring;
+
+import neoflex.dto.EmploymentDto;
+import neoflex.dto.ScoringDataDto;
+import neoflex.enums.EmploymentPosition;
+import neoflex.enums.EmploymentStatus;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringRuleEngineTest {
+
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2024, 6, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDefaultRulesAdjustRate() {
+        ScoringRules rules = new ScoringRuleEngine(new DefaultResourceLoader(), "classpath:scoring-rules.yml").getRules();
+        ScoringDataDto scoringData = scoringData();
+
+        // SELF_EMPLOYED +0.02, TOP_MANAGER -0.03, DIVORCED +0.01, FEMALE 40 лет -0.03
+        BigDecimal rate = rules.adjustRate(new BigDecimal("0.10"), scoringData, CURRENT_DATE);
+
+        assertEquals(new BigDecimal("0.07"), rate);
+    }
+
+    @Test
+    void testGenderRuleOutsideAgeRangeIsNotApplied() {
+        ScoringRules rules = new ScoringRuleEngine(new DefaultResourceLoader(), "classpath:scoring-rules.yml").getRules();
+        ScoringDataDto scoringData = scoringData();
+        scoringData.setBirthdate(CURRENT_DATE.minusYears(25));
+
+        BigDecimal rate = rules.adjustRate(new BigDecimal("0.10"), scoringData, CURRENT_DATE);
+
+        assertEquals(new BigDecimal("0.10"), rate);
+    }
+
+    @Test
+    void testRejectionsAreCheckedInOrder() {
+        ScoringRules rules = new ScoringRuleEngine(new DefaultResourceLoader(), "classpath:scoring-rules.yml").getRules();
+        ScoringDataDto scoringData = scoringData();
+        scoringData.getEmployment().setEmploymentStatus(EmploymentStatus.UNEMPLOYED);
+        scoringData.getEmployment().setWorkExperienceTotal(1);
+        scoringData.setAmount(BigDecimal.valueOf(100_000_000));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> rules.checkRejections(scoringData));
+        assertEquals("Отказ: статус - безработный.", exception.getMessage());
+
+        scoringData.getEmployment().setEmploymentStatus(EmploymentStatus.EMPLOYED);
+        exception = assertThrows(IllegalArgumentException.class, () -> rules.checkRejections(scoringData));
+        assertEquals("Отказ: стаж работы менее 18 месяцев или текущий стаж менее 3 месяцев.", exception.getMessage());
+
+        scoringData.getEmployment().setWorkExperienceTotal(20);
+        exception = assertThrows(IllegalArgumentException.class, () -> rules.checkRejections(scoringData));
+        assertEquals("Отказ: сумма займа больше, чем 24 зарплат.", exception.getMessage());
+    }
+
+    @Test
+    void testRulesAreReloadedWhenFileChanges() throws IOException {
+        Path rulesFile = tempDir.resolve("scoring-rules.yml");
+        Files.writeString(rulesFile, defaultRules(), StandardCharsets.UTF_8);
+        ScoringRuleEngine engine = new ScoringRuleEngine(new DefaultResourceLoader(), rulesFile.toUri().toString());
+
+        Files.writeString(rulesFile, defaultRules().replace("self-employed: \"0.02\"", "self-employed: \"0.05\""), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(rulesFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        engine.reloadIfModified();
+
+        BigDecimal rate = engine.getRules().adjustRate(new BigDecimal("0.10"), scoringData(), CURRENT_DATE);
+        assertEquals(new BigDecimal("0.10"), rate);
+    }
+
+    @Test
+    void testInvalidRulesKeepPreviousRules() throws IOException {
+        Path rulesFile = tempDir.resolve("scoring-rules.yml");
+        Files.writeString(rulesFile, defaultRules(), StandardCharsets.UTF_8);
+        ScoringRuleEngine engine = new ScoringRuleEngine(new DefaultResourceLoader(), rulesFile.toUri().toString());
+        ScoringRules previousRules = engine.getRules();
+
+        Files.writeString(rulesFile, defaultRules().replace("max-salaries: 24", ""), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(rulesFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        engine.reloadIfModified();
+
+        assertSame(previousRules, engine.getRules());
+    }
+
+    private String defaultRules() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/scoring-rules.yml")) {
+            assertNotNull(inputStream);
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private ScoringDataDto scoringData() {
+        return ScoringDataDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .gender(Gender.FEMALE)
+                .birthdate(CURRENT_DATE.minusYears(40))
+                .maritalStatus(MaritalStatus.DIVORCED)
+                .employment(EmploymentDto.builder()
+                        .employmentStatus(EmploymentStatus.SELF_EMPLOYED)
+                        .salary(BigDecimal.valueOf(50000))
+                        .position(EmploymentPosition.TOP_MANAGER)
+                        .workExperienceTotal(20)
+                        .workExperienceCurrent(20)
+                        .build())
+                .build();
+    }
+}
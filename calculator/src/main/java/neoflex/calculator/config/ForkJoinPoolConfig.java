@@ -0,0 +1,29 @@
+package neoflex.calculator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Конфигурация пула для параллельных расчетов калькулятора.
+ */
+@Configuration
+public class ForkJoinPoolConfig {
+
+    @Value("${calculator.batch.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * Создает ограниченный ForkJoin пул. Отдельный пул не дает пакетным расчетам и расчету сетки занять общий
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @return пул для параллельных расчетов
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool calculatorForkJoinPool() {
+        int poolParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(poolParallelism);
+    }
+}
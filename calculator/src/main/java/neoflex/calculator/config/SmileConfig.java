@@ -0,0 +1,35 @@
+package neoflex.calculator.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Конфигурация бинарного формата Smile для обмена с МС Сделка.
+ * <p>
+ * Smile выбирается по заголовкам {@code Content-Type} и {@code Accept: application/x-jackson-smile}.
+ * Конвертер добавляется последним, поэтому без явного запроса Smile ответы остаются в JSON.
+ */
+@Configuration
+public class SmileConfig implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public SmileConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Настройки Jackson (модули, формат дат) берутся те же, что и для JSON
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
+}
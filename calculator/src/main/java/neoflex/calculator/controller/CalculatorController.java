@@ -1,15 +1,26 @@
 package neoflex.calculator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import neoflex.dto.CreditDto;
 import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanOfferGridDto;
+import neoflex.dto.LoanOfferGridRequestDto;
 import neoflex.dto.LoanStatementRequestDto;
 import neoflex.dto.ScoringDataDto;
+import neoflex.calculator.config.SmileConfig;
+import neoflex.calculator.service.BatchOfferService;
 import neoflex.calculator.service.CalculatorService;
+import neoflex.calculator.service.LoanOfferGridService;
+import neoflex.calculator.util.NdjsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -23,6 +34,9 @@ public class CalculatorController {
     private static final Logger logger = LoggerFactory.getLogger(CalculatorController.class);
 
     private final CalculatorService calculatorService;
+    private final BatchOfferService batchOfferService;
+    private final LoanOfferGridService loanOfferGridService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Обрабатывает запрос на расчет кредитных предложений.
@@ -38,17 +52,83 @@ public class CalculatorController {
         return loanOffers;
     }
 
+    /**
+     * Обрабатывает пакетный запрос на расчет кредитных предложений.
+     * Результат по каждому запросу пакета (предложения или причина отказа) возвращается отдельной строкой NDJSON.
+     *
+     * @param requests тело запроса: JSON массив или NDJSON с заявками на расчет кредитных предложений
+     * @return поток результатов в формате NDJSON
+     */
+    @PostMapping(value = "/offers/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateLoanOffersBatch(InputStream requests) {
+        logger.info("Получен пакетный запрос на расчет кредитных предложений");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results -> batchOfferService.generateLoanOffers(requests, results));
+    }
+
+    /**
+     * Обрабатывает запрос на расчет сетки кредитных предложений по суммам и срокам.
+     *
+     * Если суммы или сроки недопустимы, клиент не прошел прескоринг или сетка слишком велика, возвращается 400.
+     *
+     * @param request дата рождения клиента, суммы и сроки сетки
+     * @return сетка кредитных предложений
+     */
+    @PostMapping("/offers/grid")
+    public ResponseEntity<LoanOfferGridDto> calculateLoanOfferGrid(@RequestBody LoanOfferGridRequestDto request) {
+        logger.info("Получен запрос на расчет сетки кредитных предложений: {} сумм, {} сроков",
+                request.getAmounts() != null ? request.getAmounts().size() : 0,
+                request.getTerms() != null ? request.getTerms().size() : 0);
+        try {
+            LoanOfferGridDto grid = loanOfferGridService.generateLoanOfferGrid(request);
+            logger.info("Рассчитана сетка из {} кредитных предложений.", grid.getOffers().size());
+            return ResponseEntity.ok(grid);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Сетка кредитных предложений не рассчитана: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Обрабатывает запрос на расчет деталей кредита.
+     * Ответ в JSON или, при {@code Accept: application/x-jackson-smile}, в бинарном формате Smile.
      *
      * @param scoringData объект с данными для скоринга
      * @return детали кредита
      */
-    @PostMapping("/calc")
+    @PostMapping(value = "/calc", produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfig.APPLICATION_SMILE_VALUE})
     public CreditDto calculateCreditDetails(@RequestBody ScoringDataDto scoringData) {
         logger.info("Получены данные для расчета деталей кредита: {}", scoringData);
         CreditDto creditDetails = calculatorService.calculateCredit(scoringData);
         logger.info("Рассчитанные детали кредита: {}", creditDetails);
         return creditDetails;
     }
+
+    /**
+     * Обрабатывает запрос на расчет деталей кредита с потоковой выдачей графика платежей
+     * ({@code Accept: application/x-ndjson}). Первая строка ответа — детали кредита без графика платежей,
+     * далее по строке на каждый элемент графика по мере его расчета.
+     *
+     * @param scoringData объект с данными для скоринга
+     * @return поток деталей кредита и элементов графика платежей в формате NDJSON
+     */
+    @PostMapping(value = "/calc", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateCreditDetailsStream(@RequestBody ScoringDataDto scoringData) {
+        logger.info("Получены данные для потокового расчета деталей кредита: {}", scoringData);
+        // Скоринг выполняется до начала ответа, чтобы отказ вернулся ошибкой, а не оборванным потоком
+        CreditDto creditTerms = calculatorService.calculateCreditTerms(scoringData);
+        logger.info("Рассчитанные условия кредита: {}", creditTerms);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream);
+                    writer.write(creditTerms);
+                    writer.flush();
+                    calculatorService.calculatePaymentSchedule(creditTerms, writer::writeUnchecked);
+                    writer.flush();
+                });
+    }
 }
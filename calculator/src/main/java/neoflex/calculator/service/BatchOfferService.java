@@ -0,0 +1,146 @@
+package neoflex.calculator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import neoflex.calculator.util.NdjsonWriter;
+import neoflex.dto.LoanOfferBatchResultDto;
+import neoflex.dto.LoanStatementRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Сервис для пакетного расчета кредитных предложений.
+ * <p>
+ * Запросы читаются потоком (JSON массив или NDJSON) порциями по {@code calculator.batch.chunk-size},
+ * каждая порция считается параллельно в ограниченном ForkJoin пуле, а результаты сразу пишутся в ответ
+ * в формате NDJSON в порядке запросов. Отказ по одному запросу не прерывает расчет пакета.
+ * <p>
+ * Причина отказа по правилам скоринга передается клиенту как есть; непредвиденная ошибка расчета (например,
+ * из-за незаполненного поля запроса) пишется в лог со стеком и возвращается общим сообщением.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchOfferService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchOfferService.class);
+
+    private static final String CALCULATION_FAILURE = "Ошибка при расчете кредитных предложений: запрос не заполнен "
+            + "или заполнен некорректно.";
+
+    private final CalculatorService calculatorService;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool calculatorForkJoinPool;
+
+    @Value("${calculator.batch.max-size:10000}")
+    private int maxSize;
+
+    @Value("${calculator.batch.chunk-size:256}")
+    private int chunkSize;
+
+    /**
+     * Рассчитывает кредитные предложения для пакета запросов.
+     *
+     * @param requests поток запросов: JSON массив или NDJSON
+     * @param results  поток для записи результатов в формате NDJSON
+     * @throws IOException при ошибке записи результатов
+     */
+    public void generateLoanOffers(InputStream requests, OutputStream results) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, results);
+        List<LoanStatementRequestDto> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        String failure = null;
+
+        try (MappingIterator<LoanStatementRequestDto> iterator =
+                     objectMapper.readerFor(LoanStatementRequestDto.class).readValues(requests)) {
+            while (iterator.hasNextValue()) {
+                if (index == maxSize) {
+                    failure = "Отказ: пакет содержит больше " + maxSize + " запросов.";
+                    break;
+                }
+                chunk.add(iterator.nextValue());
+                index++;
+                if (chunk.size() == chunkSize) {
+                    writeResults(writer, evaluate(chunk, index - chunk.size()));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Некорректный запрос {} в пакете: {}", index, e.getOriginalMessage());
+            failure = "Некорректный запрос: " + e.getOriginalMessage();
+        }
+
+        writeResults(writer, evaluate(chunk, index - chunk.size()));
+        if (failure != null) {
+            writeResults(writer, List.of(LoanOfferBatchResultDto.builder()
+                    .index(index)
+                    .rejectionReason(failure)
+                    .build()));
+        }
+        logger.info("Пакетный расчет завершен, обработано запросов: {}", index);
+    }
+
+    /**
+     * Параллельно рассчитывает предложения для порции запросов в пуле калькулятора.
+     *
+     * @param chunk      порция запросов
+     * @param firstIndex номер первого запроса порции в пакете
+     * @return результаты в порядке запросов
+     */
+    private List<LoanOfferBatchResultDto> evaluate(List<LoanStatementRequestDto> chunk, int firstIndex) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return calculatorForkJoinPool.submit(() -> IntStream.range(0, chunk.size())
+                    .parallel()
+                    .mapToObj(i -> evaluate(chunk.get(i), firstIndex + i))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Пакетный расчет прерван", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Ошибка при пакетном расчете кредитных предложений", e.getCause());
+        }
+    }
+
+    private LoanOfferBatchResultDto evaluate(LoanStatementRequestDto request, int index) {
+        try {
+            return LoanOfferBatchResultDto.builder()
+                    .index(index)
+                    .offers(calculatorService.generateLoanOffers(request))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Запрос {} в пакете отклонен: {}", index, e.getMessage());
+            return rejected(index, e.getMessage() != null ? e.getMessage() : CALCULATION_FAILURE);
+        } catch (RuntimeException e) {
+            logger.error("Ошибка при расчете запроса {} в пакете", index, e);
+            return rejected(index, CALCULATION_FAILURE);
+        }
+    }
+
+    private static LoanOfferBatchResultDto rejected(int index, String rejectionReason) {
+        return LoanOfferBatchResultDto.builder()
+                .index(index)
+                .rejectionReason(rejectionReason)
+                .build();
+    }
+
+    private void writeResults(NdjsonWriter writer, List<LoanOfferBatchResultDto> batchResults) throws IOException {
+        for (LoanOfferBatchResultDto result : batchResults) {
+            writer.write(result);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,157 @@
+package neoflex.calculator.service;
+
+import lombok.RequiredArgsConstructor;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanOfferGridDto;
+import neoflex.dto.LoanOfferGridRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Сервис для расчета сетки кредитных предложений: сумма × срок × 4 варианта страховки и зарплатного клиента.
+ * <p>
+ * Ячейки сетки (сумма, срок) считаются в ForkJoin пуле калькулятора рекурсивным делением диапазона ячеек.
+ * Размер сетки ограничен {@code calculator.grid.max-size}, время расчета — {@code calculator.grid.latency-budget-ms}:
+ * ячейки, не рассчитанные к сроку, не попадают в ответ, а сетка помечается как неполная.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanOfferGridService {
+    private static final Logger logger = LoggerFactory.getLogger(LoanOfferGridService.class);
+
+    private static final int OPTIONS_PER_CELL = 4;
+    private static final int CELLS_PER_TASK = 16;
+    // Те же ограничения, что у суммы и срока в LoanStatementRequestDto для /calculator/offers
+    private static final BigDecimal MIN_AMOUNT = BigDecimal.valueOf(20000);
+    private static final int MIN_TERM = 6;
+    private static final int MAX_TERM = 360;
+
+    private final CalculatorService calculatorService;
+    private final ForkJoinPool calculatorForkJoinPool;
+
+    @Value("${calculator.grid.max-size:10000}")
+    private int maxSize;
+
+    @Value("${calculator.grid.latency-budget-ms:1000}")
+    private long latencyBudgetMs;
+
+    /**
+     * Рассчитывает сетку кредитных предложений.
+     *
+     * @param request даты рождения клиента, суммы и сроки сетки
+     * @return предложения, упорядоченные по сумме, сроку и ставке, и признак полноты сетки
+     * @throws IllegalArgumentException если сумма или срок сетки недопустимы, клиент не прошел прескоринг
+     *                                  или сетка больше допустимой
+     */
+    public LoanOfferGridDto generateLoanOfferGrid(LoanOfferGridRequestDto request) {
+        List<BigDecimal> amounts = request.getAmounts();
+        List<Integer> terms = request.getTerms();
+        if (amounts == null || amounts.isEmpty() || terms == null || terms.isEmpty()) {
+            throw new IllegalArgumentException("Отказ: не заданы суммы или сроки сетки предложений.");
+        }
+        for (BigDecimal amount : amounts) {
+            if (amount == null || amount.compareTo(MIN_AMOUNT) < 0) {
+                throw new IllegalArgumentException("Отказ: сумма кредита " + amount + " меньше " + MIN_AMOUNT + ".");
+            }
+        }
+        for (Integer term : terms) {
+            if (term == null || term < MIN_TERM || term > MAX_TERM) {
+                throw new IllegalArgumentException("Отказ: срок кредита " + term + " вне диапазона от " + MIN_TERM
+                        + " до " + MAX_TERM + " месяцев.");
+            }
+        }
+        long gridSize = (long) amounts.size() * terms.size() * OPTIONS_PER_CELL;
+        if (gridSize > maxSize) {
+            logger.warn("Сетка из {} предложений превышает максимум {}", gridSize, maxSize);
+            throw new IllegalArgumentException("Отказ: сетка содержит " + gridSize + " предложений, максимум " + maxSize + ".");
+        }
+        calculatorService.checkAge(request.getBirthDate());
+
+        int cells = amounts.size() * terms.size();
+        AtomicReferenceArray<List<LoanOfferDto>> results = new AtomicReferenceArray<>(cells);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs);
+
+        ForkJoinTask<Void> task = calculatorForkJoinPool.submit(new GridTask(amounts, terms, results, 0, cells, deadline));
+        try {
+            task.get(latencyBudgetMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Сетка предложений не рассчитана за {} мс, возвращается частичный результат", latencyBudgetMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Расчет сетки предложений прерван", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Ошибка при расчете сетки предложений", e.getCause());
+        }
+
+        List<LoanOfferDto> offers = new ArrayList<>((int) gridSize);
+        boolean complete = true;
+        for (int i = 0; i < cells; i++) {
+            List<LoanOfferDto> cellOffers = results.get(i);
+            if (cellOffers != null) {
+                offers.addAll(cellOffers);
+            } else {
+                complete = false;
+            }
+        }
+
+        logger.info("Рассчитана сетка из {} предложений, полная: {}", offers.size(), complete);
+        return LoanOfferGridDto.builder()
+                .offers(offers)
+                .complete(complete)
+                .build();
+    }
+
+    /**
+     * Задача расчета диапазона ячеек сетки [from, to). Ячейка i соответствует сумме i / terms.size()
+     * и сроку i % terms.size().
+     */
+    private final class GridTask extends RecursiveAction {
+        private final List<BigDecimal> amounts;
+        private final List<Integer> terms;
+        private final AtomicReferenceArray<List<LoanOfferDto>> results;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        private GridTask(List<BigDecimal> amounts, List<Integer> terms, AtomicReferenceArray<List<LoanOfferDto>> results,
+                         int from, int to, long deadline) {
+            this.amounts = amounts;
+            this.terms = terms;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CELLS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GridTask(amounts, terms, results, from, middle, deadline),
+                        new GridTask(amounts, terms, results, middle, to, deadline));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (System.nanoTime() - deadline > 0) {
+                    return;
+                }
+                BigDecimal amount = amounts.get(i / terms.size());
+                int term = terms.get(i % terms.size());
+                results.set(i, calculatorService.generateLoanOfferOptions(amount, term));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package neoflex.calculator.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Запись объектов в поток в формате NDJSON: по одному JSON объекту в строке.
+ */
+public class NdjsonWriter {
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream outputStream;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this.objectMapper = objectMapper;
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Записывает объект отдельной строкой.
+     *
+     * @param value объект для записи
+     * @throws IOException при ошибке записи в поток
+     */
+    public void write(Object value) throws IOException {
+        outputStream.write(objectMapper.writeValueAsBytes(value));
+        outputStream.write('\n');
+    }
+
+    /**
+     * Записывает объект отдельной строкой, оборачивая ошибку записи в {@link UncheckedIOException}.
+     * Используется в обработчиках, которые не могут бросать проверяемые исключения.
+     *
+     * @param value объект для записи
+     */
+    public void writeUnchecked(Object value) {
+        try {
+            write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Отправляет записанные строки клиенту.
+     *
+     * @throws IOException при ошибке записи в поток
+     */
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+}
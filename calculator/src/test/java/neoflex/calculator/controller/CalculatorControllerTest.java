@@ -2,7 +2,10 @@ package neoflex.calculator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import neoflex.calculator.CalculatorApplication;
+import neoflex.calculator.config.SmileConfig;
+import neoflex.dto.CreditDto;
 import neoflex.dto.EmploymentDto;
+import neoflex.dto.LoanOfferGridRequestDto;
 import neoflex.dto.LoanStatementRequestDto;
 import neoflex.dto.ScoringDataDto;
 import neoflex.enums.EmploymentPosition;
@@ -14,12 +17,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(classes = CalculatorApplication.class)
 @AutoConfigureMockMvc
@@ -48,7 +59,68 @@ public class CalculatorControllerTest {
 
     @Test
     void testCalculateCreditDetails() throws Exception {
-        ScoringDataDto scoringData = ScoringDataDto.builder()
+        ScoringDataDto scoringData = scoringData();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/calculator/calc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scoringData)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rate").exists());
+    }
+
+    @Test
+    void testCalculateCreditDetailsSmile() throws Exception {
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        ScoringDataDto scoringData = scoringData();
+
+        byte[] smileResponse = mockMvc.perform(MockMvcRequestBuilders.post("/calculator/calc")
+                        .contentType(SmileConfig.APPLICATION_SMILE_VALUE)
+                        .accept(SmileConfig.APPLICATION_SMILE_VALUE)
+                        .content(smileMapper.writeValueAsBytes(scoringData)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(SmileConfig.APPLICATION_SMILE_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        String jsonResponse = mockMvc.perform(MockMvcRequestBuilders.post("/calculator/calc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(scoringData)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        CreditDto smileCredit = smileMapper.readValue(smileResponse, CreditDto.class);
+        assertEquals(objectMapper.readValue(jsonResponse, CreditDto.class), smileCredit);
+        assertTrue(smileResponse.length < jsonResponse.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void testCalculateCreditDetailsStream() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/calculator/calc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(scoringData())))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8)
+                .split("\n");
+
+        assertEquals(13, lines.length);
+        assertTrue(objectMapper.readTree(lines[0]).get("rate").isNumber());
+        assertTrue(objectMapper.readTree(lines[0]).get("paymentSchedule").isNull());
+        for (int i = 1; i < lines.length; i++) {
+            assertEquals(i, objectMapper.readTree(lines[i]).get("number").asInt());
+        }
+    }
+
+    private ScoringDataDto scoringData() {
+        return ScoringDataDto.builder()
                 .amount(BigDecimal.valueOf(100000))
                 .term(12)
                 .firstName("John")
@@ -74,12 +146,102 @@ public class CalculatorControllerTest {
                 .isInsuranceEnabled(true)
                 .isSalaryClient(true)
                 .build();
+    }
 
+    @Test
+    void testCalculateLoanOffersBatchFromJsonArray() throws Exception {
+        LoanStatementRequestDto approved = new LoanStatementRequestDto();
+        approved.setAmount(BigDecimal.valueOf(100000));
+        approved.setTerm(12);
+        approved.setBirthDate(LocalDate.now().minusYears(30));
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/calculator/calc")
+        LoanStatementRequestDto rejected = new LoanStatementRequestDto();
+        rejected.setAmount(BigDecimal.valueOf(100000));
+        rejected.setTerm(12);
+        rejected.setBirthDate(LocalDate.now().minusYears(70));
+
+        String[] lines = performBatch(MediaType.APPLICATION_JSON, objectMapper.writeValueAsString(List.of(approved, rejected)));
+
+        assertEquals(2, lines.length);
+        assertEquals(0, objectMapper.readTree(lines[0]).get("index").asInt());
+        assertEquals(4, objectMapper.readTree(lines[0]).get("offers").size());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
+        assertEquals("Отказ: возраст клиента должен быть от 20 до 65 лет.",
+                objectMapper.readTree(lines[1]).get("rejectionReason").asText());
+    }
+
+    @Test
+    void testCalculateLoanOffersBatchFromNdjson() throws Exception {
+        LoanStatementRequestDto request = new LoanStatementRequestDto();
+        request.setAmount(BigDecimal.valueOf(100000));
+        request.setTerm(12);
+        request.setBirthDate(LocalDate.now().minusYears(30));
+        String line = objectMapper.writeValueAsString(request);
+
+        String[] lines = performBatch(MediaType.APPLICATION_NDJSON, line + "\n" + line + "\n" + line + "\n");
+
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i, objectMapper.readTree(lines[i]).get("index").asInt());
+            assertNull(objectMapper.readTree(lines[i]).get("rejectionReason").textValue());
+        }
+    }
+
+    @Test
+    void testCalculateLoanOffersBatchStopsOnMalformedRequest() throws Exception {
+        LoanStatementRequestDto request = new LoanStatementRequestDto();
+        request.setAmount(BigDecimal.valueOf(100000));
+        request.setTerm(12);
+        request.setBirthDate(LocalDate.now().minusYears(30));
+
+        String[] lines = performBatch(MediaType.APPLICATION_NDJSON, objectMapper.writeValueAsString(request) + "\n{\"term\": ");
+
+        assertEquals(2, lines.length);
+        assertEquals(4, objectMapper.readTree(lines[0]).get("offers").size());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
+    }
+
+    @Test
+    void testCalculateLoanOffersBatchRejectsIncompleteRequest() throws Exception {
+        LoanStatementRequestDto request = new LoanStatementRequestDto();
+        request.setAmount(BigDecimal.valueOf(100000));
+        request.setTerm(12);
+        request.setBirthDate(LocalDate.now().minusYears(30));
+        LoanStatementRequestDto incomplete = new LoanStatementRequestDto();
+        incomplete.setBirthDate(LocalDate.now().minusYears(30));
+
+        String[] lines = performBatch(MediaType.APPLICATION_JSON, objectMapper.writeValueAsString(List.of(incomplete, request)));
+
+        assertEquals(2, lines.length);
+        assertEquals("Ошибка при расчете кредитных предложений: запрос не заполнен или заполнен некорректно.",
+                objectMapper.readTree(lines[0]).get("rejectionReason").asText());
+        assertEquals(4, objectMapper.readTree(lines[1]).get("offers").size());
+    }
+
+    @Test
+    void testCalculateLoanOfferGridWithZeroTerm() throws Exception {
+        LoanOfferGridRequestDto request = new LoanOfferGridRequestDto(LocalDate.now().minusYears(30),
+                List.of(BigDecimal.valueOf(100000)), List.of(0));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/calculator/offers/grid")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(scoringData)))
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private String[] performBatch(MediaType contentType, String content) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/calculator/offers/batch")
+                        .contentType(contentType)
+                        .content(content))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.rate").exists());
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        return response.split("\n");
     }
 }
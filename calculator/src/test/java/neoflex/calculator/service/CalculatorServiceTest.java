@@ -13,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -95,22 +96,24 @@ public class CalculatorServiceTest {
 
     @Test
     void testCalculateCreditMiddleManager() {
+        BigDecimal baseRate = calculatorService.calculateCredit(scoringData).getRate();
         EmploymentDto employment = scoringData.getEmployment();
         employment.setPosition(EmploymentPosition.MIDDLE_MANAGER);
         scoringData.setEmployment(employment);
         CreditDto creditData = calculatorService.calculateCredit(scoringData);
         assertNotNull(creditData);
-        assertTrue(creditData.getRate().compareTo(BigDecimal.valueOf(0.02)) < 0);
+        assertTrue(creditData.getRate().compareTo(baseRate) < 0);
     }
 
     @Test
     void testCalculateCreditTopManager() {
+        BigDecimal baseRate = calculatorService.calculateCredit(scoringData).getRate();
         EmploymentDto employment = scoringData.getEmployment();
         employment.setPosition(EmploymentPosition.TOP_MANAGER);
         scoringData.setEmployment(employment);
         CreditDto creditData = calculatorService.calculateCredit(scoringData);
         assertNotNull(creditData);
-        assertTrue(creditData.getRate().compareTo(BigDecimal.valueOf(0.03)) < 0);
+        assertTrue(creditData.getRate().compareTo(baseRate) < 0);
     }
 
     @Test
@@ -121,28 +124,31 @@ public class CalculatorServiceTest {
 
     @Test
     void testCalculateCreditMarried() {
+        BigDecimal baseRate = calculatorService.calculateCredit(scoringData).getRate();
         scoringData.setMaritalStatus(MaritalStatus.MARRIED);
         CreditDto creditData = calculatorService.calculateCredit(scoringData);
         assertNotNull(creditData);
-        assertTrue(creditData.getRate().compareTo(BigDecimal.valueOf(0.03)) < 0);
+        assertTrue(creditData.getRate().compareTo(baseRate) < 0);
     }
 
     @Test
     void testCalculateCreditFemaleAge32to60() {
+        BigDecimal baseRate = calculatorService.calculateCredit(scoringData).getRate();
         scoringData.setGender(Gender.FEMALE);
         scoringData.setBirthdate(LocalDate.of(1990, 5, 20)); // 32 years old
         CreditDto creditData = calculatorService.calculateCredit(scoringData);
         assertNotNull(creditData);
-        assertTrue(creditData.getRate().compareTo(BigDecimal.valueOf(0.03)) < 0);
+        assertTrue(creditData.getRate().compareTo(baseRate) < 0);
     }
 
     @Test
     void testCalculateCreditMaleAge30to55() {
+        BigDecimal baseRate = calculatorService.calculateCredit(scoringData).getRate();
         scoringData.setGender(Gender.MALE);
         scoringData.setBirthdate(LocalDate.of(1993, 5, 20)); // 30 years old
         CreditDto creditData = calculatorService.calculateCredit(scoringData);
         assertNotNull(creditData);
-        assertTrue(creditData.getRate().compareTo(BigDecimal.valueOf(0.03)) < 0);
+        assertTrue(creditData.getRate().compareTo(baseRate) < 0);
     }
 
     @Test
@@ -307,4 +313,19 @@ public class CalculatorServiceTest {
         assertNotNull(creditData.getIsSalaryClient());
         assertNotNull(creditData.getPaymentSchedule());
     }
+
+    @Test
+    void testCalculatePaymentScheduleStreamsSameScheduleAsCalculateCredit() {
+        scoringData.setTerm(360);
+        CreditDto creditData = calculatorService.calculateCredit(scoringData);
+
+        CreditDto creditTerms = calculatorService.calculateCreditTerms(scoringData);
+        List<PaymentScheduleElementDto> streamedSchedule = new ArrayList<>();
+        calculatorService.calculatePaymentSchedule(creditTerms, streamedSchedule::add);
+
+        assertNull(creditTerms.getPaymentSchedule());
+        assertEquals(creditData.getMonthlyPayment(), creditTerms.getMonthlyPayment());
+        assertEquals(creditData.getPsk(), creditTerms.getPsk());
+        assertEquals(creditData.getPaymentSchedule(), streamedSchedule);
+    }
 }
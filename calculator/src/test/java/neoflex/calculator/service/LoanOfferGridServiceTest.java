@@ -0,0 +1,105 @@
+package neoflex.calculator.service;
+
+import neoflex.calculator.CalculatorApplication;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanOfferGridDto;
+import neoflex.dto.LoanOfferGridRequestDto;
+import neoflex.dto.LoanStatementRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = CalculatorApplication.class)
+public class LoanOfferGridServiceTest {
+
+    @Autowired
+    private LoanOfferGridService loanOfferGridService;
+
+    @Autowired
+    private CalculatorService calculatorService;
+
+    @Test
+    void testGridMatchesSingleOfferCalculation() {
+        List<BigDecimal> amounts = List.of(BigDecimal.valueOf(100000), BigDecimal.valueOf(250000));
+        List<Integer> terms = List.of(6, 12, 24, 36, 60, 120, 240, 360);
+        LoanOfferGridRequestDto request = new LoanOfferGridRequestDto(LocalDate.now().minusYears(30), amounts, terms);
+
+        LoanOfferGridDto grid = loanOfferGridService.generateLoanOfferGrid(request);
+
+        assertTrue(grid.getComplete());
+        assertEquals(amounts.size() * terms.size() * 4, grid.getOffers().size());
+
+        // Ячейка (250000, 36 месяцев) совпадает с ответом /calculator/offers без идентификаторов заявки
+        LoanStatementRequestDto single = new LoanStatementRequestDto();
+        single.setAmount(BigDecimal.valueOf(250000));
+        single.setTerm(36);
+        single.setBirthDate(request.getBirthDate());
+        List<LoanOfferDto> expected = calculatorService.generateLoanOffers(single);
+        expected.forEach(offer -> offer.setStatementId(null));
+
+        int cell = terms.size() + terms.indexOf(36);
+        assertEquals(expected, grid.getOffers().subList(cell * 4, cell * 4 + 4));
+    }
+
+    @Test
+    void testGridLargerThanMaxSizeIsRejected() {
+        List<Integer> terms = IntStream.rangeClosed(6, 360).boxed().toList();
+        List<BigDecimal> amounts = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> BigDecimal.valueOf(i * 100000L))
+                .toList();
+        LoanOfferGridRequestDto request = new LoanOfferGridRequestDto(LocalDate.now().minusYears(30), amounts, terms);
+
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(request));
+    }
+
+    @Test
+    void testGridWithInvalidTermOrAmountIsRejected() {
+        LocalDate birthDate = LocalDate.now().minusYears(30);
+        List<BigDecimal> amounts = List.of(BigDecimal.valueOf(100000));
+
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(
+                new LoanOfferGridRequestDto(birthDate, amounts, List.of(12, 0))));
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(
+                new LoanOfferGridRequestDto(birthDate, amounts, List.of(361))));
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(
+                new LoanOfferGridRequestDto(birthDate, amounts, Arrays.asList(12, null))));
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(
+                new LoanOfferGridRequestDto(birthDate, List.of(BigDecimal.valueOf(19999)), List.of(12))));
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(
+                new LoanOfferGridRequestDto(birthDate, Arrays.asList(BigDecimal.valueOf(100000), null), List.of(12))));
+    }
+
+    @Test
+    void testGridAgeOutsideRangeIsRejected() {
+        LoanOfferGridRequestDto request = new LoanOfferGridRequestDto(LocalDate.now().minusYears(70),
+                List.of(BigDecimal.valueOf(100000)), List.of(12));
+
+        assertThrows(IllegalArgumentException.class, () -> loanOfferGridService.generateLoanOfferGrid(request));
+    }
+
+    @Test
+    void testGridIsPartialWhenLatencyBudgetIsExhausted() {
+        Object latencyBudgetMs = ReflectionTestUtils.getField(loanOfferGridService, "latencyBudgetMs");
+        ReflectionTestUtils.setField(loanOfferGridService, "latencyBudgetMs", 0L);
+        try {
+            LoanOfferGridRequestDto request = new LoanOfferGridRequestDto(LocalDate.now().minusYears(30),
+                    List.of(BigDecimal.valueOf(100000)), List.of(12, 24));
+
+            LoanOfferGridDto grid = loanOfferGridService.generateLoanOfferGrid(request);
+
+            assertFalse(grid.getComplete());
+            assertTrue(grid.getOffers().size() < 8);
+        } finally {
+            ReflectionTestUtils.setField(loanOfferGridService, "latencyBudgetMs", latencyBudgetMs);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package neoflex.blob;
+
+import neoflex.dto.DocumentReferenceDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * Хранилище документов с адресацией по содержимому.
+ * <p>
+ * Документ записывает один сервис, а читает по {@link DocumentReferenceDto} другой, поэтому в сообщениях
+ * передается только ссылка. Ключ документа определяется его хэшем, повторная запись того же содержимого
+ * не создает копию. Документы не удаляются при чтении: их удаляет по сроку хранения {@link #deleteOlderThan}.
+ */
+public interface BlobStore {
+
+    /**
+     * Сохраняет документ.
+     *
+     * @param content     содержимое документа
+     * @param contentType MIME тип документа
+     * @return ссылка на сохраненный документ
+     * @throws IOException если документ не удалось записать
+     */
+    DocumentReferenceDto put(byte[] content, String contentType) throws IOException;
+
+    /**
+     * Открывает документ на чтение. Поток проверяет хэш содержимого и выбрасывает {@link IOException}
+     * при расхождении, когда будет прочитан до конца.
+     *
+     * @param reference ссылка на документ
+     * @return поток с содержимым документа
+     * @throws IOException если документ не найден или не может быть прочитан
+     */
+    InputStream open(DocumentReferenceDto reference) throws IOException;
+
+    /**
+     * Удаляет документы, которые последний раз сохранялись раньше {@code cutoff}. Повторная запись того же
+     * содержимого продлевает срок хранения документа.
+     *
+     * @param cutoff время, раньше которого документы удаляются
+     * @return число удаленных документов
+     * @throws IOException если хранилище не удалось просмотреть
+     */
+    int deleteOlderThan(Instant cutoff) throws IOException;
+}
@@ -0,0 +1,184 @@
+package neoflex.blob;
+
+import neoflex.dto.DocumentReferenceDto;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище документов в каталоге файловой системы, например в томе, общем для МС Сделка и МС Досье.
+ * Используется как локальная замена объектного хранилища.
+ * <p>
+ * Документ хранится в файле {@code <root>/<первые 2 символа хэша>/<sha256>}. Запись идет через временный файл
+ * и атомарное переименование, поэтому читатель не увидит недописанный документ. Время последнего сохранения —
+ * время изменения файла: повторная запись того же содержимого обновляет его, и документ не удаляется по сроку
+ * хранения, пока на него ссылаются новые сообщения.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+
+    public FileSystemBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public DocumentReferenceDto put(byte[] content, String contentType) throws IOException {
+        String sha256 = HEX.formatHex(newDigest().digest(content));
+        String key = sha256.substring(0, 2) + "/" + sha256;
+        Path target = resolve(key);
+        if (!touch(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), sha256, ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return DocumentReferenceDto.builder()
+                .key(key)
+                .sha256(sha256)
+                .size(content.length)
+                .contentType(contentType)
+                .build();
+    }
+
+    @Override
+    public InputStream open(DocumentReferenceDto reference) throws IOException {
+        return new VerifyingInputStream(Files.newInputStream(resolve(reference.getKey())), reference.getSha256());
+    }
+
+    @Override
+    public int deleteOlderThan(Instant cutoff) throws IOException {
+        if (Files.notExists(root)) {
+            return 0;
+        }
+        FileTime cutoffTime = FileTime.from(cutoff);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).toList();
+        }
+        int deleted = 0;
+        for (Path file : files) {
+            try {
+                // Вместе с документами удаляются временные файлы, оставшиеся от прерванной записи
+                if (Files.getLastModifiedTime(file).compareTo(cutoffTime) < 0 && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (NoSuchFileException e) {
+                // Файл удален параллельно
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Обновляет время последнего сохранения документа.
+     *
+     * @return false, если документа нет
+     */
+    private static boolean touch(Path target) throws IOException {
+        try {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root.normalize())) {
+            throw new IllegalArgumentException("Недопустимый ключ документа: " + key);
+        }
+        return path;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Поток, который считает хэш прочитанного содержимого и сверяет его с ожидаемым в конце потока.
+     */
+    private static class VerifyingInputStream extends FilterInputStream {
+        private final MessageDigest digest = newDigest();
+        private final String expectedSha256;
+        private boolean verified;
+
+        VerifyingInputStream(InputStream in, String expectedSha256) {
+            super(in);
+            this.expectedSha256 = expectedSha256;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                verify();
+            } else {
+                digest.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                verify();
+            } else {
+                digest.update(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Пропущенные байты не попадут в хэш, поэтому пропуск выполняется чтением
+            byte[] buffer = new byte[8192];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void verify() throws IOException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+            String actual = HEX.formatHex(digest.digest());
+            if (!actual.equals(expectedSha256)) {
+                throw new IOException("Хэш документа не совпадает: ожидался " + expectedSha256 + ", получен " + actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package neoflex.dto;
+
+import lombok.*;
+
+/**
+ * DTO ссылки на документ в хранилище документов (claim-check).
+ * Передается в сообщении вместо содержимого документа; {@code sha256} — хэш содержимого в шестнадцатеричном виде.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentReferenceDto {
+    private String key;
+    private String sha256;
+    private long size;
+    private String contentType;
+}
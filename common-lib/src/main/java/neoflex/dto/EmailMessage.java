@@ -19,6 +19,7 @@ public class EmailMessage {
     private UUID statementId;
     private String text;
     private byte[] pdfDocumentBytes;
+    private DocumentReferenceDto pdfDocument;
 
 
     /**
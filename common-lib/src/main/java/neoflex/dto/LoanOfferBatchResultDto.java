@@ -0,0 +1,17 @@
+/**
+ * DTO для результата расчета одного запроса из пакета кредитных предложений.
+ */
+package neoflex.dto;
+
+import lombok.*;
+
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanOfferBatchResultDto {
+    private Integer index;
+    private List<LoanOfferDto> offers;
+    private String rejectionReason;
+}
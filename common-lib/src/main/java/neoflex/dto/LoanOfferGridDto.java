@@ -0,0 +1,16 @@
+/**
+ * DTO для сетки кредитных предложений.
+ */
+package neoflex.dto;
+
+import lombok.*;
+
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanOfferGridDto {
+    private List<LoanOfferDto> offers;
+    private Boolean complete;
+}
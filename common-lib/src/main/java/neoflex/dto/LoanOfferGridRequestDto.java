@@ -0,0 +1,19 @@
+/**
+ * DTO для запроса сетки кредитных предложений по суммам и срокам.
+ */
+package neoflex.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanOfferGridRequestDto {
+    private LocalDate birthDate;
+    private List<BigDecimal> amounts;
+    private List<Integer> terms;
+}
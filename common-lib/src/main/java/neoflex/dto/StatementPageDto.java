@@ -0,0 +1,18 @@
+package neoflex.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO страницы админского списка заявок.
+ * {@code nextCursor} передается в следующий запрос для получения продолжения, null — страница последняя.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementPageDto {
+    private List<StatementSummaryDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,35 @@
+package neoflex.dto;
+
+import lombok.*;
+import neoflex.enums.ApplicationStatus;
+import neoflex.enums.CreditStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO краткой информации о заявке для админского списка заявок.
+ * Не содержит паспортных данных, данных о работе и графика платежей.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementSummaryDto {
+    private UUID statementId;
+    private ApplicationStatus status;
+    private LocalDateTime creationDate;
+    private LocalDateTime signDate;
+    private UUID clientId;
+    private String lastName;
+    private String firstName;
+    private String middleName;
+    private String email;
+    private UUID creditId;
+    private BigDecimal amount;
+    private Integer term;
+    private BigDecimal monthlyPayment;
+    private BigDecimal rate;
+    private CreditStatus creditStatus;
+}
@@ -0,0 +1,18 @@
+package neoflex.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO числа переходов заявок в статус за день, строится по истории статусов.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusCountDto {
+    private LocalDate date;
+    private String status;
+    private Long count;
+}
@@ -1,7 +1,16 @@
 package neoflex.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Перечисление, представляющее статус заявки на кредит.
+ * <p>
+ * Допустимые переходы между статусами задает {@link #canTransitionTo(ApplicationStatus)}. Статусы CC_DENIED,
+ * CLIENT_DENIED и CREDIT_ISSUED конечные. Повторный выбор предложения (APPROVED) и повторная отправка
+ * документов (PREPARE_DOCUMENTS) разрешены, пока заявка не ушла дальше.
  */
 public enum ApplicationStatus {
     PREAPPROVAL,
@@ -12,5 +21,45 @@ public enum ApplicationStatus {
     DOCUMENT_CREATED,
     CLIENT_DENIED,
     DOCUMENT_SIGNED,
-    CREDIT_ISSUED
+    CREDIT_ISSUED;
+
+    private static final Map<ApplicationStatus, Set<ApplicationStatus>> TRANSITIONS = new EnumMap<>(ApplicationStatus.class);
+
+    static {
+        TRANSITIONS.put(PREAPPROVAL, EnumSet.of(APPROVED, CLIENT_DENIED));
+        TRANSITIONS.put(APPROVED, EnumSet.of(APPROVED, CC_APPROVED, CC_DENIED, CLIENT_DENIED));
+        TRANSITIONS.put(CC_DENIED, EnumSet.noneOf(ApplicationStatus.class));
+        TRANSITIONS.put(CC_APPROVED, EnumSet.of(PREPARE_DOCUMENTS, CLIENT_DENIED));
+        TRANSITIONS.put(PREPARE_DOCUMENTS, EnumSet.of(PREPARE_DOCUMENTS, DOCUMENT_CREATED, CLIENT_DENIED));
+        TRANSITIONS.put(DOCUMENT_CREATED, EnumSet.of(PREPARE_DOCUMENTS, DOCUMENT_SIGNED, CLIENT_DENIED));
+        TRANSITIONS.put(CLIENT_DENIED, EnumSet.noneOf(ApplicationStatus.class));
+        TRANSITIONS.put(DOCUMENT_SIGNED, EnumSet.of(CREDIT_ISSUED));
+        TRANSITIONS.put(CREDIT_ISSUED, EnumSet.noneOf(ApplicationStatus.class));
+    }
+
+    /**
+     * Проверяет, можно ли перевести заявку из этого статуса в указанный.
+     *
+     * @param target новый статус
+     * @return true, если переход допустим
+     */
+    public boolean canTransitionTo(ApplicationStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Возвращает статусы, из которых допустим переход в указанный.
+     *
+     * @param target новый статус
+     * @return статусы-источники перехода
+     */
+    public static Set<ApplicationStatus> sourcesOf(ApplicationStatus target) {
+        Set<ApplicationStatus> sources = EnumSet.noneOf(ApplicationStatus.class);
+        TRANSITIONS.forEach((source, targets) -> {
+            if (targets.contains(target)) {
+                sources.add(source);
+            }
+        });
+        return sources;
+    }
 }
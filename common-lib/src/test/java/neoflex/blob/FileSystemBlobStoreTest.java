@@ -0,0 +1,110 @@
+package neoflex.blob;
+
+import neoflex.dto.DocumentReferenceDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSystemBlobStoreTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 credit agreement".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void testPutStoresSameContentOnce() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+
+        DocumentReferenceDto first = store.put(CONTENT, "application/pdf");
+        DocumentReferenceDto second = store.put(CONTENT.clone(), "application/pdf");
+
+        assertEquals(first.getKey(), second.getKey());
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals(first.getSha256().substring(0, 2) + "/" + first.getSha256(), first.getKey());
+        assertEquals(CONTENT.length, first.getSize());
+        try (var files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testOpenReturnsStoredContent() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+        DocumentReferenceDto reference = store.put(CONTENT, "application/pdf");
+
+        try (InputStream document = store.open(reference)) {
+            assertArrayEquals(CONTENT, document.readAllBytes());
+        }
+    }
+
+    @Test
+    void testOpenRejectsModifiedContent() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+        DocumentReferenceDto reference = store.put(CONTENT, "application/pdf");
+        Files.write(root.resolve(reference.getKey()), "%PDF-1.5 credit agreement".getBytes(StandardCharsets.US_ASCII));
+
+        try (InputStream document = store.open(reference)) {
+            assertThrows(IOException.class, document::readAllBytes);
+        }
+    }
+
+    @Test
+    void testOpenVerifiesSkippedContent() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+        DocumentReferenceDto reference = store.put(CONTENT, "application/pdf");
+        Files.write(root.resolve(reference.getKey()), "%PDF-1.5 credit agreement".getBytes(StandardCharsets.US_ASCII));
+
+        try (InputStream document = store.open(reference)) {
+            document.skip(CONTENT.length);
+            assertThrows(IOException.class, document::read);
+        }
+    }
+
+    @Test
+    void testOpenRejectsKeyOutsideRoot() {
+        FileSystemBlobStore store = new FileSystemBlobStore(root.resolve("documents"));
+        DocumentReferenceDto reference = DocumentReferenceDto.builder()
+                .key("../secret.pdf")
+                .sha256("00")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> store.open(reference));
+    }
+
+    @Test
+    void testDeleteOlderThanKeepsRecentlyStoredDocuments() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root);
+        Instant cutoff = Instant.now().minus(Duration.ofDays(7));
+        DocumentReferenceDto expired = store.put(CONTENT, "application/pdf");
+        DocumentReferenceDto stored = store.put("%PDF-1.4 other".getBytes(StandardCharsets.US_ASCII), "application/pdf");
+        DocumentReferenceDto storedAgain = store.put("%PDF-1.4 again".getBytes(StandardCharsets.US_ASCII), "application/pdf");
+        FileTime old = FileTime.from(cutoff.minus(Duration.ofHours(1)));
+        Files.setLastModifiedTime(root.resolve(expired.getKey()), old);
+        Files.setLastModifiedTime(root.resolve(storedAgain.getKey()), old);
+        store.put("%PDF-1.4 again".getBytes(StandardCharsets.US_ASCII), "application/pdf");
+
+        assertEquals(1, store.deleteOlderThan(cutoff));
+
+        assertFalse(Files.exists(root.resolve(expired.getKey())));
+        assertTrue(Files.exists(root.resolve(stored.getKey())));
+        assertTrue(Files.exists(root.resolve(storedAgain.getKey())));
+    }
+
+    @Test
+    void testDeleteOlderThanWithoutRoot() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(root.resolve("missing"));
+
+        assertEquals(0, store.deleteOlderThan(Instant.now()));
+    }
+}
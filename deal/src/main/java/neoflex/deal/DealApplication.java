@@ -2,8 +2,10 @@ package neoflex.deal;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DealApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(DealApplication.class, args);
@@ -0,0 +1,124 @@
+package neoflex.deal.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Фабрика регионов кэша второго уровня Hibernate на Caffeine. Кэш локальный для экземпляра сервиса:
+ * каждый регион — отдельный кэш Caffeine, ограниченный по числу записей и времени жизни записи.
+ * <p>
+ * Для каждого региона публикуются стандартные метрики {@code cache.*} с тегом {@code cache=<имя региона>}:
+ * попадания и промахи ({@code cache.gets}), вытеснения ({@code cache.evictions}) и размер ({@code cache.size}).
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(CaffeineRegionFactory.class);
+
+    private final long maximumSize;
+    private final Duration expireAfterWrite;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param maximumSize      максимальное число записей в одном регионе
+     * @param expireAfterWrite время жизни записи, ограничивает устаревание при изменениях в обход Hibernate
+     * @param meterRegistry    реестр метрик
+     */
+    public CaffeineRegionFactory(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        logger.info("Кэш второго уровня Hibernate: до {} записей в регионе, время жизни записи {}",
+                maximumSize, expireAfterWrite);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(newCache(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(newCache(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(newCache(regionName));
+    }
+
+    private Cache<Object, Object> newCache(String regionName) {
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, regionName);
+        return cache;
+    }
+
+    /**
+     * Хранилище региона в кэше Caffeine. Блокировки записей при изменении выполняет стратегия доступа Hibernate.
+     */
+    static class CaffeineStorageAccess implements DomainDataStorageAccess {
+        private final Cache<Object, Object> cache;
+
+        CaffeineStorageAccess(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package neoflex.deal.client;
+
+import neoflex.dto.CreditDto;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.ScoringDataDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Клиент расчетов кредита.
+ * <p>
+ * Реализация выбирается свойством {@code calculator.mode}: {@code remote} — вызов МС Калькулятор по HTTP,
+ * {@code embedded} — расчет внутри МС Сделка тем же кодом, что и в МС Калькулятор.
+ * <p>
+ * Неблокирующие методы используются в профиле {@code reactive}. По умолчанию они выполняют расчет
+ * в потоке подписчика, что подходит для встроенного расчета без ввода-вывода.
+ */
+public interface CalculatorClient {
+
+    /**
+     * Рассчитывает предложения по кредиту.
+     *
+     * @param request запрос на расчет условий кредита
+     * @return список предложений по кредиту
+     */
+    List<LoanOfferDto> calculateLoanOffers(LoanStatementRequestDto request);
+
+    /**
+     * Выполняет скоринг и полный расчет параметров кредита.
+     *
+     * @param scoringData данные для скоринга
+     * @return данные кредита
+     */
+    CreditDto calculateCredit(ScoringDataDto scoringData);
+
+    /**
+     * Рассчитывает предложения по кредиту без блокировки вызывающего потока.
+     *
+     * @param request запрос на расчет условий кредита
+     * @return список предложений по кредиту
+     */
+    default Mono<List<LoanOfferDto>> calculateLoanOffersReactive(LoanStatementRequestDto request) {
+        return Mono.fromCallable(() -> calculateLoanOffers(request));
+    }
+
+    /**
+     * Выполняет скоринг и полный расчет параметров кредита без блокировки вызывающего потока.
+     *
+     * @param scoringData данные для скоринга
+     * @return данные кредита
+     */
+    default Mono<CreditDto> calculateCreditReactive(ScoringDataDto scoringData) {
+        return Mono.fromCallable(() -> calculateCredit(scoringData));
+    }
+}
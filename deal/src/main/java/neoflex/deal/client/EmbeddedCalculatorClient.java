@@ -0,0 +1,37 @@
+package neoflex.deal.client;
+
+import neoflex.calculator.service.CalculatorService;
+import neoflex.dto.CreditDto;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.ScoringDataDto;
+import org.springframework.beans.BeanUtils;
+
+import java.util.List;
+
+/**
+ * Клиент расчетов кредита, выполняющий расчет в процессе МС Сделка через {@link CalculatorService}
+ * без сетевого вызова и сериализации.
+ */
+public class EmbeddedCalculatorClient implements CalculatorClient {
+
+    private final CalculatorService calculatorService;
+
+    public EmbeddedCalculatorClient(CalculatorService calculatorService) {
+        this.calculatorService = calculatorService;
+    }
+
+    @Override
+    public List<LoanOfferDto> calculateLoanOffers(LoanStatementRequestDto request) {
+        return calculatorService.generateLoanOffers(request);
+    }
+
+    @Override
+    public CreditDto calculateCredit(ScoringDataDto scoringData) {
+        // Калькулятор увеличивает сумму на стоимость страховки в переданном объекте,
+        // поэтому, как и при вызове по HTTP, передаем ему копию
+        ScoringDataDto scoringDataCopy = new ScoringDataDto();
+        BeanUtils.copyProperties(scoringData, scoringDataCopy);
+        return calculatorService.calculateCredit(scoringDataCopy);
+    }
+}
@@ -0,0 +1,71 @@
+package neoflex.deal.client;
+
+import neoflex.deal.config.WebClientConfig;
+import neoflex.dto.CreditDto;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.ScoringDataDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Клиент расчетов кредита через HTTP API микросервиса Калькулятор. Используется по умолчанию.
+ * <p>
+ * Формат обмена задается свойством {@code calculator.wire-format}: {@code json} (по умолчанию)
+ * или бинарный {@code smile}, который компактнее при передаче графика платежей.
+ */
+@Component
+@ConditionalOnProperty(name = "calculator.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteCalculatorClient implements CalculatorClient {
+
+    private final WebClient webClient;
+    private final MediaType wireMediaType;
+
+    public RemoteCalculatorClient(WebClient webClient, @Value("${calculator.wire-format:json}") String wireFormat) {
+        this.webClient = webClient;
+        this.wireMediaType = switch (wireFormat) {
+            case "json" -> MediaType.APPLICATION_JSON;
+            case "smile" -> WebClientConfig.APPLICATION_SMILE;
+            default -> throw new IllegalArgumentException("Неизвестный формат обмена с МС Калькулятор: " + wireFormat);
+        };
+    }
+
+    @Override
+    public List<LoanOfferDto> calculateLoanOffers(LoanStatementRequestDto request) {
+        return calculateLoanOffersReactive(request).block();
+    }
+
+    @Override
+    public CreditDto calculateCredit(ScoringDataDto scoringData) {
+        return calculateCreditReactive(scoringData).block();
+    }
+
+    @Override
+    public Mono<List<LoanOfferDto>> calculateLoanOffersReactive(LoanStatementRequestDto request) {
+        return webClient.post()
+                .uri("/offers")
+                .contentType(wireMediaType)
+                .accept(wireMediaType)
+                .body(Mono.just(request), LoanStatementRequestDto.class)
+                .retrieve()
+                .bodyToFlux(LoanOfferDto.class)
+                .collectList();
+    }
+
+    @Override
+    public Mono<CreditDto> calculateCreditReactive(ScoringDataDto scoringData) {
+        return webClient.post()
+                .uri("/calc")
+                .contentType(wireMediaType)
+                .accept(wireMediaType)
+                .body(Mono.just(scoringData), ScoringDataDto.class)
+                .retrieve()
+                .bodyToMono(CreditDto.class);
+    }
+}
@@ -0,0 +1,30 @@
+package neoflex.deal.config;
+
+import neoflex.blob.BlobStore;
+import neoflex.blob.FileSystemBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Конфигурация хранилища документов, через которое PDF передается в МС Досье в режиме
+ * {@code documents.attachment-mode=claim-check}.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    @Value("${documents.blob-store.root}")
+    private Path root;
+
+    /**
+     * Создает хранилище документов в каталоге, общем с МС Досье.
+     *
+     * @return хранилище документов
+     */
+    @Bean
+    public BlobStore documentBlobStore() {
+        return new FileSystemBlobStore(root);
+    }
+}
@@ -0,0 +1,52 @@
+package neoflex.deal.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Конфигурация пула потоков для вызовов МС Калькулятор, которые выполняются параллельно с сохранением заявки.
+ */
+@Configuration
+public class CalculatorExecutorConfig {
+
+    public static final String CALCULATOR_EXECUTOR = "calculatorExecutor";
+
+    @Value("${calculator.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${calculator.executor.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * Создает пул потоков для вызовов МС Калькулятор.
+     * На виртуальных потоках ограничивается только число одновременных вызовов. На платформенных потоках
+     * при заполненной очереди расчет выполняется в потоке запроса, то есть последовательно с сохранением заявки.
+     *
+     * @return пул потоков для вызовов МС Калькулятор
+     */
+    @Bean(CALCULATOR_EXECUTOR)
+    public Executor calculatorExecutor() {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("calculator-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("calculator-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package neoflex.deal.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import neoflex.deal.metrics.ConnectionHoldTimeDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация метрик источника данных: время удержания соединения с БД по эндпоинтам.
+ * Общие метрики пула соединений (hikaricp.*) публикует actuator.
+ */
+@Configuration
+public class DataSourceMetricsConfig {
+
+    /**
+     * Оборачивает источник данных в {@link ConnectionHoldTimeDataSource}.
+     *
+     * @param meterRegistry реестр метрик
+     * @return пост-процессор источника данных
+     */
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionHoldTimeDataSource) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                return registry != null ? new ConnectionHoldTimeDataSource(dataSource, registry) : bean;
+            }
+        };
+    }
+}
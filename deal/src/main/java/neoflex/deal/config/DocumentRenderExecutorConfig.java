@@ -0,0 +1,60 @@
+package neoflex.deal.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Конфигурация пула потоков для генерации PDF документов.
+ * <p>
+ * Генерация занимает процессор, поэтому пул всегда на платформенных потоках и не зависит от
+ * {@code spring.threads.virtual.enabled}. Место в ограниченной очереди заранее резервирует
+ * {@link neoflex.deal.document.DocumentRenderPipeline}, он же отклоняет и считает задачи при нагрузке;
+ * отказ самого пула ({@code AbortPolicy}) возможен только после его остановки.
+ */
+@Configuration
+public class DocumentRenderExecutorConfig {
+
+    public static final String DOCUMENT_RENDER_EXECUTOR = "documentRenderExecutor";
+
+    @Value("${documents.render.pool-size:2}")
+    private int poolSize;
+
+    @Value("${documents.render.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Создает пул потоков для генерации документов и регистрирует его метрики:
+     * {@code deal.documents.render.queue} — задачи в очереди, {@code deal.documents.render.active} — задачи
+     * в работе.
+     *
+     * @param meterRegistry реестр метрик
+     * @return пул потоков для генерации документов
+     */
+    @Bean(DOCUMENT_RENDER_EXECUTOR)
+    public ThreadPoolTaskExecutor documentRenderExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("document-render-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Принятые задачи дорабатываются при остановке сервиса, чтобы письма с документами не терялись
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        Gauge.builder("deal.documents.render.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Задачи генерации документов в очереди")
+                .register(meterRegistry);
+        Gauge.builder("deal.documents.render.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Задачи генерации документов в работе")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,35 @@
+package neoflex.deal.config;
+
+import neoflex.calculator.config.CalculatorCoreConfig;
+import neoflex.calculator.service.CalculatorService;
+import neoflex.deal.client.CalculatorClient;
+import neoflex.deal.client.EmbeddedCalculatorClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Конфигурация встроенного режима калькулятора ({@code calculator.mode=embedded}): расчетное ядро
+ * МС Калькулятор поднимается в контексте МС Сделка.
+ */
+@Configuration
+@ConditionalOnProperty(name = "calculator.mode", havingValue = "embedded")
+@Import(CalculatorCoreConfig.class)
+public class EmbeddedCalculatorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedCalculatorConfig.class);
+
+    /**
+     * Создает клиент, выполняющий расчеты кредита в процессе МС Сделка.
+     *
+     * @param calculatorService сервис расчетов калькулятора
+     * @return клиент расчетов кредита
+     */
+    @Bean
+    public CalculatorClient embeddedCalculatorClient(CalculatorService calculatorService) {
+        logger.info("Расчеты кредита выполняются во встроенном калькуляторе");
+        return new EmbeddedCalculatorClient(calculatorService);
+    }
+}
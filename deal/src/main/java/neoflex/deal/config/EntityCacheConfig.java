@@ -0,0 +1,47 @@
+package neoflex.deal.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import neoflex.deal.cache.CaffeineRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация кэша второго уровня Hibernate для заявок, клиентов и кредитов.
+ * <p>
+ * Кэш включается свойством {@code entity-cache.enabled}. В профиле {@code reactive} кэш не используется:
+ * заявки там изменяются через R2DBC в обход Hibernate.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "entity-cache.enabled", havingValue = "true")
+public class EntityCacheConfig {
+
+    @Value("${entity-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${entity-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    /**
+     * Подключает к Hibernate фабрику регионов кэша на Caffeine.
+     *
+     * @param meterRegistry реестр метрик
+     * @return настройка свойств Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernatePropertiesCustomizer(MeterRegistry meterRegistry) {
+        CaffeineRegionFactory regionFactory = new CaffeineRegionFactory(maxSize,
+                Duration.ofMillis(expireAfterWriteMs), meterRegistry);
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+        };
+    }
+}
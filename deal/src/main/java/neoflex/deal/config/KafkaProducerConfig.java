@@ -20,6 +20,12 @@ import java.util.Map;
 @Configuration
 public class KafkaProducerConfig {
 
+    public static final String FINISH_REGISTRATION_TOPIC = "finish-registration";
+    public static final String CREATE_DOCUMENTS_TOPIC = "create-documents";
+    public static final String SEND_DOCUMENTS_TOPIC = "send-documents";
+    public static final String SEND_SES_TOPIC = "send-ses";
+    public static final String CREDIT_ISSUED_TOPIC = "credit-issued";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
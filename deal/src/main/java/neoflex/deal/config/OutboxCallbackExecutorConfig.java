@@ -0,0 +1,70 @@
+package neoflex.deal.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Конфигурация пула потоков для обновления статусов заявок после отправки сообщений из outbox.
+ * <p>
+ * Размер пула ограничивает число соединений с БД, которые занимают эти обновления. Очередь ограничена:
+ * при ее заполнении задача выполняется в потоке отправки outbox, и следующая пачка сообщений не выбирается,
+ * пока обновление не закончится.
+ */
+@Configuration
+public class OutboxCallbackExecutorConfig {
+
+    public static final String OUTBOX_CALLBACK_EXECUTOR = "outboxCallbackExecutor";
+
+    @Value("${outbox.callback.pool-size:2}")
+    private int poolSize;
+
+    @Value("${outbox.callback.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Создает пул потоков для обновления статусов и регистрирует его метрики:
+     * {@code deal.outbox.callback.queue} — задачи в очереди, {@code deal.outbox.callback.active} — задачи
+     * в работе, {@code deal.outbox.callback.caller-runs} — задачи, выполненные в потоке отправки outbox
+     * из-за заполненной очереди.
+     *
+     * @param meterRegistry реестр метрик
+     * @return пул потоков для обновления статусов
+     */
+    @Bean(OUTBOX_CALLBACK_EXECUTOR)
+    public ThreadPoolTaskExecutor outboxCallbackExecutor(MeterRegistry meterRegistry) {
+        Counter callerRuns = Counter.builder("deal.outbox.callback.caller-runs")
+                .description("Обновления статусов, выполненные в потоке отправки outbox из-за заполненной очереди")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("outbox-callback-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            callerRuns.increment();
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(task, pool);
+        });
+        // Строки send-documents и credit-issued после отправки только помечаются sent_at и удаляются в транзакции
+        // обновления статуса; потерянное обновление подберет OutboxRelay.retryStatusUpdates. Доработка принятых
+        // задач при остановке лишь ускоряет обновление статусов, данные без нее не теряются
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        Gauge.builder("deal.outbox.callback.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Обновления статусов после отправки outbox в очереди")
+                .register(meterRegistry);
+        Gauge.builder("deal.outbox.callback.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Обновления статусов после отправки outbox в работе")
+                .register(meterRegistry);
+        return executor;
+    }
+}
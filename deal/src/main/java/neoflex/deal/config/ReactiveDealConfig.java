@@ -0,0 +1,48 @@
+package neoflex.deal.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Конфигурация профиля {@code reactive}: транзакции R2DBC для неблокирующего варианта МС Сделка.
+ * <p>
+ * Менеджер транзакций R2DBC не регистрируется как бин, чтобы {@code @Transactional} и {@code TransactionTemplate}
+ * по-прежнему использовали менеджер транзакций JPA.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDealConfig {
+
+    /**
+     * Создает пул соединений JDBC для Liquibase и JPA. Spring Boot не создает его сам,
+     * если в контексте есть фабрика соединений R2DBC.
+     *
+     * @param properties настройки {@code spring.datasource}
+     * @return пул соединений JDBC
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Создает оператор транзакций R2DBC.
+     *
+     * @param connectionFactory фабрика соединений R2DBC
+     * @return оператор транзакций
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
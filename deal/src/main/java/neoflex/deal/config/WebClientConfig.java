@@ -1,28 +1,48 @@
 package neoflex.deal.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
- * Конфигурация для WebClient.
+ * Конфигурация для WebClient. Нужна только при вызове МС Калькулятор по HTTP ({@code calculator.mode=remote}).
  */
 @Configuration
+@ConditionalOnProperty(name = "calculator.mode", havingValue = "remote", matchIfMissing = true)
 public class WebClientConfig {
 
+    /**
+     * Тип содержимого бинарного формата Smile.
+     */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
     @Value("${calculator.url}")
     private String calculatorServiceUrl;
 
     /**
      * Создает и настраивает WebClient для взаимодействия с микросервисом Калькулятор.
+     * Кодеки Smile используют те же настройки Jackson, что и МС Калькулятор.
      *
+     * @param objectMapperBuilder построитель ObjectMapper с настройками Spring Boot
      * @return настроенный WebClient
      */
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
         return WebClient.builder()
                 .baseUrl(calculatorServiceUrl)
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+                    configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+                })
                 .build();
     }
 }
@@ -1,33 +1,50 @@
 package neoflex.deal.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import neoflex.deal.document.DocumentRenderPipeline;
 import neoflex.deal.entity.Statement;
-import neoflex.dto.EmailMessage;
+import neoflex.deal.entity.StatusHistory;
 import neoflex.dto.FinishRegistrationRequestDto;
 import neoflex.dto.LoanOfferDto;
 import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.ScheduledPaymentDto;
+import neoflex.dto.StatementPageDto;
+import neoflex.dto.StatusCountDto;
+import neoflex.enums.ApplicationStatus;
 import neoflex.deal.service.DealService;
+import neoflex.deal.service.StatusTransitionException;
+import neoflex.deal.service.StatementExportService;
 import neoflex.enums.Theme;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
  * Контроллер для обработки запросов, связанных с кредитными заявками.
+ * В профиле {@code reactive} заменяется на {@link ReactiveDealController}.
+ * <p>
+ * Сообщения для МС Досье сохраняются в outbox вместе с изменением заявки и отправляются в Kafka
+ * в фоне ({@link neoflex.deal.outbox.OutboxRelay}), поэтому ответ не ждет Kafka.
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/deal")
 public class DealController {
@@ -35,11 +52,16 @@ public class DealController {
 
     private static final Logger logger = LoggerFactory.getLogger(DealController.class);
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
 
     private final DealService dealService;
 
 
-    private final KafkaTemplate<String, EmailMessage> kafkaTemplate;
+    private final DocumentRenderPipeline documentRenderPipeline;
+
+
+    private final StatementExportService statementExportService;
 
 
     /**
@@ -63,8 +85,7 @@ public class DealController {
     @PostMapping("/offer/select")
     public void selectLoanOffer(@RequestBody LoanOfferDto offer) {
         logger.info("Получен запрос на выбор предложения по кредиту: {}", offer);
-        EmailMessage emailMessage = dealService.selectLoanOffer(offer);
-        kafkaTemplate.send("finish-registration", emailMessage);
+        dealService.selectLoanOffer(offer);
     }
 
 
@@ -78,13 +99,14 @@ public class DealController {
     public void finishRegistration(@PathVariable String statementId, @RequestBody FinishRegistrationRequestDto request) {
         logger.info("Получен запрос на завершение регистрации и полный подсчет кредита для заявки с ID: {}", statementId);
         logger.info("Данные запроса: {}", request);
-        EmailMessage emailMessage = dealService.finishRegistration(statementId, request);
-        kafkaTemplate.send("create-documents", emailMessage);
+        dealService.finishRegistration(statementId, request);
     }
 
 
     /**
      * Обрабатывает запрос на отправку документов.
+     * Ответ возвращается после перевода заявки в статус PREPARE_DOCUMENTS, документы формируются и
+     * отправляются в фоне. Если очередь генерации заполнена, возвращается 503, а статус заявки не меняется.
      *
      * @param statementId идентификатор заявки
      */
@@ -92,22 +114,14 @@ public class DealController {
     public ResponseEntity<Void> sendDocuments(@PathVariable String statementId) {
         logger.info("Получен запрос на отправку документов для заявки с ID: {}", statementId);
         try {
-
-
-            EmailMessage emailMessage = dealService.sendDocuments(statementId);
-
-
-            CompletableFuture<SendResult<String, EmailMessage>> future = kafkaTemplate.send("send-documents", emailMessage);
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    dealService.handleKafkaDocumentFailure(statementId, ex);
-                } else {
-                    dealService.handleKafkaDocumentSuccess(statementId);
-                }
-            });
-
-
+            documentRenderPipeline.submit(() -> dealService.prepareDocuments(statementId));
             return ResponseEntity.ok().build();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Очередь генерации документов заполнена, заявка с ID: {}", statementId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (StatusTransitionException e) {
+            logger.warn("Документы по заявке с ID {} не отправлены: {}", statementId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Ошибка при обработке запроса на отправку документов: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -123,8 +137,7 @@ public class DealController {
     @PostMapping("/document/{statementId}/sign")
     public void signDocuments(@PathVariable String statementId) {
         logger.info("Получен запрос на подписание документов для заявки с ID: {}", statementId);
-        EmailMessage emailMessage = dealService.signDocuments(statementId);
-        kafkaTemplate.send("send-ses", emailMessage);
+        dealService.signDocuments(statementId);
     }
 
 
@@ -138,23 +151,14 @@ public class DealController {
     public ResponseEntity<Void> codeDocuments(@PathVariable String statementId, @RequestBody String sesCode) {
         logger.info("Получен запрос на подписание документов с кодом для заявки с ID: {}, код: {}", statementId, sesCode);
         try {
-            EmailMessage emailMessage = dealService.codeDocuments(statementId, sesCode);
-
-
-            CompletableFuture<SendResult<String, EmailMessage>> future = kafkaTemplate.send("credit-issued", emailMessage);
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    dealService.handleKafkaCreditFailure(statementId, ex);
-                } else {
-                    dealService.handleKafkaCreditSuccess(statementId);
-                }
-            });
-
-
+            dealService.codeDocuments(statementId, sesCode);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             logger.error("Ошибка при обработке запроса на подписание документов: Некорректные данные: {}", e.getMessage());
             return ResponseEntity.badRequest().body(null);
+        } catch (StatusTransitionException e) {
+            logger.warn("Документы по заявке с ID {} не подписаны: {}", statementId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Ошибка при обработке запроса на подписание документов: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -180,14 +184,162 @@ public class DealController {
     }
 
     /**
-     * Обрабатывает запрос на получение всех заявок (админский метод).
+     * Обрабатывает запрос на получение страницы списка заявок (админский метод).
+     * Заявки возвращаются от новых к старым, без паспортных данных, данных о работе и графика платежей.
      *
-     * @return список всех заявок
+     * @param status фильтр по статусу заявки
+     * @param from   первая дата периода создания
+     * @param to     последняя дата периода создания включительно
+     * @param cursor позиция {@code nextCursor} из предыдущей страницы
+     * @param limit  размер страницы
+     * @return страница списка заявок
      */
     @GetMapping("/admin/statement")
-    public ResponseEntity<List<Statement>> getAllStatementsAdmin() {
-        logger.info("Получен запрос на получение всех заявок (админский метод)");
-        List<Statement> statements = dealService.getAllStatements();
-        return ResponseEntity.ok(statements);
+    public ResponseEntity<StatementPageDto> getStatementsAdmin(
+            @RequestParam(required = false) ApplicationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(dealService.getStatementsPage(status, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            logger.error("Некорректный запрос списка заявок: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Обрабатывает запрос на получение истории статусов заявки (админский метод).
+     *
+     * @param statementId идентификатор заявки
+     * @return записи истории статусов в порядке смены статусов
+     */
+    @GetMapping("/admin/statement/{statementId}/history")
+    public ResponseEntity<List<StatusHistory>> getStatusHistoryAdmin(@PathVariable String statementId) {
+        logger.info("Получен запрос на получение истории статусов заявки (админский метод): {}", statementId);
+        try {
+            return ResponseEntity.ok(dealService.getStatusHistory(UUID.fromString(statementId)));
+        } catch (IllegalArgumentException e) {
+            logger.error("Заявка с ID {} не найдена: {}", statementId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Обрабатывает запрос на подсчет переходов заявок в статусы по дням (админский метод).
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return число переходов по дням и статусам
+     */
+    @GetMapping("/admin/statement/status-counts")
+    public ResponseEntity<List<StatusCountDto>> getStatusCountsAdmin(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(dealService.getStatusCounts(from, to));
+        } catch (IllegalArgumentException e) {
+            logger.error("Некорректный запрос числа переходов в статусы: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Обрабатывает запрос платежей всех кредитов за период, например за следующий месяц (админский метод).
+     * Период — не длиннее {@link DealService#MAX_PAYMENTS_DUE_PERIOD_DAYS} дней.
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return платежи по графику, упорядоченные по дате
+     */
+    @GetMapping("/admin/payments/due")
+    public ResponseEntity<List<ScheduledPaymentDto>> getPaymentsDueAdmin(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(dealService.getPaymentsDue(from, to));
+        } catch (IllegalArgumentException e) {
+            logger.error("Некорректный запрос платежей по графику: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Выгружает заявки для аналитики в формате NDJSON (админский метод). Если клиент принимает gzip
+     * ({@code Accept-Encoding: gzip} или {@code *} с ненулевым q), ответ сжимается. Если уже выполняется максимальное число выгрузок,
+     * возвращается 429.
+     *
+     * @param status         фильтр по статусу заявки
+     * @param from           первая дата периода создания
+     * @param to             последняя дата периода создания включительно
+     * @param acceptEncoding заголовок Accept-Encoding
+     * @param response       ответ, в который пишется выгрузка
+     */
+    @GetMapping("/admin/statement/export")
+    public void exportStatementsAdmin(
+            @RequestParam(required = false) ApplicationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        logger.info("Получен запрос на выгрузку заявок (админский метод): status={}, from={}, to={}", status, from, to);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try {
+            if (gzip) {
+                GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192);
+                statementExportService.export(status, from, to, out);
+                out.finish();
+            } else {
+                statementExportService.export(status, from, to, response.getOutputStream());
+            }
+        } catch (RejectedExecutionException e) {
+            logger.warn("Выгрузка заявок отклонена: {}", e.getMessage());
+            response.reset();
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+    }
+
+    /**
+     * Проверяет, принимает ли клиент ответ в gzip. Кодировка gzip, указанная явно, важнее {@code *};
+     * {@code q=0} означает, что кодировка не принимается.
+     *
+     * @param acceptEncoding заголовок Accept-Encoding
+     * @return true, если ответ можно сжать gzip
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
     }
 }
@@ -0,0 +1,254 @@
+package neoflex.deal.controller;
+
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.document.DocumentRenderPipeline;
+import neoflex.deal.entity.Statement;
+import neoflex.deal.entity.StatusHistory;
+import neoflex.deal.service.DealService;
+import neoflex.deal.service.ReactiveDealService;
+import neoflex.deal.service.StatusTransitionException;
+import neoflex.dto.FinishRegistrationRequestDto;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.ScheduledPaymentDto;
+import neoflex.dto.StatementPageDto;
+import neoflex.dto.StatusCountDto;
+import neoflex.enums.ApplicationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Неблокирующий контроллер кредитных заявок для профиля {@code reactive}. Пути и тела запросов совпадают
+ * с {@link DealController}, кроме выгрузки заявок {@code /admin/statement/export}: она держит соединение с БД
+ * на все время выгрузки и есть только в сервлетном варианте.
+ * <p>
+ * Оформление заявки, выбор предложения и полный расчет кредита выполняются через {@link ReactiveDealService}.
+ * Работа с документами и админские методы вызывают {@link DealService} на пуле {@code boundedElastic},
+ * чтобы JPA не блокировал потоки event loop, а PDF формируется в фоне в {@link DocumentRenderPipeline}.
+ * Сообщения для МС Досье сохраняются в outbox вместе с изменением заявки, ответ отправляется после фиксации транзакции.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/deal")
+public class ReactiveDealController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDealController.class);
+
+    private final ReactiveDealService reactiveDealService;
+
+    private final DealService dealService;
+
+    private final DocumentRenderPipeline documentRenderPipeline;
+
+    /**
+     * Обрабатывает запрос на расчет возможных условий кредита.
+     *
+     * @param request объект с данными заявки на кредит
+     * @return список предложений по кредиту
+     */
+    @PostMapping("/statement")
+    public Mono<List<LoanOfferDto>> calculateLoanOffers(@RequestBody LoanStatementRequestDto request) {
+        logger.info("Получен запрос на расчет возможных условий кредита: {}", request);
+        return reactiveDealService.calculateLoanOffers(request);
+    }
+
+    /**
+     * Обрабатывает запрос на выбор одного из предложений по кредиту.
+     *
+     * @param offer объект с данными выбранного предложения
+     */
+    @PostMapping("/offer/select")
+    public Mono<Void> selectLoanOffer(@RequestBody LoanOfferDto offer) {
+        logger.info("Получен запрос на выбор предложения по кредиту: {}", offer);
+        return reactiveDealService.selectLoanOffer(offer).then();
+    }
+
+    /**
+     * Обрабатывает запрос на завершение регистрации и полный подсчет кредита.
+     *
+     * @param statementId идентификатор заявки
+     * @param request     объект с данными для завершения регистрации
+     */
+    @PostMapping("/calculate/{statementId}")
+    public Mono<Void> finishRegistration(@PathVariable String statementId, @RequestBody FinishRegistrationRequestDto request) {
+        logger.info("Получен запрос на завершение регистрации и полный подсчет кредита для заявки с ID: {}", statementId);
+        return reactiveDealService.finishRegistration(statementId, request).then();
+    }
+
+    /**
+     * Обрабатывает запрос на отправку документов.
+     *
+     * @param statementId идентификатор заявки
+     */
+    @PostMapping("/document/{statementId}/send")
+    public Mono<ResponseEntity<Void>> sendDocuments(@PathVariable String statementId) {
+        logger.info("Получен запрос на отправку документов для заявки с ID: {}", statementId);
+        return Mono.fromRunnable(() -> documentRenderPipeline.submit(() -> dealService.prepareDocuments(statementId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.ok().<Void>build())
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    logger.warn("Очередь генерации документов заполнена, заявка с ID: {}", statementId);
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+                })
+                .onErrorResume(StatusTransitionException.class, e -> {
+                    logger.warn("Документы по заявке с ID {} не отправлены: {}", statementId, e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build());
+                })
+                .onErrorResume(e -> {
+                    logger.error("Ошибка при обработке запроса на отправку документов: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос на подписание документов.
+     *
+     * @param statementId идентификатор заявки
+     */
+    @PostMapping("/document/{statementId}/sign")
+    public Mono<Void> signDocuments(@PathVariable String statementId) {
+        logger.info("Получен запрос на подписание документов для заявки с ID: {}", statementId);
+        return blocking(() -> dealService.signDocuments(statementId)).then();
+    }
+
+    /**
+     * Обрабатывает запрос на подписание документов с кодом.
+     *
+     * @param statementId идентификатор заявки
+     * @param sesCode     код подтверждения
+     */
+    @PostMapping("/document/{statementId}/code")
+    public Mono<ResponseEntity<Void>> codeDocuments(@PathVariable String statementId, @RequestBody String sesCode) {
+        logger.info("Получен запрос на подписание документов с кодом для заявки с ID: {}, код: {}", statementId, sesCode);
+        return blocking(() -> dealService.codeDocuments(statementId, sesCode))
+                .thenReturn(ResponseEntity.ok().<Void>build())
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Ошибка при обработке запроса на подписание документов: Некорректные данные: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .onErrorResume(StatusTransitionException.class, e -> {
+                    logger.warn("Документы по заявке с ID {} не подписаны: {}", statementId, e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build());
+                })
+                .onErrorResume(e -> {
+                    logger.error("Ошибка при обработке запроса на подписание документов: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос на получение заявки по ID (админский метод).
+     *
+     * @param statementId идентификатор заявки
+     * @return заявка
+     */
+    @GetMapping("/admin/statement/{statementId}")
+    public Mono<ResponseEntity<Statement>> getStatementByIdAdmin(@PathVariable String statementId) {
+        logger.info("Получен запрос на получение заявки по ID (админский метод): {}", statementId);
+        return blocking(() -> dealService.getStatementById(UUID.fromString(statementId)))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Заявка с ID {} не найдена: {}", statementId, e.getMessage());
+                    return Mono.just(ResponseEntity.notFound().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос на получение страницы списка заявок (админский метод).
+     *
+     * @param status фильтр по статусу заявки
+     * @param from   первая дата периода создания
+     * @param to     последняя дата периода создания включительно
+     * @param cursor позиция {@code nextCursor} из предыдущей страницы
+     * @param limit  размер страницы
+     * @return страница списка заявок
+     */
+    @GetMapping("/admin/statement")
+    public Mono<ResponseEntity<StatementPageDto>> getStatementsAdmin(
+            @RequestParam(required = false) ApplicationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return blocking(() -> dealService.getStatementsPage(status, from, to, cursor, limit))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Некорректный запрос списка заявок: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос на получение истории статусов заявки (админский метод).
+     *
+     * @param statementId идентификатор заявки
+     * @return записи истории статусов в порядке смены статусов
+     */
+    @GetMapping("/admin/statement/{statementId}/history")
+    public Mono<ResponseEntity<List<StatusHistory>>> getStatusHistoryAdmin(@PathVariable String statementId) {
+        logger.info("Получен запрос на получение истории статусов заявки (админский метод): {}", statementId);
+        return blocking(() -> dealService.getStatusHistory(UUID.fromString(statementId)))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Заявка с ID {} не найдена: {}", statementId, e.getMessage());
+                    return Mono.just(ResponseEntity.notFound().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос на подсчет переходов заявок в статусы по дням (админский метод).
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return число переходов по дням и статусам
+     */
+    @GetMapping("/admin/statement/status-counts")
+    public Mono<ResponseEntity<List<StatusCountDto>>> getStatusCountsAdmin(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return blocking(() -> dealService.getStatusCounts(from, to))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Некорректный запрос числа переходов в статусы: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    /**
+     * Обрабатывает запрос платежей всех кредитов за период, например за следующий месяц (админский метод).
+     * Период — не длиннее {@link DealService#MAX_PAYMENTS_DUE_PERIOD_DAYS} дней.
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return платежи по графику, упорядоченные по дате
+     */
+    @GetMapping("/admin/payments/due")
+    public Mono<ResponseEntity<List<ScheduledPaymentDto>>> getPaymentsDueAdmin(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return blocking(() -> dealService.getPaymentsDue(from, to))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.error("Некорректный запрос платежей по графику: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
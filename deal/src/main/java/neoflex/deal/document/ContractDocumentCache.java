@@ -0,0 +1,277 @@
+package neoflex.deal.document;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Двухуровневый кэш сгенерированных кредитных договоров: в памяти и на диске.
+ * <p>
+ * Ключ — хэш всех данных, из которых формируется документ ({@link ContractPdfGenerator#documentKey}), поэтому
+ * повторная отправка документов по неизменившейся заявке не генерирует PDF заново. Оба уровня ограничены
+ * по объему в байтах: в памяти вытесняются редко используемые записи, на диске — файлы с самым старым
+ * временем последнего обращения. Ошибки диска не прерывают генерацию, кэш в этом случае просто не используется.
+ * <p>
+ * Договоры содержат персональные данные клиентов, поэтому уровень на диске по умолчанию выключен и включается только
+ * явно заданным каталогом {@code documents.cache.disk.root}. Каталог создается с правами только для владельца
+ * ({@code rwx------}), у существующего каталога права ужесточаются; если это не удалось, уровень на диске
+ * не используется.
+ * <p>
+ * Метрики: {@code deal.documents.cache.gets} с тегом {@code result} ({@code memory}, {@code disk}, {@code miss}),
+ * {@code deal.documents.cache.hit.ratio}, {@code deal.documents.cache.bytes} с тегом {@code tier}, а также
+ * стандартные {@code cache.*} с тегом {@code cache=contract-document} для уровня в памяти.
+ */
+@Component
+public class ContractDocumentCache implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ContractDocumentCache.class);
+
+    static final String CACHE_NAME = "contract-document";
+    private static final String FILE_SUFFIX = ".pdf";
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Cache<String, byte[]> memory;
+    private final Path diskRoot;
+    private final long diskMaxBytes;
+    private final boolean diskEnabled;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param memoryMaxBytes максимальный объем документов в памяти
+     * @param diskRoot       каталог уровня на диске, пустая строка — уровень на диске отключен
+     * @param diskMaxBytes   максимальный объем документов на диске, 0 — уровень на диске отключен
+     */
+    public ContractDocumentCache(@Value("${documents.cache.memory.max-bytes:67108864}") long memoryMaxBytes,
+                                 @Value("${documents.cache.disk.root:}") String diskRoot,
+                                 @Value("${documents.cache.disk.max-bytes:536870912}") long diskMaxBytes) {
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxBytes)
+                .<String, byte[]>weigher((key, document) -> document.length)
+                .recordStats()
+                .build();
+        this.diskRoot = diskRoot == null || diskRoot.isBlank() ? null : Path.of(diskRoot);
+        this.diskMaxBytes = diskMaxBytes;
+        this.diskEnabled = this.diskRoot != null && diskMaxBytes > 0 && initDisk();
+    }
+
+    private boolean initDisk() {
+        try {
+            createOwnerOnlyDirectory(diskRoot);
+            try (Stream<Path> files = listDocuments()) {
+                diskBytes.set(files.mapToLong(ContractDocumentCache::sizeQuietly).sum());
+            }
+            logger.info("Кэш документов на диске: {}, занято {} байт", diskRoot, diskBytes.get());
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.warn("Не удалось открыть кэш документов на диске {}, уровень на диске отключен: {}",
+                    diskRoot, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Создает каталог с правами только для владельца или ужесточает права существующего каталога.
+     * На файловых системах без POSIX прав каталог создается с правами по умолчанию.
+     */
+    private static void createOwnerOnlyDirectory(Path directory) throws IOException {
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (Files.notExists(directory)) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        }
+        if (!Files.getPosixFilePermissions(directory).equals(OWNER_ONLY)) {
+            Files.setPosixFilePermissions(directory, OWNER_ONLY);
+        }
+    }
+
+    /**
+     * Возвращает документ из кэша, генерируя его при промахе. Одновременные запросы одного документа
+     * генерируют его один раз.
+     *
+     * @param key      ключ документа
+     * @param renderer генерация документа при промахе
+     * @return содержимое документа
+     */
+    public byte[] get(String key, Supplier<byte[]> renderer) {
+        boolean[] loaded = new boolean[1];
+        byte[] document = memory.get(key, k -> {
+            loaded[0] = true;
+            return loadFromDiskOrRender(k, renderer);
+        });
+        if (!loaded[0]) {
+            memoryHits.incrementAndGet();
+        }
+        return document;
+    }
+
+    private byte[] loadFromDiskOrRender(String key, Supplier<byte[]> renderer) {
+        byte[] document = readFromDisk(key);
+        if (document != null) {
+            diskHits.incrementAndGet();
+            return document;
+        }
+        misses.incrementAndGet();
+        document = renderer.get();
+        writeToDisk(key, document);
+        return document;
+    }
+
+    private byte[] readFromDisk(String key) {
+        if (!diskEnabled) {
+            return null;
+        }
+        Path file = diskRoot.resolve(key + FILE_SUFFIX);
+        try {
+            byte[] document = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return document;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать документ {} из кэша на диске: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] document) {
+        if (!diskEnabled || document.length > diskMaxBytes) {
+            return;
+        }
+        Path file = diskRoot.resolve(key + FILE_SUFFIX);
+        try {
+            Path temp = Files.createTempFile(diskRoot, key, ".tmp");
+            try {
+                Files.write(temp, document);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            if (diskBytes.addAndGet(document.length) > diskMaxBytes) {
+                evictFromDisk();
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось записать документ {} в кэш на диске: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет файлы с самым старым временем последнего обращения, пока объем кэша на диске превышает лимит.
+     */
+    private synchronized void evictFromDisk() {
+        if (diskBytes.get() <= diskMaxBytes) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = listDocuments()) {
+            files = stream.sorted(Comparator.comparing(ContractDocumentCache::lastModifiedQuietly)).toList();
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Не удалось очистить кэш документов на диске: {}", e.getMessage());
+            return;
+        }
+        long total = files.stream().mapToLong(ContractDocumentCache::sizeQuietly).sum();
+        for (Path file : files) {
+            if (total <= diskMaxBytes) {
+                break;
+            }
+            long size = sizeQuietly(file);
+            try {
+                if (Files.deleteIfExists(file)) {
+                    total -= size;
+                }
+            } catch (IOException e) {
+                logger.warn("Не удалось удалить {} из кэша документов на диске: {}", file, e.getMessage());
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private Stream<Path> listDocuments() throws IOException {
+        return Files.list(diskRoot).filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX));
+    }
+
+    private static long sizeQuietly(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModifiedQuietly(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Доля запросов, обслуженных из кэша (из памяти или с диска).
+     */
+    double hitRatio() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    long memoryBytes() {
+        return memory.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    long diskBytes() {
+        return diskBytes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, memory, CACHE_NAME);
+        registerGets(registry, "memory", memoryHits);
+        registerGets(registry, "disk", diskHits);
+        registerGets(registry, "miss", misses);
+        Gauge.builder("deal.documents.cache.hit.ratio", this, ContractDocumentCache::hitRatio)
+                .description("Доля запросов документов, обслуженных из кэша")
+                .register(registry);
+        Gauge.builder("deal.documents.cache.bytes", this, ContractDocumentCache::memoryBytes)
+                .description("Объем документов в кэше")
+                .tag("tier", "memory")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("deal.documents.cache.bytes", this, ContractDocumentCache::diskBytes)
+                .description("Объем документов в кэше")
+                .tag("tier", "disk")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static void registerGets(MeterRegistry registry, String result, AtomicLong count) {
+        FunctionCounter.builder("deal.documents.cache.gets", count, AtomicLong::get)
+                .description("Запросы документов к кэшу")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,231 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.DefaultSplitCharacter;
+import com.itextpdf.text.pdf.PdfChunk;
+import com.itextpdf.text.pdf.PdfWriter;
+import neoflex.deal.entity.Client;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.Passport;
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.deal.entity.Statement;
+import neoflex.deal.util.SerializationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Генератор PDF документа кредитного договора.
+ * <p>
+ * Шрифт загружается из classpath один раз при создании бина и используется всеми документами:
+ * {@link BaseFont} и {@link Font} после создания только читаются, поэтому генератор потокобезопасен.
+ */
+@Component
+public class ContractPdfGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(ContractPdfGenerator.class);
+
+    private static final String FONT_LOCATION = "times.ttf";
+    /**
+     * Версия макета договора. Меняется при любом изменении {@link #generate}, чтобы ключи
+     * {@link #documentKey} не совпадали с документами, сохраненными в кэше до изменения.
+     */
+    private static final String LAYOUT_VERSION = "1";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final DateTimeFormatter CREATION_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * Перенос строк только по пробелам. Стандартный {@link DefaultSplitCharacter} iText 5.5.13 на каждый
+     * символ-кандидат компилирует регулярное выражение даты и ищет его во всем фрагменте, из-за чего
+     * верстка графика платежей занимает большую часть времени генерации.
+     */
+    private static final SplitCharacter WHITESPACE_SPLIT_CHARACTER = new DefaultSplitCharacter() {
+        @Override
+        public boolean isSplitCharacter(int start, int current, int end, char[] cc, PdfChunk[] ck) {
+            return getCurrentCharacter(current, cc, ck) <= ' ';
+        }
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Font boldFont;
+    private final Font headerFont;
+    private final Font regularFont;
+
+    public ContractPdfGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        BaseFont baseFont = loadBaseFont();
+        this.boldFont = createFont(baseFont, 16, Font.BOLD);
+        this.headerFont = createFont(baseFont, 12, Font.BOLD);
+        this.regularFont = createFont(baseFont, 12, Font.NORMAL);
+    }
+
+    /**
+     * Загружает шрифт с кириллицей из classpath.
+     *
+     * @return шрифт или null, если загрузить его не удалось
+     */
+    private static BaseFont loadBaseFont() {
+        try (InputStream inputStream = new ClassPathResource(FONT_LOCATION).getInputStream()) {
+            // Шрифт не кладется в глобальный кэш iText: его единственный экземпляр хранит этот бин
+            return BaseFont.createFont(FONT_LOCATION, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false,
+                    inputStream.readAllBytes(), null);
+        } catch (DocumentException | IOException e) {
+            logger.error("Ошибка при создании шрифта: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Font createFont(BaseFont baseFont, float size, int style) {
+        if (baseFont == null) {
+            return FontFactory.getFont(FontFactory.HELVETICA, size, style, BaseColor.BLACK);
+        }
+        return new Font(baseFont, size, style, BaseColor.BLACK);
+    }
+
+    /**
+     * Генерирует PDF документ на основе информации из объекта Statement.
+     *
+     * @param statement объект Statement, содержащий информацию о клиенте и кредите
+     * @return массив байтов, представляющий сгенерированный PDF документ
+     * @throws RuntimeException если происходит ошибка при создании PDF документа
+     */
+    public byte[] generate(Statement statement) {
+        try {
+            Document document = new Document();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            PdfWriter.getInstance(document, outputStream);
+
+            document.open();
+
+            // Информация о клиенте
+            Client client = statement.getClient();
+            Passport passport = client.getPassport();
+
+            addParagraph(document, "Кредитный договор", boldFont);
+            addParagraph(document, " ", regularFont);
+            addParagraph(document, "Информация о клиенте:", headerFont);
+            addParagraph(document, "ФИО: " + getFullName(client), regularFont);
+            addParagraph(document, "Дата рождения: " + client.getBirthDate().format(DATE_FORMATTER), regularFont);
+            addParagraph(document, "Email: " + client.getEmail(), regularFont);
+            addParagraph(document, "Паспортные данные:", headerFont);
+            addParagraph(document, "Серия: " + passport.getSeries(), regularFont);
+            addParagraph(document, "Номер: " + passport.getNumber(), regularFont);
+            if (passport.getIssueDate() != null) {
+                addParagraph(document, "Дата выдачи: " + passport.getIssueDate().format(DATE_FORMATTER), regularFont);
+            }
+            if (passport.getIssueBranch() != null) {
+                addParagraph(document, "Кем выдан: " + passport.getIssueBranch(), regularFont);
+            }
+            addParagraph(document, " ", regularFont);
+
+            // Информация о кредите
+            Credit credit = statement.getCredit();
+            addParagraph(document, "Информация о кредите:", headerFont);
+            addParagraph(document, "Сумма кредита: " + credit.getAmount(), regularFont);
+            addParagraph(document, "Срок кредита: " + credit.getTerm() + " месяцев", regularFont);
+            addParagraph(document, "Ежемесячный платеж: " + credit.getMonthlyPayment(), regularFont);
+            BigDecimal ratePercentage = credit.getRate().multiply(new BigDecimal(100));
+            addParagraph(document, "Процентная ставка: " + ratePercentage + "%", regularFont);
+            addParagraph(document, "ПСК: " + credit.getPsk(), regularFont);
+            addParagraph(document, " ", regularFont);
+
+            // График платежей
+            List<PaymentScheduleElement> paymentSchedule = paymentSchedule(credit);
+            if (paymentSchedule != null && !paymentSchedule.isEmpty()) {
+                addParagraph(document, "График платежей:", headerFont);
+                for (PaymentScheduleElement payment : paymentSchedule) {
+                    addParagraph(document, "Номер платежа: " + payment.getNumber() +
+                            ", Дата: " + payment.getDate().format(DATE_FORMATTER) +
+                            ", Сумма: " + payment.getTotalPayment() +
+                            ", Погашение процентов: " + payment.getInterestPayment() +
+                            ", Погашение основного долга: " + payment.getDebtPayment() +
+                            ", Остаток долга: " + payment.getRemainingDebt(), regularFont);
+                }
+            } else {
+                addParagraph(document, "График платежей отсутствует.", regularFont);
+            }
+            addParagraph(document, " ", regularFont);
+
+            // Дата создания заявки
+            addParagraph(document, "Дата создания заявки: " + LocalDate.now().format(CREATION_DATE_FORMATTER), regularFont);
+
+            document.close();
+
+            return outputStream.toByteArray();
+        } catch (DocumentException e) {
+            logger.error("Ошибка при создании PDF документа: {}", e.getMessage());
+            throw new RuntimeException("Ошибка при создании PDF документа", e);
+        }
+    }
+
+    /**
+     * Возвращает график платежей кредита: загруженный из таблицы payment_schedule_element, если он есть,
+     * иначе из колонки jsonb.
+     */
+    private List<PaymentScheduleElement> paymentSchedule(Credit credit) {
+        if (credit.getPaymentScheduleElements() != null) {
+            return credit.getPaymentScheduleElements();
+        }
+        return credit.getPaymentSchedule() == null
+                ? null
+                : SerializationUtil.deserializePaymentSchedule(credit.getPaymentSchedule(), objectMapper);
+    }
+
+    /**
+     * Вычисляет ключ документа — SHA-256 всех данных заявки, которые попадают в договор, и даты формирования.
+     * Одинаковые ключи означают одинаковое содержимое договора.
+     *
+     * @param statement заявка, загруженная вместе с клиентом и кредитом
+     * @return ключ документа в шестнадцатеричном виде
+     */
+    public String documentKey(Statement statement) {
+        Client client = statement.getClient();
+        Passport passport = client.getPassport();
+        Credit credit = statement.getCredit();
+        List<Object> inputs = List.of(LAYOUT_VERSION, LocalDate.now(),
+                String.valueOf(client.getLastName()), String.valueOf(client.getFirstName()),
+                String.valueOf(client.getMiddleName()), String.valueOf(client.getBirthDate()),
+                String.valueOf(client.getEmail()), String.valueOf(passport.getSeries()),
+                String.valueOf(passport.getNumber()), String.valueOf(passport.getIssueDate()),
+                String.valueOf(passport.getIssueBranch()), String.valueOf(credit.getAmount()), credit.getTerm(),
+                String.valueOf(credit.getMonthlyPayment()), String.valueOf(credit.getRate()),
+                String.valueOf(credit.getPsk()), String.valueOf(credit.getPaymentSchedule() != null
+                        ? credit.getPaymentSchedule() : credit.getPaymentScheduleElements()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object input : inputs) {
+                digest.update(input.toString().getBytes(StandardCharsets.UTF_8));
+                // Разделитель не дает разным наборам полей дать одинаковую строку
+                digest.update((byte) 0);
+            }
+            return HEX.formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private void addParagraph(Document document, String text, Font font) throws DocumentException {
+        Chunk chunk = new Chunk(text, font);
+        chunk.setSplitCharacter(WHITESPACE_SPLIT_CHARACTER);
+        document.add(new Paragraph(chunk));
+    }
+
+    private String getFullName(Client client) {
+        return client.getLastName() + " " + client.getFirstName() + " " + client.getMiddleName();
+    }
+}
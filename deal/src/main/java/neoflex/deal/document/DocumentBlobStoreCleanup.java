@@ -0,0 +1,50 @@
+package neoflex.deal.document;
+
+import neoflex.blob.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Удаление документов из хранилища по сроку хранения в режиме {@code documents.attachment-mode=claim-check}.
+ * <p>
+ * МС Досье читает документ при отправке письма вскоре после сообщения {@code send-documents}, поэтому документ
+ * хранится {@code documents.blob-store.retention-ms} с последнего сохранения, а затем удаляется. Срок хранения
+ * должен покрывать задержку доставки сообщения и повторные попытки отправки письма.
+ */
+@Component
+@ConditionalOnProperty(name = "documents.attachment-mode", havingValue = "claim-check")
+public class DocumentBlobStoreCleanup {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentBlobStoreCleanup.class);
+
+    private final BlobStore blobStore;
+    private final Duration retention;
+
+    public DocumentBlobStoreCleanup(BlobStore blobStore,
+                                    @Value("${documents.blob-store.retention-ms:604800000}") long retentionMs) {
+        this.blobStore = blobStore;
+        this.retention = Duration.ofMillis(retentionMs);
+    }
+
+    /**
+     * Удаляет документы, сохраненные раньше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${documents.blob-store.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = blobStore.deleteOlderThan(Instant.now().minus(retention));
+            if (deleted > 0) {
+                logger.info("Из хранилища удалено документов с истекшим сроком хранения: {}", deleted);
+            }
+        } catch (IOException e) {
+            logger.error("Ошибка при удалении документов с истекшим сроком хранения: {}", e.getMessage());
+        }
+    }
+}
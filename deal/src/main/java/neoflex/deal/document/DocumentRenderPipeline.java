@@ -0,0 +1,185 @@
+package neoflex.deal.document;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import neoflex.blob.BlobStore;
+import neoflex.deal.config.DocumentRenderExecutorConfig;
+import neoflex.deal.config.KafkaProducerConfig;
+import neoflex.deal.entity.Statement;
+import neoflex.deal.outbox.OutboxPublisher;
+import neoflex.dto.EmailMessage;
+import neoflex.enums.Theme;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Фоновая генерация кредитного договора и его отправка в топик {@code send-documents} через outbox.
+ * <p>
+ * Документ формируется в пуле {@link DocumentRenderExecutorConfig#DOCUMENT_RENDER_EXECUTOR}, поэтому
+ * всплеск запросов на документы не занимает потоки обработки остальных запросов. Место в пуле резервируется
+ * до изменения статуса заявки: при заполненной очереди запрос отклоняется, а заявка остается в прежнем статусе.
+ * Повторная отправка неизменившихся документов берет PDF из {@link ContractDocumentCache}.
+ * <p>
+ * Неудавшаяся генерация или сохранение сообщения повторяются до {@code documents.render.max-attempts} раз
+ * с паузой {@code documents.render.retry-delay-ms}. Если все попытки неудачны, заявка остается в статусе
+ * PREPARE_DOCUMENTS, из которого клиент может запросить документы повторно. Метрики: {@code deal.documents.render}
+ * с тегом {@code outcome} — время генерации, {@code deal.documents.failed} — заявки, документы по которым
+ * не отправлены после всех попыток.
+ * <p>
+ * Способ передачи PDF задается свойством {@code documents.attachment-mode}: {@code inline} (по умолчанию) —
+ * содержимое в сообщении, {@code claim-check} — документ сохраняется в {@link BlobStore}, а в сообщении
+ * передается только ссылка на него с хэшем.
+ */
+@Component
+public class DocumentRenderPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentRenderPipeline.class);
+
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    private final ContractPdfGenerator contractPdfGenerator;
+    private final ContractDocumentCache contractDocumentCache;
+    private final OutboxPublisher outboxPublisher;
+    private final Executor documentRenderExecutor;
+    private final Semaphore slots;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final BlobStore blobStore;
+    private final boolean claimCheck;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public DocumentRenderPipeline(ContractPdfGenerator contractPdfGenerator,
+                                  ContractDocumentCache contractDocumentCache,
+                                  OutboxPublisher outboxPublisher,
+                                  @Qualifier(DocumentRenderExecutorConfig.DOCUMENT_RENDER_EXECUTOR) Executor documentRenderExecutor,
+                                  @Value("${documents.render.pool-size:2}") int poolSize,
+                                  @Value("${documents.render.queue-capacity:100}") int queueCapacity,
+                                  @Value("${documents.render.max-attempts:3}") int maxAttempts,
+                                  @Value("${documents.render.retry-delay-ms:1000}") long retryDelayMs,
+                                  BlobStore blobStore,
+                                  @Value("${documents.attachment-mode:inline}") String attachmentMode,
+                                  MeterRegistry meterRegistry) {
+        this.contractPdfGenerator = contractPdfGenerator;
+        this.contractDocumentCache = contractDocumentCache;
+        this.outboxPublisher = outboxPublisher;
+        this.documentRenderExecutor = documentRenderExecutor;
+        // Задач в работе и в очереди не больше, чем помещается в пул, поэтому пул их не отклоняет
+        this.slots = new Semaphore(poolSize + queueCapacity);
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.blobStore = blobStore;
+        this.claimCheck = switch (attachmentMode) {
+            case "inline" -> false;
+            case "claim-check" -> true;
+            default -> throw new IllegalArgumentException("Неизвестный способ передачи документов: " + attachmentMode);
+        };
+        this.successTimer = renderTimer(meterRegistry, "success");
+        this.failureTimer = renderTimer(meterRegistry, "error");
+        this.rejectedCounter = Counter.builder("deal.documents.render.rejected")
+                .description("Задачи генерации документов, отклоненные из-за заполненной очереди")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("deal.documents.failed")
+                .description("Заявки, документы по которым не отправлены после всех попыток")
+                .register(meterRegistry);
+    }
+
+    private static Timer renderTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("deal.documents.render")
+                .description("Время генерации кредитного договора")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Резервирует место в очереди генерации, подготавливает заявку и ставит генерацию документов по ней в очередь.
+     * Если очередь заполнена, заявка не подготавливается.
+     *
+     * @param prepare перевод заявки в статус PREPARE_DOCUMENTS; возвращает заявку, загруженную вместе с клиентом
+     *                и кредитом
+     * @throws RejectedExecutionException если очередь генерации заполнена или пул остановлен
+     */
+    public void submit(Supplier<Statement> prepare) {
+        if (!slots.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Очередь генерации документов заполнена");
+        }
+        try {
+            Statement statement = prepare.get();
+            documentRenderExecutor.execute(() -> {
+                try {
+                    render(statement);
+                } finally {
+                    slots.release();
+                }
+            });
+            logger.debug("Генерация документов для заявки с ID {} поставлена в очередь", statement.getStatementId());
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    private void render(Statement statement) {
+        String statementId = statement.getStatementId().toString();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                publish(statement);
+                return;
+            } catch (RuntimeException | IOException e) {
+                if (attempt >= maxAttempts) {
+                    failedCounter.increment();
+                    logger.error("Документы для заявки с ID {} не отправлены за {} попыток: {}",
+                            statementId, attempt, e.getMessage());
+                    return;
+                }
+                logger.warn("Ошибка при отправке документов для заявки с ID {}, попытка {} из {}: {}",
+                        statementId, attempt, maxAttempts, e.getMessage());
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedCounter.increment();
+                logger.error("Отправка документов для заявки с ID {} прервана", statementId);
+                return;
+            }
+        }
+    }
+
+    private void publish(Statement statement) throws IOException {
+        byte[] pdfBytes = contractDocumentCache.get(contractPdfGenerator.documentKey(statement), () -> generate(statement));
+        EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.SEND_DOCUMENTS,
+                statement.getClient().getEmail());
+        if (claimCheck) {
+            emailMessage.setPdfDocument(blobStore.put(pdfBytes, PDF_CONTENT_TYPE));
+        } else {
+            emailMessage.setPdfDocumentBytes(pdfBytes);
+        }
+        outboxPublisher.publish(KafkaProducerConfig.SEND_DOCUMENTS_TOPIC, emailMessage);
+    }
+
+    private byte[] generate(Statement statement) {
+        long start = System.nanoTime();
+        try {
+            byte[] pdfBytes = contractPdfGenerator.generate(statement);
+            successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return pdfBytes;
+        } catch (RuntimeException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+}
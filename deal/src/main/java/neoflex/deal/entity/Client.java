@@ -6,6 +6,8 @@ import lombok.*;
 import neoflex.enums.Gender;
 import neoflex.enums.MaritalStatus;
 import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -16,6 +18,8 @@ import java.time.LocalDate;
  * Сущность, представляющая клиента.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
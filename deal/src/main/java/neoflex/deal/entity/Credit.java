@@ -4,6 +4,8 @@ import lombok.*;
 import neoflex.enums.CreditStatus;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -14,8 +16,13 @@ import java.util.List;
 
 /**
  * Сущность, представляющая кредит.
+ * <p>
+ * График платежей хранится либо в колонке jsonb {@code payment_schedule}, либо строками таблицы
+ * payment_schedule_element ({@link PaymentScheduleElement}), в зависимости от {@code payment-schedule.storage}.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "credit")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -55,4 +62,10 @@ public class Credit {
     @Enumerated(EnumType.STRING)
     @Column(name = "credit_status")
     private CreditStatus creditStatus;
+
+    // График из таблицы payment_schedule_element, загружается перед генерацией документов
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<PaymentScheduleElement> paymentScheduleElements;
 }
\ No newline at end of file
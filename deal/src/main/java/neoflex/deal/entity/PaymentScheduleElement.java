@@ -10,6 +10,7 @@ import java.util.UUID;
 
 /**
  * Сущность, представляющая элемент графика платежей.
+ * В режиме {@code payment-schedule.storage=table} график кредита хранится строками этой таблицы по {@code credit_id}.
  */
 @Entity
 @Data
@@ -23,6 +24,9 @@ public class PaymentScheduleElement {
     @Column(name = "payment_schedule_element_id")
     private UUID paymentScheduleElementId;
 
+    @Column(name = "credit_id")
+    private UUID creditId;
+
     @Column(name = "number")
     private Integer number;
 
@@ -5,17 +5,29 @@ import lombok.*;
 
 import neoflex.enums.ApplicationStatus;
 import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.util.UUID;
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Сущность, представляющая заявку на кредит.
+ * История статусов заявки хранится отдельно, в таблице status_history ({@link StatusHistory}).
+ * <p>
+ * При изменении заявки обновляются только измененные колонки, а условие по версии не дает перезаписать
+ * параллельное изменение.
+ * <p>
+ * Если включен кэш второго уровня ({@code entity-cache.enabled}), заявка, ее клиент и кредит читаются по
+ * идентификатору из кэша; изменения через Hibernate обновляют кэш сами.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "statement")
+@DynamicUpdate
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -52,7 +64,7 @@ public class Statement {
     @Column(name = "ses_code")
     private String sesCode;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "status_history", columnDefinition = "jsonb")
-    private List<StatusHistory> statusHistory;
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
\ No newline at end of file
@@ -7,7 +7,8 @@ import java.util.UUID;
 import java.time.LocalDateTime;
 
 /**
- * Сущность, представляющая историю статусов заявки.
+ * Сущность, представляющая историю статусов заявки: одна запись на каждую смену статуса.
+ * Записи только добавляются и не изменяются.
  */
 @Entity
 @Data
@@ -21,6 +22,9 @@ public class StatusHistory {
     @Column(name = "status_history_id")
     private UUID statusHistoryId;
 
+    @Column(name = "statement_id")
+    private UUID statementId;
+
     @Column(name = "status")
     private String status;
 
@@ -0,0 +1,95 @@
+package neoflex.deal.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Источник данных, замеряющий время удержания соединения с БД (от получения из пула до возврата)
+ * в разрезе эндпоинтов.
+ * <p>
+ * Метрика {@value #METRIC_NAME} с тегом {@code uri} — шаблоном пути HTTP запроса, в котором взято соединение,
+ * или {@value #NO_REQUEST}, если соединение взято вне HTTP запроса (Kafka, миграции).
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public static final String METRIC_NAME = "deal.db.connection.hold";
+    static final String NO_REQUEST = "NONE";
+    static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource, MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    /**
+     * Закрывает исходный источник данных (пул соединений) при остановке контекста.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Оборачивает соединение: при первом закрытии время удержания записывается в таймер текущего эндпоинта.
+     */
+    private Connection track(Connection connection) {
+        Timer timer = Timer.builder(METRIC_NAME)
+                .description("Время удержания соединения с БД")
+                .tag("uri", currentUri())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        long startNanos = System.nanoTime();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        }
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    private static String currentUri() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return NO_REQUEST;
+        }
+        Object pattern = requestAttributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : UNKNOWN_URI;
+    }
+}
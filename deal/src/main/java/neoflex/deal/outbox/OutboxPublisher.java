@@ -0,0 +1,50 @@
+package neoflex.deal.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.OutboxEvent;
+import neoflex.deal.repository.OutboxEventRepository;
+import neoflex.dto.EmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сохраняет сообщения для Kafka в таблицу outbox_event. Вызывается в транзакции изменения заявки, поэтому
+ * сообщение сохраняется тогда и только тогда, когда сохраняется изменение. Отправку выполняет {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Добавляет сообщение в outbox.
+     *
+     * @param topic        топик Kafka
+     * @param emailMessage сообщение
+     */
+    @Transactional
+    public void publish(String topic, EmailMessage emailMessage) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(emailMessage);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка сериализации сообщения для топика " + topic, e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .statementId(emailMessage.getStatementId())
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build());
+        logger.debug("Сообщение для топика {} по заявке с ID {} добавлено в outbox", topic, emailMessage.getStatementId());
+    }
+}
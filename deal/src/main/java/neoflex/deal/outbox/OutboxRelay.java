@@ -0,0 +1,243 @@
+package neoflex.deal.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import neoflex.deal.config.KafkaProducerConfig;
+import neoflex.deal.config.OutboxCallbackExecutorConfig;
+import neoflex.deal.entity.OutboxEvent;
+import neoflex.deal.repository.OutboxEventRepository;
+import neoflex.deal.service.DealService;
+import neoflex.dto.EmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Отправляет сообщения из таблицы outbox_event в Kafka.
+ * <p>
+ * Сообщения выбираются пачками до {@code outbox.relay.batch-size} в порядке добавления. Пачка отправляется
+ * целиком, после подтверждения Kafka строки удаляются в той же транзакции. Если отправка не подтверждена
+ * за {@code outbox.relay.send-timeout-ms}, транзакция откатывается и пачка отправляется повторно
+ * в следующий раз, поэтому доставка — не менее одного раза. Пока outbox не пуст, пачки отправляются подряд,
+ * после этого следующая проверка выполняется через {@code outbox.relay.linger-ms}.
+ * <p>
+ * После отправки документов и сообщения о выдаче кредита заявки переводятся в статусы DOCUMENT_CREATED
+ * и CREDIT_ISSUED в отдельном пуле потоков ({@link OutboxCallbackExecutorConfig}): заявки одной пачки с одним
+ * топиком обновляются одной транзакцией. Строки таких сообщений не удаляются при отправке, а отмечаются временем
+ * подтверждения Kafka ({@code sent_at}) и удаляются в транзакции обновления статусов. Если обновление не удалось,
+ * строки остаются, и через {@code outbox.relay.status-retry-ms} статусы обновляются повторно без повторной отправки
+ * в Kafka. Метрики: {@code deal.outbox.sent} с тегом {@code topic}, {@code deal.outbox.delay} — время от сохранения
+ * сообщения до подтверждения Kafka, {@code deal.outbox.failures}, {@code deal.outbox.callback} с тегом
+ * {@code topic} — время обновления статусов, {@code deal.outbox.callback.failures} с тегом {@code topic} —
+ * неудачные обновления статусов.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final Set<String> STATUS_TOPICS =
+            Set.of(KafkaProducerConfig.SEND_DOCUMENTS_TOPIC, KafkaProducerConfig.CREDIT_ISSUED_TOPIC);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, EmailMessage> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final DealService dealService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor callbackExecutor;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long statusRetryMs;
+    private final MeterRegistry meterRegistry;
+    private final Timer delayTimer;
+    private final Counter failureCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, EmailMessage> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       DealService dealService,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier(OutboxCallbackExecutorConfig.OUTBOX_CALLBACK_EXECUTOR) Executor callbackExecutor,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.status-retry-ms:30000}") long statusRetryMs,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.dealService = dealService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.callbackExecutor = callbackExecutor;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.statusRetryMs = statusRetryMs;
+        this.meterRegistry = meterRegistry;
+        this.delayTimer = Timer.builder("deal.outbox.delay")
+                .description("Время от сохранения сообщения в outbox до подтверждения Kafka")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("deal.outbox.failures")
+                .description("Неудачные попытки отправки пачки сообщений из outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отправляет все накопившиеся сообщения.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.linger-ms:100}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            logger.error("Ошибка при отправке сообщений из outbox, пачка будет отправлена повторно: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Повторно обновляет статусы заявок по сообщениям, отправленным более {@code outbox.relay.status-retry-ms}
+     * назад и до сих пор не удаленным из outbox. Строки блокируются до конца транзакции обновления, поэтому
+     * экземпляры МС Сделка не обновляют одни и те же заявки одновременно.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.status-retry-ms:30000}")
+    public void retryStatusUpdates() {
+        LocalDateTime sentBefore = LocalDateTime.now().minus(Duration.ofMillis(statusRetryMs));
+        for (String topic : STATUS_TOPICS) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                Integer retried = transactionTemplate.execute(status -> {
+                    List<OutboxEvent> events = outboxEventRepository.lockSentBefore(topic, sentBefore, batchSize);
+                    if (!events.isEmpty()) {
+                        applyStatuses(topic, events);
+                    }
+                    return events.size();
+                });
+                if (retried > 0) {
+                    logger.warn("Статусы заявок обновлены повторно после отправки в топик {}: {}", topic, retried);
+                }
+            } catch (RuntimeException e) {
+                callbackFailure(topic, e);
+            } finally {
+                sample.stop(meterRegistry.timer("deal.outbox.callback", "topic", topic));
+            }
+        }
+    }
+
+    /**
+     * Отправляет одну пачку сообщений.
+     *
+     * @return число отправленных сообщений
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (!batch.isEmpty()) {
+                send(batch);
+                Map<Boolean, List<Long>> idsByStatusUpdate = batch.stream()
+                        .collect(Collectors.partitioningBy(event -> STATUS_TOPICS.contains(event.getTopic()),
+                                Collectors.mapping(OutboxEvent::getId, Collectors.toList())));
+                if (!idsByStatusUpdate.get(false).isEmpty()) {
+                    outboxEventRepository.deleteAllByIdInBatch(idsByStatusUpdate.get(false));
+                }
+                if (!idsByStatusUpdate.get(true).isEmpty()) {
+                    outboxEventRepository.markSent(idsByStatusUpdate.get(true), LocalDateTime.now());
+                }
+            }
+            return batch;
+        });
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            meterRegistry.counter("deal.outbox.sent", "topic", event.getTopic()).increment();
+            delayTimer.record(Duration.between(event.getCreatedAt(), now));
+        }
+        afterSend(events);
+        if (!events.isEmpty()) {
+            logger.debug("Из outbox отправлено сообщений: {}", events.size());
+        }
+        return events.size();
+    }
+
+    private void send(List<OutboxEvent> batch) {
+        // Все сообщения передаются продюсеру до ожидания подтверждений, чтобы он отправил их общими пачками
+        CompletableFuture<?>[] futures = batch.stream()
+                .map(event -> kafkaTemplate.send(event.getTopic(), read(event)))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Отправка сообщений из outbox прервана", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka не подтвердила отправку сообщений из outbox", e);
+        }
+    }
+
+    private EmailMessage read(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), EmailMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка чтения сообщения outbox с ID " + event.getId(), e);
+        }
+    }
+
+    private void afterSend(List<OutboxEvent> events) {
+        events.stream()
+                .filter(event -> STATUS_TOPICS.contains(event.getTopic()))
+                .collect(Collectors.groupingBy(OutboxEvent::getTopic))
+                .forEach((topic, topicEvents) -> callbackExecutor.execute(() -> updateStatuses(topic, topicEvents)));
+    }
+
+    private void updateStatuses(String topic, List<OutboxEvent> events) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyStatuses(topic, events));
+        } catch (RuntimeException e) {
+            callbackFailure(topic, e);
+        } finally {
+            sample.stop(meterRegistry.timer("deal.outbox.callback", "topic", topic));
+        }
+    }
+
+    /**
+     * Переводит заявки в статус, следующий за отправкой, и удаляет строки сообщений в текущей транзакции.
+     */
+    private void applyStatuses(String topic, List<OutboxEvent> events) {
+        Set<UUID> statementIds = events.stream().map(OutboxEvent::getStatementId).collect(Collectors.toSet());
+        if (KafkaProducerConfig.SEND_DOCUMENTS_TOPIC.equals(topic)) {
+            dealService.handleKafkaDocumentSuccess(statementIds);
+        } else {
+            dealService.handleKafkaCreditSuccess(statementIds);
+        }
+        outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private void callbackFailure(String topic, RuntimeException e) {
+        meterRegistry.counter("deal.outbox.callback.failures", "topic", topic).increment();
+        logger.error("Ошибка при обновлении статусов заявок после отправки в топик {}, обновление будет повторено: {}",
+                topic, e.getMessage());
+    }
+}
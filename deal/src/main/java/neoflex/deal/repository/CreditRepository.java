@@ -1,10 +1,29 @@
 package neoflex.deal.repository;
 
 import neoflex.deal.entity.Credit;
+import neoflex.enums.CreditStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.UUID;
 /**
  * Репозиторий для работы с сущностью Credit.
  */
 public interface CreditRepository extends JpaRepository<Credit, UUID> {
+
+    /**
+     * Устанавливает статус кредитам нескольких заявок одним запросом.
+     *
+     * @param statementIds идентификаторы заявок
+     * @param creditStatus новый статус кредита
+     * @return число обновленных кредитов
+     */
+    @Modifying
+    @Query("update Credit c set c.creditStatus = :creditStatus "
+            + "where c.creditId in (select s.credit.creditId from Statement s where s.statementId in :statementIds)")
+    int updateStatusByStatementIds(@Param("statementIds") Collection<UUID> statementIds,
+                                   @Param("creditStatus") CreditStatus creditStatus);
 }
@@ -0,0 +1,78 @@
+package neoflex.deal.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.Parameter;
+
+/**
+ * Чтение и запись колонок jsonb в R2DBC репозиториях в том же виде, в каком их хранит Hibernate.
+ */
+final class JsonColumns {
+
+    private JsonColumns() {
+    }
+
+    /**
+     * Создает параметр jsonb из объекта.
+     *
+     * @param value        значение колонки, может быть null
+     * @param objectMapper объект для сериализации
+     * @return параметр запроса
+     */
+    static Parameter toJson(Object value, ObjectMapper objectMapper) {
+        if (value == null) {
+            return Parameter.empty(Json.class);
+        }
+        try {
+            return Parameter.from(Json.of(objectMapper.writeValueAsString(value)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Ошибка сериализации колонки jsonb", e);
+        }
+    }
+
+    /**
+     * Создает параметр jsonb из готовой JSON строки.
+     *
+     * @param json JSON строка, может быть null
+     * @return параметр запроса
+     */
+    static Parameter rawJson(String json) {
+        return json == null ? Parameter.empty(Json.class) : Parameter.from(Json.of(json));
+    }
+
+    /**
+     * Возвращает колонку jsonb как строку.
+     *
+     * @param row    строка результата
+     * @param column имя колонки
+     * @return JSON строка или null
+     */
+    static String readRaw(Readable row, String column) {
+        Json json = row.get(column, Json.class);
+        return json == null ? null : json.asString();
+    }
+
+    /**
+     * Читает колонку jsonb в объект.
+     *
+     * @param row          строка результата
+     * @param column       имя колонки
+     * @param type         тип значения
+     * @param objectMapper объект для десериализации
+     * @return значение колонки или null
+     */
+    static <T> T read(Readable row, String column, TypeReference<T> type, ObjectMapper objectMapper) {
+        String json = readRaw(row, column);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Ошибка десериализации колонки " + column, e);
+        }
+    }
+}
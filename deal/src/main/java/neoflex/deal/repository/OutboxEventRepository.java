@@ -0,0 +1,53 @@
+package neoflex.deal.repository;
+
+import neoflex.deal.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностью OutboxEvent.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Блокирует до {@code limit} самых старых неотправленных сообщений. Сообщения, заблокированные другой
+     * транзакцией, пропускаются, поэтому несколько экземпляров МС Сделка разбирают outbox параллельно.
+     *
+     * @param limit максимальное число сообщений
+     * @return сообщения в порядке добавления
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE sent_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(int limit);
+
+    /**
+     * Блокирует до {@code limit} сообщений топика, отправленных до {@code sentBefore}, для которых статусы заявок
+     * еще не обновлены. Сообщения, заблокированные другой транзакцией, пропускаются.
+     *
+     * @param topic      топик
+     * @param sentBefore время подтверждения Kafka, раньше которого выбираются сообщения
+     * @param limit      максимальное число сообщений
+     * @return сообщения в порядке добавления
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE topic = :topic AND sent_at < :sentBefore "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockSentBefore(@Param("topic") String topic, @Param("sentBefore") LocalDateTime sentBefore,
+                                     @Param("limit") int limit);
+
+    /**
+     * Отмечает сообщения как отправленные.
+     *
+     * @param ids    идентификаторы сообщений
+     * @param sentAt время подтверждения Kafka
+     * @return число обновленных сообщений
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+}
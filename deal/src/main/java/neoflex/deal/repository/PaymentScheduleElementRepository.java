@@ -0,0 +1,39 @@
+package neoflex.deal.repository;
+
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.dto.ScheduledPaymentDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+/**
+ * Репозиторий для работы с сущностью PaymentScheduleElement.
+ */
+public interface PaymentScheduleElementRepository extends JpaRepository<PaymentScheduleElement, UUID> {
+
+    /**
+     * Находит график платежей кредита.
+     *
+     * @param creditId идентификатор кредита
+     * @return элементы графика в порядке номеров платежей
+     */
+    List<PaymentScheduleElement> findByCreditIdOrderByNumberAsc(UUID creditId);
+
+    /**
+     * Находит платежи всех кредитов с датой платежа в периоде.
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return платежи, упорядоченные по дате, кредиту и номеру платежа
+     */
+    @Query("""
+            select new neoflex.dto.ScheduledPaymentDto(p.creditId, p.number, p.date, p.totalPayment,
+                p.interestPayment, p.debtPayment, p.remainingDebt)
+            from PaymentScheduleElement p
+            where p.date >= :from and p.date <= :to
+            order by p.date, p.creditId, p.number
+            """)
+    List<ScheduledPaymentDto> findDueBetween(LocalDate from, LocalDate to);
+}
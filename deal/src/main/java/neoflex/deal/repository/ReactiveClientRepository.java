@@ -0,0 +1,110 @@
+package neoflex.deal.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.Client;
+import neoflex.deal.entity.Employment;
+import neoflex.deal.entity.Passport;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Неблокирующий R2DBC репозиторий для таблицы client. Используется в профиле {@code reactive}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveClientRepository {
+
+    /**
+     * Колонки клиента для выборок с соединением таблиц.
+     */
+    static final String COLUMNS = "c.client_id, c.last_name, c.first_name, c.middle_name, c.birth_date, c.email, "
+            + "c.gender, c.marital_status, c.dependent_amount, c.passport, c.employment, c.account_number";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Сохраняет нового клиента.
+     *
+     * @param client клиент без идентификатора
+     * @return сохраненный клиент
+     */
+    public Mono<Client> insert(Client client) {
+        client.setClientId(UUID.randomUUID());
+        return databaseClient.sql("""
+                        INSERT INTO client (client_id, last_name, first_name, middle_name, birth_date, email, gender,
+                                            marital_status, dependent_amount, passport, employment, account_number)
+                        VALUES (:clientId, :lastName, :firstName, :middleName, :birthDate, :email, :gender,
+                                :maritalStatus, :dependentAmount, :passport, :employment, :accountNumber)
+                        """)
+                .bind("clientId", client.getClientId())
+                .bind("lastName", Parameter.fromOrEmpty(client.getLastName(), String.class))
+                .bind("firstName", Parameter.fromOrEmpty(client.getFirstName(), String.class))
+                .bind("middleName", Parameter.fromOrEmpty(client.getMiddleName(), String.class))
+                .bind("birthDate", Parameter.fromOrEmpty(client.getBirthDate(), LocalDate.class))
+                .bind("email", Parameter.fromOrEmpty(client.getEmail(), String.class))
+                .bind("gender", Parameter.fromOrEmpty(client.getGender() == null ? null : client.getGender().name(), String.class))
+                .bind("maritalStatus", Parameter.fromOrEmpty(
+                        client.getMaritalStatus() == null ? null : client.getMaritalStatus().name(), String.class))
+                .bind("dependentAmount", client.getDependentAmount())
+                .bind("passport", JsonColumns.toJson(client.getPassport(), objectMapper))
+                .bind("employment", JsonColumns.toJson(client.getEmployment(), objectMapper))
+                .bind("accountNumber", Parameter.fromOrEmpty(client.getAccountNumber(), String.class))
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(client);
+    }
+
+    /**
+     * Удаляет клиента.
+     *
+     * @param clientId идентификатор клиента
+     * @return завершение удаления
+     */
+    public Mono<Void> deleteById(UUID clientId) {
+        return databaseClient.sql("DELETE FROM client WHERE client_id = :clientId")
+                .bind("clientId", clientId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Собирает клиента из строки выборки с колонками {@link #COLUMNS}.
+     *
+     * @param row          строка результата
+     * @param objectMapper объект для чтения колонок jsonb
+     * @return клиент
+     */
+    static Client toClient(Readable row, ObjectMapper objectMapper) {
+        String gender = row.get("gender", String.class);
+        String maritalStatus = row.get("marital_status", String.class);
+        Integer dependentAmount = row.get("dependent_amount", Integer.class);
+        return Client.builder()
+                .clientId(row.get("client_id", UUID.class))
+                .lastName(row.get("last_name", String.class))
+                .firstName(row.get("first_name", String.class))
+                .middleName(row.get("middle_name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .email(row.get("email", String.class))
+                .gender(gender == null ? null : Gender.valueOf(gender))
+                .maritalStatus(maritalStatus == null ? null : MaritalStatus.valueOf(maritalStatus))
+                .dependentAmount(dependentAmount == null ? 0 : dependentAmount)
+                .passport(JsonColumns.read(row, "passport", new TypeReference<Passport>() {}, objectMapper))
+                .employment(JsonColumns.read(row, "employment", new TypeReference<Employment>() {}, objectMapper))
+                .accountNumber(row.get("account_number", String.class))
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package neoflex.deal.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.Credit;
+import neoflex.enums.CreditStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Неблокирующий R2DBC репозиторий для таблицы credit. Используется в профиле {@code reactive}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCreditRepository {
+
+    /**
+     * Колонки кредита для выборок с соединением таблиц.
+     */
+    static final String COLUMNS = "cr.credit_id, cr.amount, cr.term, cr.monthly_payment, cr.rate, cr.psk, "
+            + "cr.payment_schedule, cr.insurance_enabled, cr.salary_client, cr.credit_status";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Сохраняет кредит: новый кредит без идентификатора добавляется, существующий обновляется.
+     *
+     * @param credit кредит
+     * @return сохраненный кредит
+     */
+    public Mono<Credit> save(Credit credit) {
+        boolean isNew = credit.getCreditId() == null;
+        if (isNew) {
+            credit.setCreditId(UUID.randomUUID());
+        }
+        String sql = isNew
+                ? """
+                INSERT INTO credit (credit_id, amount, term, monthly_payment, rate, psk, payment_schedule,
+                                    insurance_enabled, salary_client, credit_status)
+                VALUES (:creditId, :amount, :term, :monthlyPayment, :rate, :psk, :paymentSchedule,
+                        :insuranceEnabled, :salaryClient, :creditStatus)
+                """
+                : """
+                UPDATE credit
+                SET amount = :amount, term = :term, monthly_payment = :monthlyPayment, rate = :rate, psk = :psk,
+                    payment_schedule = :paymentSchedule, insurance_enabled = :insuranceEnabled,
+                    salary_client = :salaryClient, credit_status = :creditStatus
+                WHERE credit_id = :creditId
+                """;
+        return databaseClient.sql(sql)
+                .bind("creditId", credit.getCreditId())
+                .bind("amount", Parameter.fromOrEmpty(credit.getAmount(), BigDecimal.class))
+                .bind("term", credit.getTerm())
+                .bind("monthlyPayment", Parameter.fromOrEmpty(credit.getMonthlyPayment(), BigDecimal.class))
+                .bind("rate", Parameter.fromOrEmpty(credit.getRate(), BigDecimal.class))
+                .bind("psk", Parameter.fromOrEmpty(credit.getPsk(), BigDecimal.class))
+                .bind("paymentSchedule", JsonColumns.rawJson(credit.getPaymentSchedule()))
+                .bind("insuranceEnabled", credit.isInsuranceEnabled())
+                .bind("salaryClient", credit.isSalaryClient())
+                .bind("creditStatus", Parameter.fromOrEmpty(
+                        credit.getCreditStatus() == null ? null : credit.getCreditStatus().name(), String.class))
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(credit);
+    }
+
+    /**
+     * Собирает кредит из строки выборки с колонками {@link #COLUMNS}.
+     *
+     * @param row строка результата
+     * @return кредит или null, если у заявки нет кредита
+     */
+    static Credit toCredit(Readable row) {
+        UUID creditId = row.get("credit_id", UUID.class);
+        if (creditId == null) {
+            return null;
+        }
+        String creditStatus = row.get("credit_status", String.class);
+        return Credit.builder()
+                .creditId(creditId)
+                .amount(row.get("amount", BigDecimal.class))
+                .term(row.get("term", Integer.class))
+                .monthlyPayment(row.get("monthly_payment", BigDecimal.class))
+                .rate(row.get("rate", BigDecimal.class))
+                .psk(row.get("psk", BigDecimal.class))
+                .paymentSchedule(JsonColumns.readRaw(row, "payment_schedule"))
+                .insuranceEnabled(Boolean.TRUE.equals(row.get("insurance_enabled", Boolean.class)))
+                .salaryClient(Boolean.TRUE.equals(row.get("salary_client", Boolean.class)))
+                .creditStatus(creditStatus == null ? null : CreditStatus.valueOf(creditStatus))
+                .build();
+    }
+}
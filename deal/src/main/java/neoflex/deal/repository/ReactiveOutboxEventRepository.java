@@ -0,0 +1,45 @@
+package neoflex.deal.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import neoflex.dto.EmailMessage;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неблокирующий R2DBC репозиторий для таблицы outbox_event. Используется в профиле {@code reactive}.
+ * Сообщения отправляет тот же {@link neoflex.deal.outbox.OutboxRelay}, что и в сервлетном варианте.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOutboxEventRepository {
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Добавляет сообщение в outbox.
+     *
+     * @param topic        топик Kafka
+     * @param emailMessage сообщение
+     * @return завершение добавления
+     */
+    public Mono<Void> insert(String topic, EmailMessage emailMessage) {
+        return databaseClient.sql("""
+                        INSERT INTO outbox_event (topic, statement_id, payload, created_at)
+                        VALUES (:topic, :statementId, :payload, :createdAt)
+                        """)
+                .bind("topic", topic)
+                .bind("statementId", emailMessage.getStatementId())
+                .bind("payload", JsonColumns.toJson(emailMessage, objectMapper))
+                .bind("createdAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+}
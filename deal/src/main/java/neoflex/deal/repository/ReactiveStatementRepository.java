@@ -0,0 +1,170 @@
+package neoflex.deal.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.Statement;
+import neoflex.enums.ApplicationStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неблокирующий R2DBC репозиторий для таблицы statement. Используется в профиле {@code reactive}.
+ * <p>
+ * Заявка читается одним запросом вместе с клиентом и кредитом, как и при загрузке сущности через JPA.
+ * Изменение заявки, как и в JPA, выполняется с условием по версии и, как {@code @DynamicUpdate}, записывает
+ * только статус, версию и измененные колонки.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatementRepository {
+
+    private static final String SELECT_BY_ID = "SELECT s.statement_id, s.status, s.creation_date, s.applied_offer, "
+            + "s.sign_date, s.ses_code, s.version, " + ReactiveClientRepository.COLUMNS + ", "
+            + ReactiveCreditRepository.COLUMNS + " "
+            + "FROM statement s "
+            + "JOIN client c ON c.client_id = s.client_id "
+            + "LEFT JOIN credit cr ON cr.credit_id = s.credit_id "
+            + "WHERE s.statement_id = :statementId";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Находит заявку вместе с клиентом и кредитом.
+     *
+     * @param statementId идентификатор заявки
+     * @return заявка или пустой результат, если заявка не найдена
+     */
+    public Mono<Statement> findById(UUID statementId) {
+        return databaseClient.sql(SELECT_BY_ID)
+                .bind("statementId", statementId)
+                .map(this::toStatement)
+                .one();
+    }
+
+    /**
+     * Сохраняет новую заявку.
+     *
+     * @param statement заявка без идентификатора с сохраненным клиентом
+     * @return сохраненная заявка
+     */
+    public Mono<Statement> insert(Statement statement) {
+        statement.setStatementId(UUID.randomUUID());
+        return databaseClient.sql("""
+                        INSERT INTO statement (statement_id, client_id, credit_id, status, creation_date, applied_offer,
+                                               sign_date, ses_code)
+                        VALUES (:statementId, :clientId, :creditId, :status, :creationDate, :appliedOffer,
+                                :signDate, :sesCode)
+                        """)
+                .bind("statementId", statement.getStatementId())
+                .bind("clientId", statement.getClient().getClientId())
+                .bind("creditId", Parameter.fromOrEmpty(creditId(statement), UUID.class))
+                .bind("status", Parameter.fromOrEmpty(status(statement), String.class))
+                .bind("creationDate", Parameter.fromOrEmpty(statement.getCreationDate(), LocalDateTime.class))
+                .bind("appliedOffer", JsonColumns.rawJson(statement.getAppliedOffer()))
+                .bind("signDate", Parameter.fromOrEmpty(statement.getSignDate(), LocalDateTime.class))
+                .bind("sesCode", Parameter.fromOrEmpty(statement.getSesCode(), String.class))
+                .fetch()
+                .rowsUpdated()
+                .doOnSuccess(rows -> statement.setVersion(0L))
+                .thenReturn(statement);
+    }
+
+    /**
+     * Колонки заявки, которые записываются при обновлении вместе со статусом, если они изменены.
+     */
+    public enum Column {
+        CREDIT_ID,
+        APPLIED_OFFER
+    }
+
+    /**
+     * Обновляет статус и измененные колонки заявки, если ее версия в БД не изменилась с момента чтения,
+     * и увеличивает версию.
+     *
+     * @param statement заявка
+     * @param changed   колонки, измененные после чтения заявки, кроме статуса
+     * @return обновленная заявка или {@link OptimisticLockingFailureException}, если заявку изменил
+     * другой запрос
+     */
+    public Mono<Statement> update(Statement statement, Set<Column> changed) {
+        StringBuilder sql = new StringBuilder("UPDATE statement SET status = :status, version = version + 1");
+        if (changed.contains(Column.CREDIT_ID)) {
+            sql.append(", credit_id = :creditId");
+        }
+        if (changed.contains(Column.APPLIED_OFFER)) {
+            sql.append(", applied_offer = :appliedOffer");
+        }
+        sql.append(" WHERE statement_id = :statementId AND version = :version");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("statementId", statement.getStatementId())
+                .bind("status", Parameter.fromOrEmpty(status(statement), String.class))
+                .bind("version", statement.getVersion());
+        if (changed.contains(Column.CREDIT_ID)) {
+            spec = spec.bind("creditId", Parameter.fromOrEmpty(creditId(statement), UUID.class));
+        }
+        if (changed.contains(Column.APPLIED_OFFER)) {
+            spec = spec.bind("appliedOffer", JsonColumns.rawJson(statement.getAppliedOffer()));
+        }
+        return spec.fetch()
+                .rowsUpdated()
+                .flatMap(rows -> {
+                    if (rows == 0) {
+                        return Mono.error(new OptimisticLockingFailureException(
+                                "Заявка с ID " + statement.getStatementId() + " изменена параллельно"));
+                    }
+                    statement.setVersion(statement.getVersion() + 1);
+                    return Mono.just(statement);
+                });
+    }
+
+    /**
+     * Удаляет заявку.
+     *
+     * @param statementId идентификатор заявки
+     * @return завершение удаления
+     */
+    public Mono<Void> deleteById(UUID statementId) {
+        return databaseClient.sql("DELETE FROM statement WHERE statement_id = :statementId")
+                .bind("statementId", statementId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Statement toStatement(Readable row) {
+        String status = row.get("status", String.class);
+        return Statement.builder()
+                .statementId(row.get("statement_id", UUID.class))
+                .client(ReactiveClientRepository.toClient(row, objectMapper))
+                .credit(ReactiveCreditRepository.toCredit(row))
+                .status(status == null ? null : ApplicationStatus.valueOf(status))
+                .creationDate(row.get("creation_date", LocalDateTime.class))
+                .appliedOffer(JsonColumns.readRaw(row, "applied_offer"))
+                .signDate(row.get("sign_date", LocalDateTime.class))
+                .sesCode(row.get("ses_code", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private static UUID creditId(Statement statement) {
+        Credit credit = statement.getCredit();
+        return credit == null ? null : credit.getCreditId();
+    }
+
+    private static String status(Statement statement) {
+        return statement.getStatus() == null ? null : statement.getStatus().name();
+    }
+}
@@ -0,0 +1,43 @@
+package neoflex.deal.repository;
+
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.StatusHistory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующий R2DBC репозиторий для таблицы status_history. Используется в профиле {@code reactive}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatusHistoryRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Добавляет запись в историю статусов заявки.
+     *
+     * @param statusHistory запись истории без идентификатора
+     * @return сохраненная запись
+     */
+    public Mono<StatusHistory> insert(StatusHistory statusHistory) {
+        statusHistory.setStatusHistoryId(UUID.randomUUID());
+        return databaseClient.sql("""
+                        INSERT INTO status_history (status_history_id, statement_id, status, time, change_type)
+                        VALUES (:statusHistoryId, :statementId, :status, :time, :changeType)
+                        """)
+                .bind("statusHistoryId", statusHistory.getStatusHistoryId())
+                .bind("statementId", statusHistory.getStatementId())
+                .bind("status", statusHistory.getStatus())
+                .bind("time", statusHistory.getTime())
+                .bind("changeType", statusHistory.getChangeType().name())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(statusHistory);
+    }
+}
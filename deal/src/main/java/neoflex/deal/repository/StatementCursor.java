@@ -0,0 +1,48 @@
+package neoflex.deal.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция в списке заявок, упорядоченном по {@code (creation_date, statement_id)} по убыванию.
+ * Передается клиенту в виде непрозрачной строки.
+ *
+ * @param creationDate дата создания последней заявки на странице
+ * @param statementId  идентификатор последней заявки на странице
+ */
+public record StatementCursor(LocalDateTime creationDate, UUID statementId) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * @return строковое представление позиции для передачи клиенту
+     */
+    public String encode() {
+        String value = creationDate + SEPARATOR + statementId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает позицию из строки, полученной от клиента.
+     *
+     * @param cursor строковое представление позиции
+     * @return позиция в списке заявок
+     * @throws IllegalArgumentException если строка не является позицией, выданной сервисом
+     */
+    public static StatementCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Некорректная позиция списка заявок: " + cursor);
+            }
+            return new StatementCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная позиция списка заявок: " + cursor, e);
+        }
+    }
+}
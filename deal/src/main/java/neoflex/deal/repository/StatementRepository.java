@@ -2,9 +2,30 @@ package neoflex.deal.repository;
 
 import neoflex.deal.entity.Statement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 /**
  * Репозиторий для работы с сущностью Statement.
  */
-public interface StatementRepository extends JpaRepository<Statement, UUID> {
+public interface StatementRepository extends JpaRepository<Statement, UUID>, StatementRepositoryCustom {
+
+    /**
+     * Переводит заявки в новый статус одним запросом, если их текущий статус — один из ожидаемых.
+     * Версия обновленных заявок увеличивается.
+     *
+     * @param statementIds     идентификаторы заявок
+     * @param expectedStatuses ожидаемые текущие статусы
+     * @param status           новый статус
+     * @return идентификаторы обновленных заявок
+     */
+    @Query(value = "UPDATE statement SET status = :status, version = version + 1 "
+            + "WHERE statement_id IN (:statementIds) AND status IN (:expectedStatuses) "
+            + "RETURNING statement_id", nativeQuery = true)
+    List<UUID> compareAndSetStatus(@Param("statementIds") Collection<UUID> statementIds,
+                                   @Param("expectedStatuses") Collection<String> expectedStatuses,
+                                   @Param("status") String status);
 }
@@ -0,0 +1,54 @@
+package neoflex.deal.repository;
+
+import neoflex.dto.StatementSummaryDto;
+import neoflex.enums.ApplicationStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Запросы к заявкам, которые строятся динамически и не выражаются методами Spring Data.
+ */
+public interface StatementRepositoryCustom {
+
+    /**
+     * Возвращает краткую информацию о заявках, упорядоченную по дате создания и идентификатору по убыванию.
+     * Используется постраничная выборка по ключу: следующая страница начинается после {@code after},
+     * поэтому стоимость запроса не зависит от номера страницы.
+     *
+     * @param status фильтр по статусу заявки, null — без фильтра
+     * @param from   начало периода создания включительно, null — без ограничения
+     * @param to     конец периода создания не включительно, null — без ограничения
+     * @param after  позиция последней заявки предыдущей страницы, null — первая страница
+     * @param limit  максимальное число заявок
+     * @return краткая информация о заявках
+     */
+    List<StatementSummaryDto> findSummaries(ApplicationStatus status, LocalDateTime from, LocalDateTime to,
+                                            StatementCursor after, int limit);
+
+    /**
+     * Возвращает краткую информацию о всех заявках, подходящих под фильтры, в том же порядке, что и
+     * {@link #findSummaries}. Строки читаются курсором БД порциями по {@code fetchSize}, поэтому объем памяти
+     * не зависит от размера таблицы. Поток нужно читать внутри транзакции и закрыть после чтения.
+     *
+     * @param status    фильтр по статусу заявки, null — без фильтра
+     * @param from      начало периода создания включительно, null — без ограничения
+     * @param to        конец периода создания не включительно, null — без ограничения
+     * @param fetchSize число строк, получаемых из БД за одно обращение
+     * @return поток краткой информации о заявках
+     */
+    Stream<StatementSummaryDto> streamSummaries(ApplicationStatus status, LocalDateTime from, LocalDateTime to,
+                                                int fetchSize);
+
+    /**
+     * Удаляет заявки из кэша второго уровня. Нужно после изменения заявок запросом в обход Hibernate.
+     * Заявки удаляются сразу и повторно после завершения транзакции, чтобы в кэш не вернулось состояние,
+     * прочитанное параллельным запросом до фиксации изменения.
+     *
+     * @param statementIds идентификаторы заявок
+     */
+    void evictFromCache(Collection<UUID> statementIds);
+}
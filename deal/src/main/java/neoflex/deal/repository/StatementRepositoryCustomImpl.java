@@ -0,0 +1,112 @@
+package neoflex.deal.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import neoflex.deal.entity.Client;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.Statement;
+import neoflex.dto.StatementSummaryDto;
+import neoflex.enums.ApplicationStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Реализация {@link StatementRepositoryCustom} на Criteria API. В запрос попадают только заданные фильтры,
+ * чтобы планировщик PostgreSQL мог использовать индексы по {@code (creation_date, statement_id)}
+ * и {@code (status, creation_date, statement_id)}. Колонки jsonb не выбираются, а результат — DTO,
+ * поэтому контекст персистентности не растет при чтении большого числа строк.
+ */
+class StatementRepositoryCustomImpl implements StatementRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StatementSummaryDto> findSummaries(ApplicationStatus status, LocalDateTime from, LocalDateTime to,
+                                                   StatementCursor after, int limit) {
+        return entityManager.createQuery(summaryQuery(status, from, to, after))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<StatementSummaryDto> streamSummaries(ApplicationStatus status, LocalDateTime from, LocalDateTime to,
+                                                       int fetchSize) {
+        // Hibernate читает поток через ScrollableResults, размер выборки передается в JDBC драйвер
+        return entityManager.createQuery(summaryQuery(status, from, to, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public void evictFromCache(Collection<UUID> statementIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        statementIds.forEach(statementId -> cache.evict(Statement.class, statementId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    statementIds.forEach(statementId -> cache.evict(Statement.class, statementId));
+                }
+            });
+        }
+    }
+
+    private CriteriaQuery<StatementSummaryDto> summaryQuery(ApplicationStatus status, LocalDateTime from,
+                                                            LocalDateTime to, StatementCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StatementSummaryDto> query = cb.createQuery(StatementSummaryDto.class);
+        Root<Statement> statement = query.from(Statement.class);
+        Join<Statement, Client> client = statement.join("client", JoinType.LEFT);
+        Join<Statement, Credit> credit = statement.join("credit", JoinType.LEFT);
+        Path<LocalDateTime> creationDate = statement.get("creationDate");
+        Path<UUID> statementId = statement.get("statementId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(statement.get("status"), status));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(creationDate, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(creationDate, to));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(creationDate, after.creationDate()),
+                    cb.and(cb.equal(creationDate, after.creationDate()),
+                            cb.lessThan(statementId, after.statementId()))));
+        }
+
+        return query.select(cb.construct(StatementSummaryDto.class,
+                        statementId,
+                        statement.get("status"),
+                        creationDate,
+                        statement.get("signDate"),
+                        client.get("clientId"),
+                        client.get("lastName"),
+                        client.get("firstName"),
+                        client.get("middleName"),
+                        client.get("email"),
+                        credit.get("creditId"),
+                        credit.get("amount"),
+                        credit.get("term"),
+                        credit.get("monthlyPayment"),
+                        credit.get("rate"),
+                        credit.get("creditStatus")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(creationDate), cb.desc(statementId));
+    }
+}
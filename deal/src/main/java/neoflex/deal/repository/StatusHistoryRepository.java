@@ -1,10 +1,39 @@
 package neoflex.deal.repository;
 
 import neoflex.deal.entity.StatusHistory;
+import neoflex.dto.StatusCountDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 /**
  * Репозиторий для работы с сущностью StatusHistory.
  */
 public interface StatusHistoryRepository extends JpaRepository<StatusHistory, UUID> {
+
+    /**
+     * Находит историю статусов заявки в порядке смены статусов.
+     *
+     * @param statementId идентификатор заявки
+     * @return записи истории статусов
+     */
+    List<StatusHistory> findByStatementIdOrderByTimeAsc(UUID statementId);
+
+    /**
+     * Считает переходы в каждый статус по дням.
+     *
+     * @param from начало периода включительно
+     * @param to   конец периода, не включая
+     * @return число переходов по дням и статусам, упорядоченное по дате и статусу
+     */
+    @Query("""
+            select new neoflex.dto.StatusCountDto(extract(date from h.time), h.status, count(h))
+            from StatusHistory h
+            where h.time >= :from and h.time < :to
+            group by extract(date from h.time), h.status
+            order by extract(date from h.time), h.status
+            """)
+    List<StatusCountDto> countByDayAndStatus(LocalDateTime from, LocalDateTime to);
 }
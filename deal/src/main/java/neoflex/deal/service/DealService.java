@@ -1,13 +1,14 @@
 package neoflex.deal.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.BaseFont;
-import com.itextpdf.text.pdf.PdfWriter;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import neoflex.deal.client.CalculatorClient;
+import neoflex.deal.config.CalculatorExecutorConfig;
+import neoflex.deal.config.KafkaProducerConfig;
+import neoflex.deal.outbox.OutboxPublisher;
 import neoflex.dto.*;
 import neoflex.deal.entity.*;
 import neoflex.enums.ApplicationStatus;
@@ -22,20 +23,20 @@ import neoflex.enums.Theme;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Сервис для обработки бизнес-логики, связанной с кредитными заявками.
@@ -44,47 +45,92 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DealService {
     private static final Logger logger = LoggerFactory.getLogger(DealService.class);
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_PAYMENTS_DUE_PERIOD_DAYS = 31;
     private final ClientRepository clientRepository;
     private final StatementRepository statementRepository;
     private final CreditRepository creditRepository;
-    private final WebClient webClient;
+    private final PaymentScheduleElementRepository paymentScheduleElementRepository;
+    private final PaymentScheduleStorage paymentScheduleStorage;
+    private final StatusHistoryRepository statusHistoryRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final StatusTransitions statusTransitions;
+    private final CalculatorClient calculatorClient;
     private final Validator validator;
     private final ObjectMapper objectMapper;
-
-    private static Font getFont(float size, int style, BaseColor color) {
-        try {
-            BaseFont baseFont = BaseFont.createFont(new ClassPathResource("times.ttf").getURL().toString(), BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-            return new Font(baseFont, size, style, color);
-        } catch (DocumentException | IOException e) {
-            logger.error("Ошибка при создании шрифта: {}", e.getMessage());
-            return FontFactory.getFont(FontFactory.HELVETICA, size, style, color);
-        }
-    }
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier(CalculatorExecutorConfig.CALCULATOR_EXECUTOR)
+    private final Executor calculatorExecutor;
 
     /**
      * Рассчитывает возможные условия кредита на основе данных заявки.
+     * Предложения рассчитываются в МС Калькулятор параллельно с сохранением клиента и заявки, так как расчет
+     * зависит только от данных запроса. Если расчет завершился ошибкой, сохраненные клиент и заявка удаляются.
      *
      * @param request объект с данными заявки на кредит
      * @return список предложений по кредиту
      */
-    @Transactional
     public List<LoanOfferDto> calculateLoanOffers(LoanStatementRequestDto request) {
         logger.info("Получен запрос на расчет возможных условий кредита: {}", request);
 
         validateRequest(request);
 
-        Passport passport = createAndSavePassport(request);
-        Employment employment = createDefaultEmployment();
-        Client client = saveClient(request, passport, employment);
-        Statement statement = saveStatement(client);
+        CompletableFuture<List<LoanOfferDto>> loanOffersFuture =
+                CompletableFuture.supplyAsync(() -> fetchLoanOffersFromCalculator(request), calculatorExecutor);
+
+        Statement statement = transactionTemplate.execute(status -> {
+            Passport passport = createAndSavePassport(request);
+            Employment employment = createDefaultEmployment();
+            Client client = saveClient(request, passport, employment);
+            return saveStatement(client);
+        });
 
-        List<LoanOfferDto> loanOffers = fetchLoanOffersFromCalculator(request);
+        List<LoanOfferDto> loanOffers = awaitLoanOffers(loanOffersFuture, statement);
         assignStatementIdToLoanOffers(loanOffers, statement.getStatementId());
 
         logger.info("Предложения по кредиту рассчитаны и связаны с заявкой: {}", loanOffers);
         return loanOffers;
     }
 
+    /**
+     * Ожидает предложения по кредиту от МС Калькулятор. При ошибке расчета удаляет сохраненную заявку.
+     *
+     * @param loanOffersFuture результат вызова МС Калькулятор
+     * @param statement        сохраненная заявка
+     * @return список предложений по кредиту
+     */
+    private List<LoanOfferDto> awaitLoanOffers(CompletableFuture<List<LoanOfferDto>> loanOffersFuture, Statement statement) {
+        try {
+            return loanOffersFuture.join();
+        } catch (CompletionException e) {
+            RuntimeException cause = e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new RuntimeException("Ошибка при получении предложений по кредиту", e.getCause());
+            try {
+                deleteStatement(statement);
+            } catch (RuntimeException deleteException) {
+                logger.error("Не удалось удалить заявку {} после ошибки расчета: {}",
+                        statement.getStatementId(), deleteException.getMessage());
+                cause.addSuppressed(deleteException);
+            }
+            throw cause;
+        }
+    }
+
+    /**
+     * Удаляет заявку и клиента, для которых не удалось рассчитать предложения.
+     *
+     * @param statement заявка
+     */
+    private void deleteStatement(Statement statement) {
+        transactionTemplate.executeWithoutResult(status -> {
+            statementRepository.delete(statement);
+            clientRepository.delete(statement.getClient());
+        });
+        logger.info("Заявка {} удалена после ошибки расчета предложений", statement.getStatementId());
+    }
+
     private void validateRequest(LoanStatementRequestDto request) {
         Set<ConstraintViolation<LoanStatementRequestDto>> violations = validator.validate(request);
         if (!violations.isEmpty()) {
@@ -151,10 +197,10 @@ public class DealService {
         Statement statement = Statement.builder()
                 .client(client)
                 .status(ApplicationStatus.PREAPPROVAL)
-                .statusHistory(List.of())
                 .creationDate(LocalDateTime.now())
                 .build();
         statementRepository.save(statement);
+        addStatusHistory(statement, ApplicationStatus.PREAPPROVAL, ChangeType.AUTOMATIC);
         logger.info("Заявка сохранена: {}", statement);
         return statement;
     }
@@ -167,13 +213,7 @@ public class DealService {
      */
     private List<LoanOfferDto> fetchLoanOffersFromCalculator(LoanStatementRequestDto request) {
         try {
-            List<LoanOfferDto> loanOffers = webClient.post()
-                    .uri("/offers")
-                    .body(Mono.just(request), LoanStatementRequestDto.class)
-                    .retrieve()
-                    .bodyToFlux(LoanOfferDto.class)
-                    .collectList()
-                    .block();
+            List<LoanOfferDto> loanOffers = calculatorClient.calculateLoanOffers(request);
 
             logger.info("Получены предложения по кредиту от сервиса Калькулятор: {}", loanOffers);
             return loanOffers;
@@ -196,6 +236,7 @@ public class DealService {
 
     /**
      * Выбирает кредитное предложение на основе предоставленного объекта LoanOfferDto.
+     * Сообщение о необходимости завершить регистрацию сохраняется в outbox в той же транзакции.
      *
      * @param offer объект с данными выбранного кредитного предложения
      */
@@ -222,14 +263,14 @@ public class DealService {
         credit = creditRepository.save(credit);
 
         statement.setCredit(credit);
+        statement.setAppliedOffer(appliedOfferJson);
 
-        updateStatement(statement, appliedOfferJson);
-        updateStatusHistory(statement, ApplicationStatus.APPROVED, ChangeType.MANUAL);
-
-        statementRepository.save(statement);
+        updateStatementStatus(statement, ApplicationStatus.APPROVED, ChangeType.MANUAL);
         logger.info("Кредитное предложение успешно выбрано: {}", statement);
 
-        return new EmailMessage(statement.getStatementId(), Theme.FINISH_REGISTRATION, statement.getClient().getEmail());
+        EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.FINISH_REGISTRATION, statement.getClient().getEmail());
+        outboxPublisher.publish(KafkaProducerConfig.FINISH_REGISTRATION_TOPIC, emailMessage);
+        return emailMessage;
     }
 
     /**
@@ -244,48 +285,39 @@ public class DealService {
     }
 
     /**
-     * Обновляет заявку с новым статусом и примененным предложением.
-     *
-     * @param statement        заявка
-     * @param appliedOfferJson JSON строка примененного предложения
-     */
-    private void updateStatement(Statement statement, String appliedOfferJson) {
-        statement.setStatus(ApplicationStatus.APPROVED);
-        statement.setAppliedOffer(appliedOfferJson);
-        logger.info("Заявка обновлена: {}", statement);
-    }
-
-    /**
-     * Обновляет историю статусов заявки.
+     * Добавляет запись в историю статусов заявки. Существующие записи не читаются и не перезаписываются.
      *
      * @param statement   заявка
      * @param status      новый статус
      * @param changeType  тип изменения
      */
-    private void updateStatusHistory(Statement statement, ApplicationStatus status, ChangeType changeType) {
+    private void addStatusHistory(Statement statement, ApplicationStatus status, ChangeType changeType) {
         StatusHistory statusHistory = StatusHistory.builder()
+                .statementId(statement.getStatementId())
                 .status(status.name())
                 .time(LocalDateTime.now())
                 .changeType(changeType)
                 .build();
-        List<StatusHistory> statusHistoryList = statement.getStatusHistory();
-        statusHistoryList.add(statusHistory);
-        statement.setStatusHistory(statusHistoryList);
-        logger.info("История статусов обновлена: {}", statusHistoryList);
+        statusHistoryRepository.save(statusHistory);
+        logger.info("История статусов обновлена: {}", statusHistory);
     }
 
     /**
      * Завершает регистрацию и выполняет полный подсчет кредита для заявки с указанным идентификатором.
+     * Вызов МС Калькулятор выполняется вне транзакции, результат сохраняется отдельной короткой транзакцией
+     * по заново прочитанной заявке, в ней же сообщение сохраняется в outbox. Если заявка не в статусе APPROVED,
+     * МС Калькулятор не вызывается.
      *
      * @param statementId идентификатор заявки
      * @param request    объект с данными для завершения регистрации
      */
-    @Transactional
     public EmailMessage finishRegistration(String statementId, FinishRegistrationRequestDto request) {
         logger.info("Завершение регистрации и полный подсчет кредита для заявки с ID: {}", statementId);
 
-        Statement statement = getStatementById(UUID.fromString(statementId));
-        ScoringDataDto scoringData = ScoringDataMapper.toScoringDataDto(statement, request);
+        UUID id = UUID.fromString(statementId);
+        Statement registeredStatement = getStatementById(id);
+        statusTransitions.check(registeredStatement, ApplicationStatus.CC_APPROVED);
+        ScoringDataDto scoringData = ScoringDataMapper.toScoringDataDto(registeredStatement, request);
         logger.info("Создан запрос для МС Калькулятор: {}", scoringData);
 
         CreditDto creditDto;
@@ -293,113 +325,28 @@ public class DealService {
             creditDto = sendScoringDataToCalculator(scoringData);
         } catch (RuntimeException e) {
             logger.error("Ошибка при получении данных кредита: {}", e.getMessage());
-            updateStatementStatus(statement, ApplicationStatus.CC_DENIED);
-            return new EmailMessage(statement.getStatementId(), Theme.STATEMENT_DENIED, statement.getClient().getEmail());
+            return transactionTemplate.execute(status -> {
+                Statement statement = getStatementById(id);
+                updateStatementStatus(statement, ApplicationStatus.CC_DENIED, ChangeType.AUTOMATIC);
+                EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.STATEMENT_DENIED, statement.getClient().getEmail());
+                outboxPublisher.publish(KafkaProducerConfig.CREATE_DOCUMENTS_TOPIC, emailMessage);
+                return emailMessage;
+            });
         }
         List<PaymentScheduleElement> paymentScheduleElements = convertPaymentSchedule(creditDto.getPaymentSchedule());
 
-        Credit credit = createAndSaveCredit(creditDto, paymentScheduleElements);
-        statement.setCredit(credit);
-        updateStatementStatus(statement, ApplicationStatus.CC_APPROVED);
-
-        logger.info("Статус заявки обновлен: {}", statement);
-
-        return new EmailMessage(statement.getStatementId(), Theme.CREATE_DOCUMENTS, statement.getClient().getEmail());
-    }
-
-    /**
-     * Генерирует PDF документ на основе информации из объекта Statement.
-     *
-     * @param statement объект Statement, содержащий информацию о клиенте и кредите
-     * @return массив байтов, представляющий сгенерированный PDF документ
-     * @throws RuntimeException если происходит ошибка при создании PDF документа
-     */
-    private byte[] generatePdfDocument(Statement statement) {
-        try {
-            Document document = new Document();
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, outputStream);
-
-            document.open();
-
-            Font boldFont = getFont(16, Font.BOLD, BaseColor.BLACK);
-            Font headerFont = getFont(12, Font.BOLD, BaseColor.BLACK);
-            Font regularFont = getFont(12, Font.NORMAL, BaseColor.BLACK);
-
-            // Информация о клиенте
-            Client client = statement.getClient();
-            String fullName = getFullName(client);
-            Passport passport = client.getPassport();
-
-            addParagraph(document, "Кредитный договор", boldFont);
-            addParagraph(document, " ", regularFont);
-            addParagraph(document, "Информация о клиенте:", headerFont);
-            addParagraph(document, "ФИО: " + fullName, regularFont);
-            addParagraph(document, "Дата рождения: " + client.getBirthDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")), regularFont);
-            addParagraph(document, "Email: " + client.getEmail(), regularFont);
-            addParagraph(document, "Паспортные данные:", headerFont);
-            addParagraph(document, "Серия: " + passport.getSeries(), regularFont);
-            addParagraph(document, "Номер: " + passport.getNumber(), regularFont);
-            if (passport.getIssueDate() != null) {
-                addParagraph(document, "Дата выдачи: " + passport.getIssueDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")), regularFont);
-            }
-            if (passport.getIssueBranch() != null) {
-                addParagraph(document, "Кем выдан: " + passport.getIssueBranch(), regularFont);
-            }
-            addParagraph(document, " ", regularFont);
-
-            // Информация о кредите
-            Credit credit = statement.getCredit();
-            addParagraph(document, "Информация о кредите:", headerFont);
-            addParagraph(document, "Сумма кредита: " + credit.getAmount(), regularFont);
-            addParagraph(document, "Срок кредита: " + credit.getTerm() + " месяцев", regularFont);
-            addParagraph(document, "Ежемесячный платеж: " + credit.getMonthlyPayment(), regularFont);
-            BigDecimal rate = statement.getCredit().getRate();
-            BigDecimal ratePercentage = rate.multiply(new BigDecimal(100));
-            addParagraph(document, "Процентная ставка: " + ratePercentage + "%", regularFont);
-            addParagraph(document, "ПСК: " + credit.getPsk(), regularFont);
-            addParagraph(document, " ", regularFont);
-
-            // График платежей
-            List<PaymentScheduleElement> paymentSchedule = SerializationUtil.deserializePaymentSchedule(credit.getPaymentSchedule(), objectMapper);
-            if (paymentSchedule != null && !paymentSchedule.isEmpty()) {
-                addParagraph(document, "График платежей:", headerFont);
-                for (PaymentScheduleElement payment : paymentSchedule) {
-                    addParagraph(document, "Номер платежа: " + payment.getNumber() +
-                            ", Дата: " + payment.getDate().format(DateTimeFormatter.ofPattern("dd.MM.yyyy")) +
-                            ", Сумма: " + payment.getTotalPayment() +
-                            ", Погашение процентов: " + payment.getInterestPayment() +
-                            ", Погашение основного долга: " + payment.getDebtPayment() +
-                            ", Остаток долга: " + payment.getRemainingDebt(), regularFont);
-                }
-            } else {
-                addParagraph(document, "График платежей отсутствует.", regularFont);
-            }
-            addParagraph(document, " ", regularFont);
-
-            // Дата создания заявки
-            LocalDate currentDate = LocalDate.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            String formattedDate = currentDate.format(formatter);
-            addParagraph(document, "Дата создания заявки: " + formattedDate, regularFont);
-
-            document.close();
-
-            return outputStream.toByteArray();
-        } catch (DocumentException e) {
-            logger.error("Ошибка при создании PDF документа: {}", e.getMessage());
-            throw new RuntimeException("Ошибка при создании PDF документа", e);
-        }
-    }
+        return transactionTemplate.execute(status -> {
+            Statement statement = getStatementById(id);
+            Credit credit = createAndSaveCredit(creditDto, paymentScheduleElements);
+            statement.setCredit(credit);
+            updateStatementStatus(statement, ApplicationStatus.CC_APPROVED, ChangeType.AUTOMATIC);
 
+            logger.info("Статус заявки обновлен: {}", statement);
 
-    private void addParagraph(Document document, String text, Font font) throws DocumentException {
-        Paragraph paragraph = new Paragraph(text, font);
-        document.add(paragraph);
-    }
-
-    private String getFullName(Client client) {
-        return client.getLastName() + " " + client.getFirstName() + " " + client.getMiddleName();
+            EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.CREATE_DOCUMENTS, statement.getClient().getEmail());
+            outboxPublisher.publish(KafkaProducerConfig.CREATE_DOCUMENTS_TOPIC, emailMessage);
+            return emailMessage;
+        });
     }
 
     /**
@@ -410,12 +357,7 @@ public class DealService {
      */
     private CreditDto sendScoringDataToCalculator(ScoringDataDto scoringData) {
         try {
-            CreditDto creditDto = webClient.post()
-                    .uri("/calc")
-                    .body(Mono.just(scoringData), ScoringDataDto.class)
-                    .retrieve()
-                    .bodyToMono(CreditDto.class)
-                    .block();
+            CreditDto creditDto = calculatorClient.calculateCredit(scoringData);
 
             logger.info("Получен ответ от МС Калькулятор: {}", creditDto);
             return creditDto;
@@ -445,40 +387,45 @@ public class DealService {
      * @return сохраненный кредит
      */
     private Credit createAndSaveCredit(CreditDto creditDto, List<PaymentScheduleElement> paymentScheduleElements) {
-        String paymentScheduleJson = SerializationUtil.serializePaymentSchedule(paymentScheduleElements, objectMapper);
-
         Credit credit = Credit.builder()
                 .amount(creditDto.getAmount())
                 .term(creditDto.getTerm())
                 .monthlyPayment(creditDto.getMonthlyPayment())
                 .rate(creditDto.getRate())
                 .psk(creditDto.getPsk())
-                .paymentSchedule(paymentScheduleJson)
+                .paymentSchedule(paymentScheduleStorage.jsonbValue(paymentScheduleElements))
                 .insuranceEnabled(creditDto.getIsInsuranceEnabled())
                 .salaryClient(creditDto.getIsSalaryClient())
                 .creditStatus(CreditStatus.CALCULATED)
                 .build();
         creditRepository.save(credit);
+        paymentScheduleStorage.saveRows(credit, paymentScheduleElements);
         logger.info("Кредит сохранен: {}", credit);
         return credit;
     }
 
     /**
-     * Отправляет документы для заявки с указанным идентификатором.
+     * Переводит заявку в статус PREPARE_DOCUMENTS перед генерацией документов.
      *
      * @param statementId идентификатор заявки
-     * @return объект Statement с информацией для отправки email
+     * @return заявка, загруженная вместе с клиентом, кредитом и графиком платежей
      */
     @Transactional
-    public EmailMessage sendDocuments(String statementId) {
+    public Statement prepareDocuments(String statementId) {
         Statement statement = getStatementById(UUID.fromString(statementId));
-        updateStatementStatus(statement, ApplicationStatus.PREPARE_DOCUMENTS);
-        byte[] pdfBytes = generatePdfDocument(statement);
-        return new EmailMessage(statement.getStatementId(), Theme.SEND_DOCUMENTS, statement.getClient().getEmail(), pdfBytes);
+        updateStatementStatus(statement, ApplicationStatus.PREPARE_DOCUMENTS, ChangeType.MANUAL);
+        Credit credit = statement.getCredit();
+        if (credit != null) {
+            // Документы генерируются вне транзакции, поэтому график загружается здесь
+            credit.setPaymentScheduleElements(paymentScheduleStorage.load(credit));
+        }
+        return statement;
     }
 
     /**
-     * Подписывает документы для заявки с указанным идентификатором.
+     * Подписывает документы для заявки с указанным идентификатором. Подписать можно только созданные документы,
+     * то есть заявку, которую можно перевести в статус DOCUMENT_SIGNED.
+     * Сообщение с кодом подтверждения сохраняется в outbox в той же транзакции.
      *
      * @param statementId идентификатор заявки
      * @return объект EmailMessage с информацией для отправки email
@@ -487,22 +434,25 @@ public class DealService {
     public EmailMessage signDocuments(String statementId) {
         logger.info("Подписание документов для заявки с ID: {}", statementId);
         Statement statement = getStatementById(UUID.fromString(statementId));
+        statusTransitions.check(statement, ApplicationStatus.DOCUMENT_SIGNED);
 
         String sesCode = SesCodeGenerator.generateSesCode();
         logger.debug("Сгенерирован SES код: {} для заявки с ID: {}", sesCode, statementId);
 
         statement.setSesCode(sesCode);
         statement.setSignDate(LocalDateTime.now());
-        statementRepository.save(statement);
+        saveStatement(statement, ApplicationStatus.DOCUMENT_SIGNED);
         logger.info("SES код сохранен в заявке с ID: {}", statementId);
 
         EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.SEND_SES, statement.getClient().getEmail());
         emailMessage.setText("Потвердите согласие на оформление кредита с помощью кода: " + sesCode);
+        outboxPublisher.publish(KafkaProducerConfig.SEND_SES_TOPIC, emailMessage);
         return emailMessage;
     }
 
     /**
      * Кодирует документы для заявки с указанным идентификатором.
+     * Сообщение о выдаче кредита сохраняется в outbox в той же транзакции.
      *
      * @param statementId идентификатор заявки
      * @param sesCode     код подтверждения
@@ -518,82 +468,186 @@ public class DealService {
         }
 
         logger.info("SES код верный, заявка с ID: {} подтверждена", statementId);
-        updateStatementStatus(statement, ApplicationStatus.DOCUMENT_SIGNED);
-        return new EmailMessage(statement.getStatementId(), Theme.CREDIT_ISSUED, statement.getClient().getEmail());
+        updateStatementStatus(statement, ApplicationStatus.DOCUMENT_SIGNED, ChangeType.MANUAL);
+        EmailMessage emailMessage = new EmailMessage(statement.getStatementId(), Theme.CREDIT_ISSUED, statement.getClient().getEmail());
+        outboxPublisher.publish(KafkaProducerConfig.CREDIT_ISSUED_TOPIC, emailMessage);
+        return emailMessage;
     }
 
     /**
-     * Обрабатывает успешную отправку сообщения в Kafka для документов.
+     * Переводит заявки в статус DOCUMENT_CREATED после отправки документов в Kafka.
      *
-     * @param statementId идентификатор заявки
+     * @param statementIds идентификаторы заявок
      */
-    public void handleKafkaDocumentSuccess(String statementId) {
-        Statement statement = getStatementById(UUID.fromString(statementId));
-        updateStatementStatus(statement, ApplicationStatus.DOCUMENT_CREATED);
+    @Transactional
+    public void handleKafkaDocumentSuccess(Collection<UUID> statementIds) {
+        updateStatementStatuses(statementIds, ApplicationStatus.DOCUMENT_CREATED, ChangeType.AUTOMATIC);
     }
 
     /**
-     * Обрабатывает ошибку при отправке сообщения в Kafka для документов.
+     * Переводит заявки в статус CREDIT_ISSUED, а их кредиты — в статус ISSUED после отправки сообщения
+     * о выдаче кредита в Kafka.
      *
-     * @param statementId идентификатор заявки
-     * @param ex          исключение
+     * @param statementIds идентификаторы заявок
      */
-    public void handleKafkaDocumentFailure(String statementId, Throwable ex) {
-        logger.error("Ошибка при отправке сообщения в Kafka для заявки с ID {}: {}", statementId, ex.getMessage());
+    @Transactional
+    public void handleKafkaCreditSuccess(Collection<UUID> statementIds) {
+        List<UUID> updated = updateStatementStatuses(statementIds, ApplicationStatus.CREDIT_ISSUED, ChangeType.AUTOMATIC);
+        if (!updated.isEmpty()) {
+            creditRepository.updateStatusByStatementIds(updated, CreditStatus.ISSUED);
+        }
     }
 
     /**
-     * Обрабатывает успешную отправку сообщения в Kafka для кредита.
+     * Переводит заявки в новый статус одним условным запросом: обновляются только заявки, из текущего статуса
+     * которых переход допустим. Для них одной пачкой добавляются записи в историю статусов, остальные пропускаются.
      *
-     * @param statementId идентификатор заявки
+     * @param statementIds идентификаторы заявок
+     * @param status       новый статус
+     * @param changeType   тип изменения
+     * @return идентификаторы обновленных заявок
      */
-    public void handleKafkaCreditSuccess(String statementId) {
-        Statement statement = getStatementById(UUID.fromString(statementId));
-        updateStatementStatus(statement, ApplicationStatus.CREDIT_ISSUED);
-        Credit credit = statement.getCredit();
-        updateCreditStatus(credit, CreditStatus.ISSUED);
+    private List<UUID> updateStatementStatuses(Collection<UUID> statementIds, ApplicationStatus status, ChangeType changeType) {
+        List<UUID> updatedIds = statementRepository.compareAndSetStatus(statementIds,
+                ApplicationStatus.sourcesOf(status).stream().map(Enum::name).toList(), status.name());
+        if (updatedIds.size() < statementIds.size()) {
+            statusTransitions.rejected(status, statementIds.size() - updatedIds.size());
+            logger.warn("Заявки не переведены в статус {}: не найдены или в недопустимом статусе: {}", status,
+                    statementIds.stream().filter(id -> !updatedIds.contains(id)).toList());
+        }
+        if (updatedIds.isEmpty()) {
+            return updatedIds;
+        }
+        statementRepository.evictFromCache(updatedIds);
+        statusTransitions.applied(status, updatedIds.size());
+        LocalDateTime time = LocalDateTime.now();
+        statusHistoryRepository.saveAll(updatedIds.stream()
+                .map(statementId -> StatusHistory.builder()
+                        .statementId(statementId)
+                        .status(status.name())
+                        .time(time)
+                        .changeType(changeType)
+                        .build())
+                .toList());
+        logger.info("Заявки переведены в статус {}: {}", status, updatedIds.size());
+        return updatedIds;
     }
 
     /**
-     * Обрабатывает ошибку при отправке сообщения в Kafka для кредита.
+     * Переводит заявку в новый статус и добавляет запись в историю статусов.
+     * Переход проверяется по графу статусов, а запись в БД выполняется с условием по версии заявки.
      *
-     * @param statementId идентификатор заявки
-     * @param ex          исключение
+     * @param statement  заявка
+     * @param status     новый статус
+     * @param changeType тип изменения
+     * @throws StatusTransitionException если переход недопустим или заявку параллельно изменил другой запрос
      */
-    public void handleKafkaCreditFailure(String statementId, Throwable ex) {
-        logger.error("Ошибка при отправке сообщения в Kafka для заявки с ID {}: {}", statementId, ex.getMessage());
+    private void updateStatementStatus(Statement statement, ApplicationStatus status, ChangeType changeType) {
+        statusTransitions.check(statement, status);
+        statement.setStatus(status);
+        saveStatement(statement, status);
+        statusTransitions.applied(status, 1);
+        addStatusHistory(statement, status, changeType);
     }
 
-
     /**
-     * Обновляет статус заявки.
+     * Записывает измененные поля заявки сразу, чтобы конфликт версий обнаружился здесь, а не при фиксации транзакции.
      *
      * @param statement заявка
-     * @param status    новый статус
+     * @param target    статус, в который переводится заявка
+     * @throws StatusTransitionException если заявку параллельно изменил другой запрос
      */
-    private void updateStatementStatus(Statement statement, ApplicationStatus status) {
-        statement.setStatus(status);
-        statementRepository.save(statement);
+    private void saveStatement(Statement statement, ApplicationStatus target) {
+        try {
+            statementRepository.saveAndFlush(statement);
+        } catch (OptimisticLockingFailureException e) {
+            throw statusTransitions.conflict(statement, target, e);
+        }
     }
 
     /**
-     * Обновляет статус кредита.
+     * Получает страницу админского списка заявок, от новых к старым.
      *
-     * @param credit       кредит для обновления
-     * @param creditStatus новый статус кредита
+     * @param status фильтр по статусу заявки, null — без фильтра
+     * @param from   первая дата периода создания, null — без ограничения
+     * @param to     последняя дата периода создания включительно, null — без ограничения
+     * @param cursor позиция из {@link StatementPageDto#getNextCursor()} предыдущей страницы, null — первая страница
+     * @param limit  размер страницы, null — {@value #DEFAULT_PAGE_SIZE}; не больше {@value #MAX_PAGE_SIZE}
+     * @return страница списка заявок
+     * @throws IllegalArgumentException если позиция или размер страницы некорректны
      */
-    private void updateCreditStatus(Credit credit, CreditStatus creditStatus) {
-        credit.setCreditStatus(creditStatus);
-        creditRepository.save(credit);
+    public StatementPageDto getStatementsPage(ApplicationStatus status, LocalDate from, LocalDate to,
+                                              String cursor, Integer limit) {
+        logger.info("Получен запрос на получение страницы заявок (админский метод): status={}, from={}, to={}, cursor={}, limit={}",
+                status, from, to, cursor, limit);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        StatementCursor after = cursor == null ? null : StatementCursor.decode(cursor);
+
+        // Лишняя запись показывает, есть ли следующая страница
+        List<StatementSummaryDto> items = statementRepository.findSummaries(status,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(),
+                after, pageSize + 1);
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            StatementSummaryDto last = items.get(pageSize - 1);
+            nextCursor = new StatementCursor(last.getCreationDate(), last.getStatementId()).encode();
+        }
+        return new StatementPageDto(items, nextCursor);
     }
 
     /**
-     * Получает список всех заявок.
+     * Получает историю статусов заявки в порядке смены статусов.
      *
-     * @return список всех заявок
+     * @param statementId идентификатор заявки
+     * @return записи истории статусов
+     * @throws IllegalArgumentException если заявка не найдена
      */
-    public List<Statement> getAllStatements() {
-        logger.info("Получен запрос на получение всех заявок (админский метод)");
-        return statementRepository.findAll();
+    public List<StatusHistory> getStatusHistory(UUID statementId) {
+        logger.info("Получен запрос на получение истории статусов заявки (админский метод): {}", statementId);
+        if (!statementRepository.existsById(statementId)) {
+            throw new IllegalArgumentException("Заявка с ID " + statementId + " не найдена");
+        }
+        return statusHistoryRepository.findByStatementIdOrderByTimeAsc(statementId);
+    }
+
+    /**
+     * Считает переходы заявок в каждый статус по дням периода.
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return число переходов по дням и статусам; дни без переходов не возвращаются
+     * @throws IllegalArgumentException если период задан некорректно
+     */
+    public List<StatusCountDto> getStatusCounts(LocalDate from, LocalDate to) {
+        logger.info("Получен запрос на подсчет переходов в статусы (админский метод): from={}, to={}", from, to);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало периода " + from + " позже его конца " + to);
+        }
+        return statusHistoryRepository.countByDayAndStatus(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Возвращает платежи всех кредитов с датой платежа в периоде, например платежи следующего месяца.
+     * Учитываются только кредиты, график которых хранится в таблице payment_schedule_element.
+     *
+     * @param from первая дата периода
+     * @param to   последняя дата периода включительно
+     * @return платежи, упорядоченные по дате, кредиту и номеру платежа
+     * @throws IllegalArgumentException если период задан некорректно или длиннее {@link #MAX_PAYMENTS_DUE_PERIOD_DAYS} дней
+     */
+    public List<ScheduledPaymentDto> getPaymentsDue(LocalDate from, LocalDate to) {
+        logger.info("Получен запрос платежей по графику (админский метод): from={}, to={}", from, to);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало периода " + from + " позже его конца " + to);
+        }
+        if (from.plusDays(MAX_PAYMENTS_DUE_PERIOD_DAYS).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Период длиннее " + MAX_PAYMENTS_DUE_PERIOD_DAYS + " дней: " + from + " - " + to);
+        }
+        return paymentScheduleElementRepository.findDueBetween(from, to);
     }
 }
@@ -0,0 +1,82 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.deal.repository.PaymentScheduleElementRepository;
+import neoflex.deal.util.SerializationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Хранение графика платежей кредита.
+ * <p>
+ * Способ хранения задается свойством {@code payment-schedule.storage}: {@code jsonb} (по умолчанию) — весь график
+ * одной строкой в колонке {@code credit.payment_schedule}, {@code table} — строками таблицы payment_schedule_element
+ * по {@code credit_id}. Строки вставляются пачками JDBC ({@code hibernate.jdbc.batch_size}), а по таблице можно
+ * выбирать платежи всех кредитов за период. График читается оттуда, куда он был записан, поэтому смена способа
+ * хранения не требует переноса существующих кредитов.
+ */
+@Component
+public class PaymentScheduleStorage {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentScheduleStorage.class);
+
+    private final PaymentScheduleElementRepository paymentScheduleElementRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean table;
+
+    public PaymentScheduleStorage(PaymentScheduleElementRepository paymentScheduleElementRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${payment-schedule.storage:jsonb}") String storage) {
+        this.paymentScheduleElementRepository = paymentScheduleElementRepository;
+        this.objectMapper = objectMapper;
+        this.table = switch (storage) {
+            case "jsonb" -> false;
+            case "table" -> true;
+            default -> throw new IllegalArgumentException("Неизвестный способ хранения графика платежей: " + storage);
+        };
+    }
+
+    /**
+     * Возвращает значение колонки {@code credit.payment_schedule} для нового кредита.
+     *
+     * @param paymentScheduleElements элементы графика платежей
+     * @return JSON строка графика или null, если график хранится в таблице
+     */
+    public String jsonbValue(List<PaymentScheduleElement> paymentScheduleElements) {
+        return table ? null : SerializationUtil.serializePaymentSchedule(paymentScheduleElements, objectMapper);
+    }
+
+    /**
+     * Сохраняет строки графика платежей сохраненного кредита, если график хранится в таблице.
+     *
+     * @param credit                  кредит с идентификатором
+     * @param paymentScheduleElements элементы графика платежей
+     */
+    public void saveRows(Credit credit, List<PaymentScheduleElement> paymentScheduleElements) {
+        if (!table) {
+            return;
+        }
+        paymentScheduleElements.forEach(element -> element.setCreditId(credit.getCreditId()));
+        paymentScheduleElementRepository.saveAll(paymentScheduleElements);
+        logger.debug("График платежей кредита {} сохранен в таблицу: {} платежей",
+                credit.getCreditId(), paymentScheduleElements.size());
+    }
+
+    /**
+     * Загружает график платежей кредита из колонки jsonb или, если она пуста, из таблицы.
+     *
+     * @param credit кредит
+     * @return элементы графика платежей в порядке номеров
+     */
+    public List<PaymentScheduleElement> load(Credit credit) {
+        if (credit.getPaymentSchedule() != null) {
+            return SerializationUtil.deserializePaymentSchedule(credit.getPaymentSchedule(), objectMapper);
+        }
+        return paymentScheduleElementRepository.findByCreditIdOrderByNumberAsc(credit.getCreditId());
+    }
+}
@@ -0,0 +1,323 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.client.CalculatorClient;
+import neoflex.deal.config.KafkaProducerConfig;
+import neoflex.deal.entity.*;
+import neoflex.deal.mapper.PaymentScheduleElementMapper;
+import neoflex.deal.mapper.ScoringDataMapper;
+import neoflex.deal.repository.ReactiveClientRepository;
+import neoflex.deal.repository.ReactiveCreditRepository;
+import neoflex.deal.repository.ReactiveOutboxEventRepository;
+import neoflex.deal.repository.ReactiveStatementRepository;
+import neoflex.deal.repository.ReactiveStatementRepository.Column;
+import neoflex.deal.repository.ReactiveStatusHistoryRepository;
+import neoflex.deal.util.SerializationUtil;
+import neoflex.dto.*;
+import neoflex.enums.ApplicationStatus;
+import neoflex.enums.ChangeType;
+import neoflex.enums.CreditStatus;
+import neoflex.enums.Theme;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неблокирующий вариант {@link DealService} для профиля {@code reactive}: оформление заявки, выбор предложения
+ * и полный расчет кредита выполняются на R2DBC и неблокирующем клиенте МС Калькулятор.
+ * <p>
+ * Бизнес-правила совпадают с {@link DealService}.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveDealService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDealService.class);
+    private final ReactiveClientRepository clientRepository;
+    private final ReactiveStatementRepository statementRepository;
+    private final ReactiveCreditRepository creditRepository;
+    private final ReactiveStatusHistoryRepository statusHistoryRepository;
+    private final ReactiveOutboxEventRepository outboxEventRepository;
+    private final StatusTransitions statusTransitions;
+    private final CalculatorClient calculatorClient;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Рассчитывает возможные условия кредита на основе данных заявки.
+     * Расчет в МС Калькулятор и сохранение клиента и заявки выполняются параллельно.
+     * Если расчет завершился ошибкой, сохраненные клиент и заявка удаляются.
+     *
+     * @param request объект с данными заявки на кредит
+     * @return список предложений по кредиту
+     */
+    public Mono<List<LoanOfferDto>> calculateLoanOffers(LoanStatementRequestDto request) {
+        return Mono.fromRunnable(() -> validateRequest(request))
+                .then(Mono.defer(() -> Mono.zip(
+                        fetchLoanOffersFromCalculator(request).materialize(), saveClientAndStatement(request))))
+                .flatMap(result -> {
+                    Signal<List<LoanOfferDto>> loanOffers = result.getT1();
+                    Statement statement = result.getT2();
+                    if (loanOffers.hasError()) {
+                        return deleteStatement(statement, loanOffers.getThrowable());
+                    }
+                    List<LoanOfferDto> offers = loanOffers.get();
+                    offers.forEach(offer -> offer.setStatementId(statement.getStatementId()));
+                    logger.info("Предложения по кредиту рассчитаны и связаны с заявкой: {}", offers);
+                    return Mono.just(offers);
+                });
+    }
+
+    private void validateRequest(LoanStatementRequestDto request) {
+        Set<ConstraintViolation<LoanStatementRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            logger.error("Ошибка валидации данных заявки: {}", violations);
+            throw new IllegalArgumentException("Invalid loan statement request: " + violations);
+        }
+    }
+
+    /**
+     * Сохраняет клиента и заявку в одной транзакции.
+     *
+     * @param request запрос на расчет условий кредита
+     * @return сохраненная заявка
+     */
+    private Mono<Statement> saveClientAndStatement(LoanStatementRequestDto request) {
+        Client client = Client.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .middleName(request.getMiddleName())
+                .birthDate(request.getBirthDate())
+                .email(request.getEmail())
+                .gender(request.getGender())
+                .maritalStatus(request.getMaritalStatus())
+                .dependentAmount(request.getDependentAmount())
+                .passport(Passport.builder()
+                        .series(request.getPassportSeries())
+                        .number(request.getPassportNumber())
+                        .build())
+                .employment(Employment.builder().build())
+                .build();
+        return clientRepository.insert(client)
+                .flatMap(savedClient -> statementRepository.insert(Statement.builder()
+                        .client(savedClient)
+                        .status(ApplicationStatus.PREAPPROVAL)
+                        .creationDate(LocalDateTime.now())
+                        .build()))
+                .flatMap(statement -> addStatusHistory(statement, ChangeType.AUTOMATIC))
+                .doOnNext(statement -> logger.info("Заявка сохранена: {}", statement))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Удаляет заявку и клиента, для которых не удалось рассчитать предложения, и возвращает исходную ошибку.
+     *
+     * @param statement заявка
+     * @param cause     ошибка расчета предложений
+     * @return ошибка расчета предложений
+     */
+    private <T> Mono<T> deleteStatement(Statement statement, Throwable cause) {
+        return statementRepository.deleteById(statement.getStatementId())
+                .then(clientRepository.deleteById(statement.getClient().getClientId()))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> logger.info("Заявка {} удалена после ошибки расчета предложений",
+                        statement.getStatementId()))
+                .onErrorResume(deleteException -> {
+                    logger.error("Не удалось удалить заявку {} после ошибки расчета: {}",
+                            statement.getStatementId(), deleteException.getMessage());
+                    cause.addSuppressed(deleteException);
+                    return Mono.empty();
+                })
+                .then(Mono.error(cause));
+    }
+
+    /**
+     * Получает предложения по кредиту от микросервиса Калькулятор.
+     *
+     * @param request запрос на расчет условий кредита
+     * @return список предложений по кредиту
+     */
+    private Mono<List<LoanOfferDto>> fetchLoanOffersFromCalculator(LoanStatementRequestDto request) {
+        return Mono.defer(() -> calculatorClient.calculateLoanOffersReactive(request))
+                .doOnNext(loanOffers -> logger.info("Получены предложения по кредиту от сервиса Калькулятор: {}", loanOffers))
+                .onErrorMap(e -> {
+                    logger.error("Ошибка при вызове микросервиса Калькулятор: {}", e.getMessage());
+                    return new RuntimeException("Ошибка при получении предложений по кредиту", e);
+                });
+    }
+
+    /**
+     * Выбирает кредитное предложение и сохраняет его условия в кредит заявки. Сообщение о необходимости
+     * завершить регистрацию сохраняется в outbox в той же транзакции.
+     *
+     * @param offer объект с данными выбранного кредитного предложения
+     * @return сообщение о необходимости завершить регистрацию
+     */
+    public Mono<EmailMessage> selectLoanOffer(LoanOfferDto offer) {
+        logger.info("Выбор кредитного предложения: {}", offer);
+        return findStatement(offer.getStatementId())
+                .flatMap(statement -> {
+                    Credit credit = statement.getCredit() == null ? new Credit() : statement.getCredit();
+                    credit.setAmount(offer.getRequestedAmount());
+                    credit.setTerm(offer.getTerm());
+                    credit.setMonthlyPayment(offer.getMonthlyPayment());
+                    credit.setRate(offer.getRate());
+                    credit.setInsuranceEnabled(offer.isInsuranceEnabled());
+                    credit.setSalaryClient(offer.isSalaryClient());
+                    statusTransitions.check(statement, ApplicationStatus.APPROVED);
+                    return creditRepository.save(credit).flatMap(savedCredit -> {
+                        statement.setCredit(savedCredit);
+                        statement.setAppliedOffer(SerializationUtil.serializeLoanOffer(offer, objectMapper));
+                        return updateStatementStatus(statement, ApplicationStatus.APPROVED, ChangeType.MANUAL,
+                                EnumSet.of(Column.CREDIT_ID, Column.APPLIED_OFFER));
+                    });
+                })
+                .doOnNext(statement -> logger.info("Кредитное предложение успешно выбрано: {}", statement))
+                .map(statement -> new EmailMessage(statement.getStatementId(), Theme.FINISH_REGISTRATION,
+                        statement.getClient().getEmail()))
+                .flatMap(emailMessage -> publish(KafkaProducerConfig.FINISH_REGISTRATION_TOPIC, emailMessage))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Завершает регистрацию и выполняет полный подсчет кредита. Результат расчета сохраняется
+     * отдельной транзакцией по заново прочитанной заявке, в ней же сообщение сохраняется в outbox.
+     *
+     * @param statementId идентификатор заявки
+     * @param request     объект с данными для завершения регистрации
+     * @return сообщение о создании документов или об отказе
+     */
+    public Mono<EmailMessage> finishRegistration(String statementId, FinishRegistrationRequestDto request) {
+        logger.info("Завершение регистрации и полный подсчет кредита для заявки с ID: {}", statementId);
+        return Mono.fromCallable(() -> UUID.fromString(statementId))
+                .flatMap(id -> findStatement(id)
+                        .doOnNext(statement -> statusTransitions.check(statement, ApplicationStatus.CC_APPROVED))
+                        .map(statement -> ScoringDataMapper.toScoringDataDto(statement, request))
+                        .doOnNext(scoringData -> logger.info("Создан запрос для МС Калькулятор: {}", scoringData))
+                        .flatMap(scoringData -> sendScoringDataToCalculator(scoringData).materialize())
+                        .flatMap(credit -> credit.hasError() ? denyStatement(id) : approveStatement(id, credit.get())));
+    }
+
+    /**
+     * Отправляет данные для скоринга в микросервис Калькулятор.
+     *
+     * @param scoringData данные для скоринга
+     * @return данные кредита
+     */
+    private Mono<CreditDto> sendScoringDataToCalculator(ScoringDataDto scoringData) {
+        return Mono.defer(() -> calculatorClient.calculateCreditReactive(scoringData))
+                .doOnNext(creditDto -> logger.info("Получен ответ от МС Калькулятор: {}", creditDto))
+                .onErrorMap(e -> {
+                    logger.error("Ошибка при получении данных кредита: {}", e.getMessage());
+                    return new RuntimeException("Ошибка при получении данных кредита", e);
+                });
+    }
+
+    private Mono<EmailMessage> denyStatement(UUID statementId) {
+        return findStatement(statementId)
+                .flatMap(statement -> updateStatementStatus(statement, ApplicationStatus.CC_DENIED, ChangeType.AUTOMATIC,
+                        EnumSet.noneOf(Column.class)))
+                .map(statement -> new EmailMessage(statement.getStatementId(), Theme.STATEMENT_DENIED,
+                        statement.getClient().getEmail()))
+                .flatMap(emailMessage -> publish(KafkaProducerConfig.CREATE_DOCUMENTS_TOPIC, emailMessage))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<EmailMessage> approveStatement(UUID statementId, CreditDto creditDto) {
+        List<PaymentScheduleElement> paymentSchedule = PaymentScheduleElementMapper.toEntities(creditDto.getPaymentSchedule());
+        Credit credit = Credit.builder()
+                .amount(creditDto.getAmount())
+                .term(creditDto.getTerm())
+                .monthlyPayment(creditDto.getMonthlyPayment())
+                .rate(creditDto.getRate())
+                .psk(creditDto.getPsk())
+                .paymentSchedule(SerializationUtil.serializePaymentSchedule(paymentSchedule, objectMapper))
+                .insuranceEnabled(creditDto.getIsInsuranceEnabled())
+                .salaryClient(creditDto.getIsSalaryClient())
+                .creditStatus(CreditStatus.CALCULATED)
+                .build();
+        return findStatement(statementId)
+                .doOnNext(statement -> statusTransitions.check(statement, ApplicationStatus.CC_APPROVED))
+                .flatMap(statement -> creditRepository.save(credit).flatMap(savedCredit -> {
+                    statement.setCredit(savedCredit);
+                    return updateStatementStatus(statement, ApplicationStatus.CC_APPROVED, ChangeType.AUTOMATIC,
+                            EnumSet.of(Column.CREDIT_ID));
+                }))
+                .doOnNext(statement -> logger.info("Статус заявки обновлен: {}", statement))
+                .map(statement -> new EmailMessage(statement.getStatementId(), Theme.CREATE_DOCUMENTS,
+                        statement.getClient().getEmail()))
+                .flatMap(emailMessage -> publish(KafkaProducerConfig.CREATE_DOCUMENTS_TOPIC, emailMessage))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Сохраняет сообщение в outbox в текущей транзакции.
+     *
+     * @param topic        топик Kafka
+     * @param emailMessage сообщение
+     * @return то же сообщение
+     */
+    private Mono<EmailMessage> publish(String topic, EmailMessage emailMessage) {
+        return outboxEventRepository.insert(topic, emailMessage).thenReturn(emailMessage);
+    }
+
+    private Mono<Statement> findStatement(UUID statementId) {
+        return statementRepository.findById(statementId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Заявка с ID " + statementId + " не найдена")));
+    }
+
+    /**
+     * Переводит заявку в новый статус и добавляет запись в историю статусов. Переход проверяется по графу
+     * статусов, а запись в БД выполняется с условием по версии заявки.
+     *
+     * @param statement  заявка
+     * @param status     новый статус
+     * @param changeType тип изменения
+     * @param changed    другие колонки заявки, измененные вместе со статусом
+     * @return та же заявка или {@link StatusTransitionException}, если переход недопустим или заявку
+     * параллельно изменил другой запрос
+     */
+    private Mono<Statement> updateStatementStatus(Statement statement, ApplicationStatus status, ChangeType changeType,
+                                                  Set<Column> changed) {
+        return Mono.fromRunnable(() -> statusTransitions.check(statement, status))
+                .then(Mono.defer(() -> {
+                    statement.setStatus(status);
+                    return statementRepository.update(statement, changed);
+                }))
+                .onErrorMap(OptimisticLockingFailureException.class, e -> statusTransitions.conflict(statement, status, e))
+                .doOnNext(updated -> statusTransitions.applied(status, 1))
+                .flatMap(updated -> addStatusHistory(updated, changeType));
+    }
+
+    /**
+     * Добавляет в историю статусов запись о текущем статусе заявки.
+     *
+     * @param statement  заявка с новым статусом
+     * @param changeType тип изменения
+     * @return та же заявка
+     */
+    private Mono<Statement> addStatusHistory(Statement statement, ChangeType changeType) {
+        return statusHistoryRepository.insert(StatusHistory.builder()
+                        .statementId(statement.getStatementId())
+                        .status(statement.getStatus().name())
+                        .time(LocalDateTime.now())
+                        .changeType(changeType)
+                        .build())
+                .thenReturn(statement);
+    }
+}
@@ -0,0 +1,140 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import neoflex.deal.repository.StatementRepository;
+import neoflex.dto.StatementSummaryDto;
+import neoflex.enums.ApplicationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки заявок для аналитики в формате NDJSON: одна заявка — одна строка JSON.
+ * <p>
+ * Заявки читаются курсором БД и пишутся в поток ответа по мере чтения, поэтому объем памяти не зависит
+ * от размера таблицы. Чтобы выгрузка не мешала обработке заявок, число одновременных выгрузок ограничено,
+ * а скорость чтения — не выше {@code admin.export.max-rows-per-second} строк в секунду.
+ */
+@Service
+public class StatementExportService {
+    private static final Logger logger = LoggerFactory.getLogger(StatementExportService.class);
+
+    private final StatementRepository statementRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter summaryWriter;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Semaphore permits;
+    private final int fetchSize;
+    private final int maxRowsPerSecond;
+
+    public StatementExportService(StatementRepository statementRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${admin.export.max-concurrent:1}") int maxConcurrent,
+                                  @Value("${admin.export.fetch-size:500}") int fetchSize,
+                                  @Value("${admin.export.max-rows-per-second:5000}") int maxRowsPerSecond) {
+        this.statementRepository = statementRepository;
+        this.objectMapper = objectMapper;
+        // Поток сбрасывается один раз на выборку курсора, а не после каждой строки
+        this.summaryWriter = objectMapper.writerFor(StatementSummaryDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Курсор PostgreSQL с размером выборки работает только внутри транзакции
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.permits = new Semaphore(maxConcurrent);
+        this.fetchSize = fetchSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    /**
+     * Выгружает заявки, подходящие под фильтры, в поток. Поток не закрывается.
+     *
+     * @param status фильтр по статусу заявки, null — без фильтра
+     * @param from   первая дата периода создания, null — без ограничения
+     * @param to     последняя дата периода создания включительно, null — без ограничения
+     * @param out    поток для записи NDJSON
+     * @return число выгруженных заявок
+     * @throws RejectedExecutionException если уже выполняется максимальное число выгрузок; в поток при этом
+     *                                    ничего не записывается
+     * @throws IOException                если запись в поток не удалась
+     */
+    public long export(ApplicationStatus status, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Достигнуто максимальное число одновременных выгрузок заявок");
+        }
+        long start = System.nanoTime();
+        try {
+            Long rows = readOnlyTransactionTemplate.execute(tx -> {
+                try (Stream<StatementSummaryDto> summaries = statementRepository.streamSummaries(status,
+                        from == null ? null : from.atStartOfDay(),
+                        to == null ? null : to.plusDays(1).atStartOfDay(),
+                        fetchSize)) {
+                    return write(summaries.iterator(), out, start);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Выгружено заявок: {} за {} мс", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return rows == null ? 0 : rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private long write(Iterator<StatementSummaryDto> summaries, OutputStream out, long start) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Строки разделяются переводом строки, а не разделителем Jackson по умолчанию
+        generator.setRootValueSeparator(null);
+        long rows = 0;
+        while (summaries.hasNext()) {
+            summaryWriter.writeValue(generator, summaries.next());
+            generator.writeRaw('\n');
+            rows++;
+            if (rows % fetchSize == 0) {
+                generator.flush();
+                throttle(rows, start);
+            }
+        }
+        generator.close();
+        return rows;
+    }
+
+    /**
+     * Приостанавливает выгрузку, если она идет быстрее {@code maxRowsPerSecond}.
+     */
+    private void throttle(long rows, long start) throws InterruptedIOException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - start);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Выгрузка заявок прервана");
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package neoflex.deal.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение при недопустимом переходе статуса заявки или при параллельном изменении заявки.
+ * Контроллеры отвечают на него кодом 409.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StatusTransitionException extends IllegalStateException {
+
+    public StatusTransitionException(String message) {
+        super(message);
+    }
+
+    public StatusTransitionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,83 @@
+package neoflex.deal.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import neoflex.deal.entity.Statement;
+import neoflex.enums.ApplicationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Проверка переходов статуса заявки по {@link ApplicationStatus#canTransitionTo(ApplicationStatus)} и их метрики.
+ * <p>
+ * Метрика {@code deal.statement.transitions} с тегами {@code to} — новый статус и {@code outcome}:
+ * {@code applied} — переход выполнен, {@code rejected} — переход недопустим из текущего статуса,
+ * {@code conflict} — заявку параллельно изменил другой запрос.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatusTransitions {
+    private static final Logger logger = LoggerFactory.getLogger(StatusTransitions.class);
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Проверяет, что заявку можно перевести в новый статус.
+     *
+     * @param statement заявка
+     * @param target    новый статус
+     * @throws StatusTransitionException если переход недопустим
+     */
+    public void check(Statement statement, ApplicationStatus target) {
+        if (statement.getStatus() == null || !statement.getStatus().canTransitionTo(target)) {
+            rejected(target, 1);
+            logger.warn("Недопустимый переход заявки с ID {} из статуса {} в {}",
+                    statement.getStatementId(), statement.getStatus(), target);
+            throw new StatusTransitionException("Заявку в статусе " + statement.getStatus()
+                    + " нельзя перевести в статус " + target);
+        }
+    }
+
+    /**
+     * Учитывает выполненные переходы.
+     *
+     * @param target новый статус
+     * @param count  число заявок
+     */
+    public void applied(ApplicationStatus target, int count) {
+        count(target, "applied", count);
+    }
+
+    /**
+     * Учитывает отклоненные переходы.
+     *
+     * @param target новый статус
+     * @param count  число заявок
+     */
+    public void rejected(ApplicationStatus target, int count) {
+        count(target, "rejected", count);
+    }
+
+    /**
+     * Учитывает переход, не выполненный из-за параллельного изменения заявки, и создает исключение для него.
+     *
+     * @param statement заявка
+     * @param target    новый статус
+     * @param cause     исходное исключение
+     * @return исключение для выброса
+     */
+    public StatusTransitionException conflict(Statement statement, ApplicationStatus target, Throwable cause) {
+        count(target, "conflict", 1);
+        logger.warn("Заявка с ID {} изменена параллельно, переход в статус {} не выполнен",
+                statement.getStatementId(), target);
+        return new StatusTransitionException("Заявка с ID " + statement.getStatementId()
+                + " изменена параллельно, повторите запрос", cause);
+    }
+
+    private void count(ApplicationStatus target, String outcome, int count) {
+        if (count > 0) {
+            meterRegistry.counter("deal.statement.transitions", "to", target.name(), "outcome", outcome).increment(count);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package neoflex.deal.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CaffeineRegionFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CaffeineRegionFactory regionFactory = new CaffeineRegionFactory(2, Duration.ofMinutes(10), meterRegistry);
+
+    @Test
+    void testStorageAccessRecordsHitsAndMisses() {
+        StorageAccess storage = regionFactory.createTimestampsRegionStorageAccess("statement", null);
+
+        storage.putIntoCache("key", "value", null);
+
+        assertEquals("value", storage.getFromCache("key", null));
+        assertNull(storage.getFromCache("other", null));
+        assertTrue(storage.contains("key"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "statement", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "statement", "result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testStorageAccessEvictsData() {
+        StorageAccess storage = regionFactory.createTimestampsRegionStorageAccess("client", null);
+        storage.putIntoCache("first", 1, null);
+        storage.putIntoCache("second", 2, null);
+
+        storage.evictData("first");
+        assertFalse(storage.contains("first"));
+        assertTrue(storage.contains("second"));
+
+        storage.evictData();
+        assertFalse(storage.contains("second"));
+    }
+
+    @Test
+    void testRegionSizeIsBounded() throws InterruptedException {
+        StorageAccess storage = regionFactory.createTimestampsRegionStorageAccess("credit", null);
+
+        for (int i = 0; i < 100; i++) {
+            storage.putIntoCache(i, i, null);
+        }
+
+        // Caffeine вытесняет записи асинхронно
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("cache.size").tags("cache", "credit").gauge().value() > 2
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2.0, meterRegistry.get("cache.size").tags("cache", "credit").gauge().value());
+        assertEquals(98.0, meterRegistry.get("cache.evictions").tags("cache", "credit").functionCounter().count());
+    }
+}
@@ -0,0 +1,73 @@
+package neoflex.deal.client;
+
+import neoflex.calculator.engine.CompoundFactorCache;
+import neoflex.calculator.engine.MoneyEngine;
+import neoflex.calculator.scoring.ScoringRuleEngine;
+import neoflex.calculator.service.CalculatorService;
+import neoflex.dto.*;
+import neoflex.enums.EmploymentPosition;
+import neoflex.enums.EmploymentStatus;
+import neoflex.enums.Gender;
+import neoflex.enums.MaritalStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddedCalculatorClientTest {
+
+    private EmbeddedCalculatorClient calculatorClient;
+
+    @BeforeEach
+    void setUp() {
+        CalculatorService calculatorService = new CalculatorService(
+                MoneyEngine.of("big-decimal", new CompoundFactorCache(16)),
+                new ScoringRuleEngine(new DefaultResourceLoader(), "classpath:scoring-rules.yml"));
+        ReflectionTestUtils.setField(calculatorService, "baseInterestRate", new BigDecimal("0.10"));
+        calculatorClient = new EmbeddedCalculatorClient(calculatorService);
+    }
+
+    @Test
+    void testCalculateLoanOffers() {
+        LoanStatementRequestDto request = new LoanStatementRequestDto();
+        request.setAmount(BigDecimal.valueOf(500000));
+        request.setTerm(24);
+        request.setBirthDate(LocalDate.now().minusYears(30));
+
+        List<LoanOfferDto> offers = calculatorClient.calculateLoanOffers(request);
+
+        assertEquals(4, offers.size());
+    }
+
+    @Test
+    void testCalculateCreditDoesNotModifyScoringData() {
+        EmploymentDto employment = new EmploymentDto();
+        employment.setEmploymentStatus(EmploymentStatus.EMPLOYED);
+        employment.setSalary(BigDecimal.valueOf(600000));
+        employment.setPosition(EmploymentPosition.WORKER);
+        employment.setWorkExperienceTotal(20);
+        employment.setWorkExperienceCurrent(20);
+
+        ScoringDataDto scoringData = new ScoringDataDto();
+        scoringData.setAmount(BigDecimal.valueOf(100000));
+        scoringData.setTerm(12);
+        scoringData.setGender(Gender.MALE);
+        scoringData.setBirthdate(LocalDate.now().minusYears(30));
+        scoringData.setMaritalStatus(MaritalStatus.SINGLE);
+        scoringData.setEmployment(employment);
+        scoringData.setIsInsuranceEnabled(true);
+        scoringData.setIsSalaryClient(false);
+
+        CreditDto credit = calculatorClient.calculateCredit(scoringData);
+
+        assertEquals(BigDecimal.valueOf(100000), scoringData.getAmount());
+        assertTrue(credit.getAmount().compareTo(scoringData.getAmount()) > 0);
+        assertEquals(12, credit.getPaymentSchedule().size());
+    }
+}
@@ -0,0 +1,111 @@
+package neoflex.deal.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import neoflex.deal.config.WebClientConfig;
+import neoflex.dto.CreditDto;
+import neoflex.dto.LoanOfferDto;
+import neoflex.dto.LoanStatementRequestDto;
+import neoflex.dto.PaymentScheduleElementDto;
+import neoflex.dto.ScoringDataDto;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteCalculatorClientTest {
+
+    private MockWebServer mockWebServer;
+    private WebClient webClient;
+    private final ObjectMapper smileMapper = new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        WebClientConfig webClientConfig = new WebClientConfig();
+        ReflectionTestUtils.setField(webClientConfig, "calculatorServiceUrl", mockWebServer.url("/calculator").toString());
+        webClient = webClientConfig.webClient(new Jackson2ObjectMapperBuilder());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testCalculateLoanOffersSmile() throws Exception {
+        LoanOfferDto offer = LoanOfferDto.builder()
+                .statementId(UUID.randomUUID())
+                .requestedAmount(new BigDecimal("100000"))
+                .totalAmount(new BigDecimal("105000.00"))
+                .term(12)
+                .monthlyPayment(new BigDecimal("8750.00"))
+                .rate(new BigDecimal("0.10"))
+                .isInsuranceEnabled(false)
+                .isSalaryClient(false)
+                .build();
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, WebClientConfig.APPLICATION_SMILE.toString())
+                .setBody(new Buffer().write(smileMapper.writeValueAsBytes(List.of(offer)))));
+
+        List<LoanOfferDto> offers = new RemoteCalculatorClient(webClient, "smile")
+                .calculateLoanOffers(new LoanStatementRequestDto());
+
+        assertEquals(List.of(offer), offers);
+        RecordedRequest recordedRequest = mockWebServer.takeRequest();
+        assertEquals("/calculator/offers", recordedRequest.getPath());
+        assertEquals(WebClientConfig.APPLICATION_SMILE.toString(), recordedRequest.getHeader(HttpHeaders.CONTENT_TYPE));
+        assertEquals(WebClientConfig.APPLICATION_SMILE.toString(), recordedRequest.getHeader(HttpHeaders.ACCEPT));
+        smileMapper.readValue(recordedRequest.getBody().readByteArray(), LoanStatementRequestDto.class);
+    }
+
+    @Test
+    void testCalculateCreditSmile() throws Exception {
+        CreditDto credit = CreditDto.builder()
+                .amount(new BigDecimal("100000"))
+                .term(1)
+                .monthlyPayment(new BigDecimal("100833.33"))
+                .rate(new BigDecimal("0.10"))
+                .psk(new BigDecimal("100833.33"))
+                .isInsuranceEnabled(false)
+                .isSalaryClient(false)
+                .paymentSchedule(List.of(PaymentScheduleElementDto.builder()
+                        .number(1)
+                        .date(LocalDate.of(2025, 1, 1))
+                        .totalPayment(new BigDecimal("100833.33"))
+                        .interestPayment(new BigDecimal("833.33"))
+                        .debtPayment(new BigDecimal("100000.00"))
+                        .remainingDebt(new BigDecimal("0.00"))
+                        .build()))
+                .build();
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, WebClientConfig.APPLICATION_SMILE.toString())
+                .setBody(new Buffer().write(smileMapper.writeValueAsBytes(credit))));
+
+        CreditDto result = new RemoteCalculatorClient(webClient, "smile").calculateCredit(new ScoringDataDto());
+
+        assertEquals(credit, result);
+        assertEquals("/calculator/calc", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    void testUnknownWireFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new RemoteCalculatorClient(webClient, "xml"));
+    }
+}
@@ -7,7 +7,12 @@ import neoflex.enums.EmploymentPosition;
 import neoflex.enums.EmploymentStatus;
 import neoflex.enums.Gender;
 import neoflex.enums.MaritalStatus;
+import neoflex.deal.document.DocumentRenderPipeline;
+import neoflex.deal.entity.Statement;
 import neoflex.deal.service.DealService;
+import neoflex.deal.service.StatusTransitionException;
+import neoflex.deal.service.StatementExportService;
+import neoflex.enums.ApplicationStatus;
 import neoflex.enums.Theme;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,22 +21,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +54,10 @@ public class DealControllerTest {
     private DealService dealService;
 
     @Mock
-    private KafkaTemplate<String, EmailMessage> kafkaTemplate;
+    private DocumentRenderPipeline documentRenderPipeline;
+
+    @Mock
+    private StatementExportService statementExportService;
 
     @InjectMocks
     private DealController dealController;
@@ -52,7 +68,6 @@ public class DealControllerTest {
     private LoanOfferDto loanOfferDto;
     private FinishRegistrationRequestDto finishRegistrationRequestDto;
     private EmailMessage emailMessage;
-    private EmailMessage emailMessageWithPdf;
 
     private ObjectMapper objectMapper;
 
@@ -111,14 +126,6 @@ public class DealControllerTest {
                 .theme(Theme.FINISH_REGISTRATION)
                 .text("Test Message")
                 .build();
-
-        byte[] pdfBytes = "Test PDF Content".getBytes();
-        emailMessageWithPdf = EmailMessage.builder()
-                .statementId(UUID.randomUUID())
-                .theme(Theme.SEND_DOCUMENTS)
-                .address("test@example.com")
-                .pdfDocumentBytes(pdfBytes)
-                .build();
     }
 
     @Test
@@ -136,44 +143,52 @@ public class DealControllerTest {
     @Test
     public void testSelectLoanOffer() throws Exception {
         when(dealService.selectLoanOffer(any(LoanOfferDto.class))).thenReturn(emailMessage);
-        when(kafkaTemplate.send(eq("finish-registration"), any(EmailMessage.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(post("/deal/offer/select")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(loanOfferDto)))
                 .andExpect(status().isOk());
 
-        verify(kafkaTemplate, times(1)).send(eq("finish-registration"), any(EmailMessage.class));
+        verify(dealService, times(1)).selectLoanOffer(any(LoanOfferDto.class));
     }
 
     @Test
     public void testFinishRegistration() throws Exception {
         UUID statementId = UUID.randomUUID();
         when(dealService.finishRegistration(eq(statementId.toString()), any(FinishRegistrationRequestDto.class))).thenReturn(emailMessage);
-        when(kafkaTemplate.send(eq("create-documents"), any(EmailMessage.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(post("/deal/calculate/{statementId}", statementId.toString())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(finishRegistrationRequestDto)))
                 .andExpect(status().isOk());
 
-        verify(kafkaTemplate, times(1)).send(eq("create-documents"), any(EmailMessage.class));
+        verify(dealService, times(1)).finishRegistration(eq(statementId.toString()), any(FinishRegistrationRequestDto.class));
     }
 
     @Test
     public void testSendDocuments() throws Exception {
         UUID statementId = UUID.randomUUID();
-        when(dealService.sendDocuments(eq(statementId.toString()))).thenReturn(emailMessageWithPdf);
-
-        CompletableFuture<SendResult<String, EmailMessage>> future = new CompletableFuture<>();
-        when(kafkaTemplate.send(eq("send-documents"), any(EmailMessage.class))).thenReturn(future);
+        Statement statement = Statement.builder().statementId(statementId).build();
+        when(dealService.prepareDocuments(eq(statementId.toString()))).thenReturn(statement);
+        doAnswer(invocation -> invocation.<Supplier<Statement>>getArgument(0).get())
+                .when(documentRenderPipeline).submit(any());
 
         mockMvc.perform(post("/deal/document/{statementId}/send", statementId.toString()))
                 .andExpect(status().isOk());
 
-        verify(kafkaTemplate, times(1)).send(eq("send-documents"), any(EmailMessage.class));
+        verify(documentRenderPipeline, times(1)).submit(any());
+        verify(dealService, times(1)).prepareDocuments(statementId.toString());
+    }
+
+    @Test
+    public void testSendDocumentsWhenRenderQueueIsFull() throws Exception {
+        UUID statementId = UUID.randomUUID();
+        doThrow(new RejectedExecutionException()).when(documentRenderPipeline).submit(any());
+
+        mockMvc.perform(post("/deal/document/{statementId}/send", statementId.toString()))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(dealService, never()).prepareDocuments(any());
     }
 
     @Test
@@ -188,13 +203,11 @@ public class DealControllerTest {
                 .build();
 
         when(dealService.signDocuments(eq(statementId.toString()))).thenReturn(emailMessageWithSesCode);
-        when(kafkaTemplate.send(eq("send-ses"), any(EmailMessage.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(post("/deal/document/{statementId}/sign", statementId.toString()))
                 .andExpect(status().isOk());
 
-        verify(kafkaTemplate, times(1)).send(eq("send-ses"), any(EmailMessage.class));
+        verify(dealService, times(1)).signDocuments(statementId.toString());
     }
 
     @Test
@@ -208,15 +221,13 @@ public class DealControllerTest {
                 .build();
 
         when(dealService.codeDocuments(eq(statementId.toString()), eq(sesCode))).thenReturn(emailMessageCreditIssued);
-        when(kafkaTemplate.send(eq("credit-issued"), any(EmailMessage.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
 
         mockMvc.perform(post("/deal/document/{statementId}/code", statementId.toString())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(sesCode))
                 .andExpect(status().isOk());
 
-        verify(kafkaTemplate, times(1)).send(eq("credit-issued"), any(EmailMessage.class));
+        verify(dealService, times(1)).codeDocuments(statementId.toString(), sesCode);
     }
 
     @Test
@@ -231,8 +242,30 @@ public class DealControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(invalidSesCode))
                 .andExpect(status().isBadRequest());
+    }
 
-        verify(kafkaTemplate, never()).send(anyString(), any(EmailMessage.class));
+    @Test
+    public void testCodeDocumentsInvalidStatus() throws Exception {
+        UUID statementId = UUID.randomUUID();
+        String sesCode = "12345678";
+
+        when(dealService.codeDocuments(eq(statementId.toString()), eq(sesCode)))
+                .thenThrow(new StatusTransitionException("Заявку в статусе CREDIT_ISSUED нельзя перевести в статус DOCUMENT_SIGNED"));
+
+        mockMvc.perform(post("/deal/document/{statementId}/code", statementId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(sesCode))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testSignDocumentsInvalidStatus() throws Exception {
+        UUID statementId = UUID.randomUUID();
+        when(dealService.signDocuments(eq(statementId.toString())))
+                .thenThrow(new StatusTransitionException("Заявку в статусе CC_APPROVED нельзя перевести в статус DOCUMENT_SIGNED"));
+
+        mockMvc.perform(post("/deal/document/{statementId}/sign", statementId.toString()))
+                .andExpect(status().isConflict());
     }
 
     private String asJsonString(final Object obj) {
@@ -242,4 +275,105 @@ public class DealControllerTest {
             throw new RuntimeException(e);
         }
     }
+
+    @Test
+    public void testGetStatementsAdmin() throws Exception {
+        StatementPageDto page = new StatementPageDto(List.of(), "cursor");
+        when(dealService.getStatementsPage(ApplicationStatus.APPROVED, LocalDate.of(2025, 1, 1), null, "previous", 10))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/deal/admin/statement")
+                        .param("status", "APPROVED")
+                        .param("from", "2025-01-01")
+                        .param("cursor", "previous")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[],\"nextCursor\":\"cursor\"}"));
+    }
+
+    @Test
+    public void testGetStatementsAdminWithInvalidCursor() throws Exception {
+        when(dealService.getStatementsPage(null, null, null, "broken", null))
+                .thenThrow(new IllegalArgumentException("Некорректная позиция списка заявок"));
+
+        mockMvc.perform(get("/deal/admin/statement").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetStatusCountsAdmin() throws Exception {
+        when(dealService.getStatusCounts(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .thenReturn(List.of(new StatusCountDto(LocalDate.of(2025, 1, 1), "APPROVED", 3L)));
+
+        mockMvc.perform(get("/deal/admin/statement/status-counts").param("from", "2025-01-01").param("to", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"status\":\"APPROVED\",\"count\":3}]"));
+    }
+
+    @Test
+    public void testGetPaymentsDueAdmin() throws Exception {
+        UUID creditId = UUID.randomUUID();
+        when(dealService.getPaymentsDue(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)))
+                .thenReturn(List.of(ScheduledPaymentDto.builder()
+                        .creditId(creditId)
+                        .number(3)
+                        .totalPayment(new BigDecimal("9000.00"))
+                        .build()));
+
+        mockMvc.perform(get("/deal/admin/payments/due").param("from", "2025-02-01").param("to", "2025-02-28"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"creditId\":\"" + creditId + "\",\"number\":3,\"totalPayment\":9000.00}]"));
+    }
+
+    @Test
+    public void testGetPaymentsDueAdminInvalidPeriod() throws Exception {
+        when(dealService.getPaymentsDue(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 6, 1)))
+                .thenThrow(new IllegalArgumentException("Период длиннее 31 дней"));
+
+        mockMvc.perform(get("/deal/admin/payments/due").param("from", "2025-02-01").param("to", "2025-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportStatementsAdminGzip() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("{\"status\":\"APPROVED\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(statementExportService).export(eq(ApplicationStatus.APPROVED), isNull(), isNull(), any(OutputStream.class));
+
+        byte[] body = mockMvc.perform(get("/deal/admin/statement/export")
+                        .param("status", "APPROVED")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"status\":\"APPROVED\"}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testExportStatementsAdminGzipRefused() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("{\"status\":\"APPROVED\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(statementExportService).export(isNull(), isNull(), isNull(), any(OutputStream.class));
+
+        mockMvc.perform(get("/deal/admin/statement/export")
+                        .header("Accept-Encoding", "gzip;q=0, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("{\"status\":\"APPROVED\"}\n"));
+    }
+
+    @Test
+    public void testExportStatementsAdminWhenExportIsRunning() throws Exception {
+        when(statementExportService.export(isNull(), isNull(), isNull(), any(OutputStream.class)))
+                .thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(get("/deal/admin/statement/export"))
+                .andExpect(status().isTooManyRequests());
+    }
 }
@@ -0,0 +1,132 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neoflex.deal.entity.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ContractDocumentCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path diskRoot;
+
+    @Test
+    void testGetServesRepeatedRequestsFromMemory() {
+        ContractDocumentCache cache = new ContractDocumentCache(1024, diskRoot.toString(), 1024);
+        AtomicInteger renders = new AtomicInteger();
+        Supplier<byte[]> renderer = () -> {
+            renders.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        };
+
+        cache.get("a", renderer);
+        byte[] document = cache.get("a", renderer);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, document);
+        assertEquals(1, renders.get());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(3, cache.memoryBytes());
+        assertEquals(3, cache.diskBytes());
+    }
+
+    @Test
+    void testGetServesDocumentFromDiskAfterRestart() {
+        new ContractDocumentCache(1024, diskRoot.toString(), 1024).get("a", () -> new byte[]{1, 2, 3});
+
+        ContractDocumentCache restarted = new ContractDocumentCache(1024, diskRoot.toString(), 1024);
+        byte[] document = restarted.get("a", () -> fail("Документ должен быть взят с диска"));
+
+        assertArrayEquals(new byte[]{1, 2, 3}, document);
+        assertEquals(3, restarted.diskBytes());
+        assertEquals(1.0, restarted.hitRatio());
+    }
+
+    @Test
+    void testDiskTierEvictsLeastRecentlyUsedDocuments() throws Exception {
+        ContractDocumentCache cache = new ContractDocumentCache(1024, diskRoot.toString(), 10);
+        cache.get("old", () -> new byte[6]);
+        Files.setLastModifiedTime(diskRoot.resolve("old.pdf"), FileTime.fromMillis(0));
+        cache.get("new", () -> new byte[6]);
+
+        assertFalse(Files.exists(diskRoot.resolve("old.pdf")));
+        assertTrue(Files.exists(diskRoot.resolve("new.pdf")));
+        assertEquals(6, cache.diskBytes());
+    }
+
+    @Test
+    void testDiskTierIsDisabledWithoutRoot() {
+        ContractDocumentCache cache = new ContractDocumentCache(1024, "", 1024);
+        cache.get("a", () -> new byte[]{1, 2, 3});
+
+        ContractDocumentCache restarted = new ContractDocumentCache(1024, "", 1024);
+        AtomicInteger renders = new AtomicInteger();
+        restarted.get("a", () -> {
+            renders.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        });
+
+        assertEquals(1, renders.get());
+        assertEquals(0, cache.diskBytes());
+    }
+
+    @Test
+    void testDiskRootIsCreatedForOwnerOnly() throws Exception {
+        assumeTrue(diskRoot.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path root = diskRoot.resolve("documents");
+
+        new ContractDocumentCache(1024, root.toString(), 1024).get("a", () -> new byte[]{1, 2, 3});
+
+        assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(root));
+        assertTrue(Files.exists(root.resolve("a.pdf")));
+    }
+
+    @Test
+    void testExistingDiskRootPermissionsAreRestricted() throws Exception {
+        assumeTrue(diskRoot.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(diskRoot, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        new ContractDocumentCache(1024, diskRoot.toString(), 1024);
+
+        assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(diskRoot));
+    }
+
+    @Test
+    void testMetricsAreRegistered() {
+        ContractDocumentCache cache = new ContractDocumentCache(1024, diskRoot.toString(), 1024);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("a", () -> new byte[4]);
+        cache.get("a", () -> new byte[4]);
+
+        assertEquals(1.0, registry.get("deal.documents.cache.gets").tag("result", "memory").functionCounter().count());
+        assertEquals(1.0, registry.get("deal.documents.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(0.5, registry.get("deal.documents.cache.hit.ratio").gauge().value());
+        assertEquals(4.0, registry.get("deal.documents.cache.bytes").tag("tier", "disk").gauge().value());
+    }
+
+    @Test
+    void testDocumentKeyDependsOnContractData() throws Exception {
+        ContractPdfGenerator generator = new ContractPdfGenerator(objectMapper);
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        String key = generator.documentKey(statement);
+
+        assertEquals(key, generator.documentKey(ContractPdfSupport.statement(12, objectMapper)));
+        statement.getCredit().setAmount(new BigDecimal("500001"));
+        assertNotEquals(key, generator.documentKey(statement));
+    }
+}
@@ -0,0 +1,49 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neoflex.deal.entity.Statement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк генерации кредитного договора: количество документов в секунду.
+ * <p>
+ * Запускается из IDE через {@link #main(String[])} или из командной строки с тестовым classpath модуля deal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractPdfGeneratorBenchmark {
+
+    @Param({"12", "360"})
+    private int term;
+
+    private ContractPdfGenerator contractPdfGenerator;
+    private Statement statement;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        contractPdfGenerator = new ContractPdfGenerator(objectMapper);
+        statement = ContractPdfSupport.statement(term, objectMapper);
+    }
+
+    @Benchmark
+    public byte[] generate() {
+        return contractPdfGenerator.generate(statement);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContractPdfGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
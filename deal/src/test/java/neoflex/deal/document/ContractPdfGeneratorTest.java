@@ -0,0 +1,79 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.deal.entity.Statement;
+import neoflex.deal.util.SerializationUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractPdfGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ContractPdfGenerator contractPdfGenerator;
+
+    @BeforeEach
+    void setUp() {
+        contractPdfGenerator = new ContractPdfGenerator(objectMapper);
+    }
+
+    @Test
+    void testGenerateContainsClientAndPaymentSchedule() throws IOException {
+        byte[] pdf = contractPdfGenerator.generate(ContractPdfSupport.statement(12, objectMapper));
+
+        PdfReader reader = new PdfReader(pdf);
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(reader, page));
+            }
+            assertTrue(text.indexOf("Кредитный договор") >= 0);
+            assertTrue(text.indexOf("ФИО: Иванов Иван Иванович") >= 0);
+            assertTrue(text.indexOf("Номер платежа: 12, Дата: 15.01.2026") >= 0);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void testGenerateUsesPaymentScheduleFromTable() throws IOException {
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        Credit credit = statement.getCredit();
+        List<PaymentScheduleElement> paymentSchedule = SerializationUtil.deserializePaymentSchedule(
+                credit.getPaymentSchedule(), objectMapper);
+        credit.setPaymentSchedule(null);
+        credit.setPaymentScheduleElements(paymentSchedule);
+
+        PdfReader reader = new PdfReader(contractPdfGenerator.generate(statement));
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(reader, page));
+            }
+            assertTrue(text.indexOf("Номер платежа: 12, Дата: 15.01.2026") >= 0);
+        } finally {
+            reader.close();
+        }
+
+        String key = contractPdfGenerator.documentKey(statement);
+        paymentSchedule.get(0).setTotalPayment(new BigDecimal("1.00"));
+        assertNotEquals(key, contractPdfGenerator.documentKey(statement));
+    }
+
+    @Test
+    void testGenerateReusesGeneratorForSeveralDocuments() throws IOException {
+        byte[] first = contractPdfGenerator.generate(ContractPdfSupport.statement(360, objectMapper));
+        byte[] second = contractPdfGenerator.generate(ContractPdfSupport.statement(360, objectMapper));
+
+        assertEquals(new PdfReader(first).getNumberOfPages(), new PdfReader(second).getNumberOfPages());
+    }
+}
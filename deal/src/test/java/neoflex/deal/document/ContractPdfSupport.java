@@ -0,0 +1,66 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neoflex.deal.entity.Client;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.Passport;
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.deal.entity.Statement;
+import neoflex.enums.ApplicationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Тестовые данные для генерации кредитного договора.
+ */
+final class ContractPdfSupport {
+
+    private ContractPdfSupport() {
+    }
+
+    /**
+     * Создает одобренную заявку с графиком платежей на заданный срок.
+     *
+     * @param term срок кредита в месяцах
+     */
+    static Statement statement(int term, ObjectMapper objectMapper) throws JsonProcessingException {
+        List<PaymentScheduleElement> paymentSchedule = new ArrayList<>();
+        for (int i = 1; i <= term; i++) {
+            paymentSchedule.add(PaymentScheduleElement.builder()
+                    .number(i)
+                    .date(LocalDate.of(2025, 1, 15).plusMonths(i))
+                    .totalPayment(new BigDecimal("9000.00"))
+                    .interestPayment(new BigDecimal("800.00"))
+                    .debtPayment(new BigDecimal("8200.00"))
+                    .remainingDebt(new BigDecimal("100000.00"))
+                    .build());
+        }
+        return Statement.builder()
+                .statementId(UUID.randomUUID())
+                .client(Client.builder()
+                        .firstName("Иван")
+                        .lastName("Иванов")
+                        .middleName("Иванович")
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .email("ivan@example.com")
+                        .passport(Passport.builder().series("1234").number("567890").build())
+                        .build())
+                .credit(Credit.builder()
+                        .amount(new BigDecimal("500000"))
+                        .term(term)
+                        .monthlyPayment(new BigDecimal("9000.00"))
+                        .rate(new BigDecimal("0.10"))
+                        .psk(new BigDecimal("540000.00"))
+                        .paymentSchedule(objectMapper.writeValueAsString(paymentSchedule))
+                        .build())
+                .status(ApplicationStatus.CC_APPROVED)
+                .creationDate(LocalDateTime.now())
+                .build();
+    }
+}
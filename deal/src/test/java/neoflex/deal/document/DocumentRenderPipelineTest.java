@@ -0,0 +1,211 @@
+package neoflex.deal.document;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neoflex.blob.BlobStore;
+import neoflex.blob.FileSystemBlobStore;
+import neoflex.deal.config.DocumentRenderExecutorConfig;
+import neoflex.deal.entity.Statement;
+import neoflex.deal.outbox.OutboxPublisher;
+import neoflex.dto.DocumentReferenceDto;
+import neoflex.dto.EmailMessage;
+import neoflex.enums.Theme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentRenderPipelineTest {
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ContractPdfGenerator contractPdfGenerator;
+    private BlobStore blobStore;
+    private ContractDocumentCache documentCache;
+
+    @TempDir
+    private Path blobStoreRoot;
+
+    @BeforeEach
+    void setUp() {
+        contractPdfGenerator = new ContractPdfGenerator(objectMapper);
+        blobStore = new FileSystemBlobStore(blobStoreRoot);
+        documentCache = new ContractDocumentCache(1024 * 1024, "", 0);
+    }
+
+    @Test
+    void testSubmitRendersAndSendsDocuments() throws Exception {
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache, outboxPublisher,
+                Runnable::run, 1, 1, 2, 0, blobStore, "inline", meterRegistry);
+
+        pipeline.submit(() -> statement);
+
+        ArgumentCaptor<EmailMessage> message = ArgumentCaptor.forClass(EmailMessage.class);
+        verify(outboxPublisher).publish(eq("send-documents"), message.capture());
+        assertEquals(Theme.SEND_DOCUMENTS, message.getValue().getTheme());
+        assertEquals("ivan@example.com", message.getValue().getAddress());
+        assertTrue(message.getValue().getPdfDocumentBytes().length > 0);
+        assertEquals(1, meterRegistry.get("deal.documents.render").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testSubmitSendsDocumentReferenceInClaimCheckMode() throws Exception {
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache, outboxPublisher,
+                Runnable::run, 1, 1, 2, 0, blobStore, "claim-check", meterRegistry);
+
+        pipeline.submit(() -> statement);
+
+        ArgumentCaptor<EmailMessage> message = ArgumentCaptor.forClass(EmailMessage.class);
+        verify(outboxPublisher).publish(eq("send-documents"), message.capture());
+        assertNull(message.getValue().getPdfDocumentBytes());
+        DocumentReferenceDto reference = message.getValue().getPdfDocument();
+        assertEquals("application/pdf", reference.getContentType());
+        try (InputStream document = blobStore.open(reference)) {
+            byte[] content = document.readAllBytes();
+            assertEquals(reference.getSize(), content.length);
+            assertEquals("%PDF", new String(content, 0, 4, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void testBlobStoreRejectsModifiedDocument() throws Exception {
+        DocumentReferenceDto reference = blobStore.put("%PDF-1.4".getBytes(StandardCharsets.US_ASCII), "application/pdf");
+        Files.write(blobStoreRoot.resolve(reference.getKey()), "%PDF-1.5".getBytes(StandardCharsets.US_ASCII));
+
+        try (InputStream document = blobStore.open(reference)) {
+            assertThrows(IOException.class, document::readAllBytes);
+        }
+    }
+
+    @Test
+    void testUnknownAttachmentMode() {
+        assertThrows(IllegalArgumentException.class, () -> new DocumentRenderPipeline(contractPdfGenerator,
+                documentCache, outboxPublisher, Runnable::run, 1, 1, 2, 0, blobStore, "s3", meterRegistry));
+    }
+
+    @Test
+    void testSubmitDoesNotSendWhenRenderingFails() throws Exception {
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        statement.getCredit().setPaymentSchedule("not a json");
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache, outboxPublisher,
+                Runnable::run, 1, 1, 2, 0, blobStore, "inline", meterRegistry);
+
+        pipeline.submit(() -> statement);
+
+        verifyNoInteractions(outboxPublisher);
+        assertEquals(2, meterRegistry.get("deal.documents.render").tag("outcome", "error").timer().count());
+        assertEquals(1.0, meterRegistry.get("deal.documents.failed").counter().count());
+    }
+
+    @Test
+    void testSubmitRetriesWhenPublishFails() throws Exception {
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        doThrow(new IllegalStateException("База данных недоступна")).doNothing()
+                .when(outboxPublisher).publish(eq("send-documents"), any(EmailMessage.class));
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache, outboxPublisher,
+                Runnable::run, 1, 1, 2, 0, blobStore, "inline", meterRegistry);
+
+        pipeline.submit(() -> statement);
+
+        verify(outboxPublisher, times(2)).publish(eq("send-documents"), any(EmailMessage.class));
+        // Повторная попытка берет PDF из кэша
+        assertEquals(1, meterRegistry.get("deal.documents.render").tag("outcome", "success").timer().count());
+        assertEquals(0.0, meterRegistry.get("deal.documents.failed").counter().count());
+    }
+
+    @Test
+    void testSubmitIsRejectedBeforePreparingWhenQueueIsFull() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache,
+                outboxPublisher, queued::add, 1, 1, 2, 0, blobStore, "inline", meterRegistry);
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+        AtomicInteger prepared = new AtomicInteger();
+        Supplier<Statement> prepare = () -> {
+            prepared.incrementAndGet();
+            return statement;
+        };
+        pipeline.submit(prepare);
+        pipeline.submit(prepare);
+
+        assertThrows(RejectedExecutionException.class, () -> pipeline.submit(prepare));
+        assertEquals(2, prepared.get());
+        assertEquals(1.0, meterRegistry.get("deal.documents.render.rejected").counter().count());
+
+        // Выполненная задача освобождает место в очереди
+        queued.remove(0).run();
+        pipeline.submit(prepare);
+        assertEquals(3, prepared.get());
+    }
+
+    @Test
+    void testSubmitReleasesSlotWhenPreparingFails() throws Exception {
+        DocumentRenderPipeline pipeline = new DocumentRenderPipeline(contractPdfGenerator, documentCache,
+                outboxPublisher, task -> {
+        }, 1, 0, 2, 0, blobStore, "inline", meterRegistry);
+        Statement statement = ContractPdfSupport.statement(12, objectMapper);
+
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(() -> {
+            throw new IllegalStateException("Недопустимый статус заявки");
+        }));
+        pipeline.submit(() -> statement);
+        assertThrows(RejectedExecutionException.class, () -> pipeline.submit(() -> statement));
+    }
+
+    @Test
+    void testRenderExecutorRejectsWhenQueueIsFull() {
+        DocumentRenderExecutorConfig config = new DocumentRenderExecutorConfig();
+        ReflectionTestUtils.setField(config, "poolSize", 1);
+        ReflectionTestUtils.setField(config, "queueCapacity", 1);
+        ThreadPoolTaskExecutor executor = config.documentRenderExecutor(meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+            // Отказы под нагрузкой считает DocumentRenderPipeline, у пула своего счетчика нет
+            assertNull(meterRegistry.find("deal.documents.render.rejected").counter());
+            assertEquals(1.0, meterRegistry.get("deal.documents.render.queue").gauge().value());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
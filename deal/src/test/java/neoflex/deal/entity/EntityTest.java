@@ -11,7 +11,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -160,7 +160,6 @@ public class EntityTest {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Client client = Client.builder().firstName("John").lastName("Doe").build();
         Credit credit = Credit.builder().amount(BigDecimal.TEN).term(12).build();
-        List<StatusHistory> statusHistories = List.of(StatusHistory.builder().status("APPROVED").time(now).changeType(ChangeType.MANUAL).build());
         Statement statement = Statement.builder()
                 .client(client)
                 .credit(credit)
@@ -169,7 +168,6 @@ public class EntityTest {
                 .signDate(now)
                 .sesCode("123456")
                 .appliedOffer("{\"offer\": {}}")
-                .statusHistory(statusHistories)
                 .build();
 
         when(statementRepository.save(statement)).thenReturn(statement);
@@ -183,8 +181,6 @@ public class EntityTest {
         assertEquals(now, savedStatement.getSignDate().truncatedTo(ChronoUnit.SECONDS));
         assertEquals("123456", savedStatement.getSesCode());
         assertEquals("{\"offer\": {}}", savedStatement.getAppliedOffer());
-        assertEquals(1, savedStatement.getStatusHistory().size());
-        assertEquals("APPROVED", savedStatement.getStatusHistory().get(0).getStatus());
     }
 
     @Test
@@ -206,13 +202,14 @@ public class EntityTest {
         assertNull(savedStatement.getSignDate());
         assertNull(savedStatement.getSesCode());
         assertNull(savedStatement.getAppliedOffer());
-        assertNull(savedStatement.getStatusHistory());
     }
 
     @Test
     public void testStatusHistoryEntity() {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        UUID statementId = UUID.randomUUID();
         StatusHistory statusHistory = StatusHistory.builder()
+                .statementId(statementId)
                 .status("APPROVED")
                 .time(now)
                 .changeType(ChangeType.MANUAL)
@@ -222,6 +219,7 @@ public class EntityTest {
 
         StatusHistory savedStatusHistory = statusHistoryRepository.save(statusHistory);
         assertNotNull(savedStatusHistory);
+        assertEquals(statementId, savedStatusHistory.getStatementId());
         assertEquals("APPROVED", savedStatusHistory.getStatus());
         assertEquals(now, savedStatusHistory.getTime().truncatedTo(ChronoUnit.SECONDS));
         assertEquals(ChangeType.MANUAL, savedStatusHistory.getChangeType());
@@ -238,6 +236,7 @@ public class EntityTest {
         StatusHistory savedStatusHistory = statusHistoryRepository.save(statusHistory);
         assertNotNull(savedStatusHistory);
         assertEquals("APPROVED", savedStatusHistory.getStatus());
+        assertNull(savedStatusHistory.getStatementId());
         assertNull(savedStatusHistory.getTime());
         assertNull(savedStatusHistory.getChangeType());
     }
@@ -1,13 +1,11 @@
 package neoflex.deal.entity;
 
 import neoflex.enums.ApplicationStatus;
-import neoflex.enums.ChangeType;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,7 +16,6 @@ public class StatementEntityTest {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Client client1 = Client.builder().firstName("John").lastName("Doe").build();
         Credit credit1 = Credit.builder().amount(BigDecimal.TEN).term(12).build();
-        List<StatusHistory> statusHistories1 = List.of(StatusHistory.builder().status("APPROVED").time(now).changeType(ChangeType.MANUAL).build());
 
         Statement statement1 = Statement.builder()
                 .client(client1)
@@ -28,7 +25,6 @@ public class StatementEntityTest {
                 .signDate(now)
                 .sesCode("123456")
                 .appliedOffer("{\"offer\": {}}")
-                .statusHistory(statusHistories1)
                 .build();
 
         Statement statement2 = Statement.builder()
@@ -39,12 +35,10 @@ public class StatementEntityTest {
                 .signDate(now)
                 .sesCode("123456")
                 .appliedOffer("{\"offer\": {}}")
-                .statusHistory(statusHistories1)
                 .build();
 
         Client client2 = Client.builder().firstName("Jane").lastName("Doe").build();
         Credit credit2 = Credit.builder().amount(BigDecimal.valueOf(20)).term(24).build();
-        List<StatusHistory> statusHistories2 = List.of(StatusHistory.builder().status("REJECTED").time(now).changeType(ChangeType.AUTOMATIC).build());
 
         Statement statement3 = Statement.builder()
                 .client(client2)
@@ -54,7 +48,6 @@ public class StatementEntityTest {
                 .signDate(now.plusDays(1))
                 .sesCode("654321")
                 .appliedOffer("{\"offer\": [1]}")
-                .statusHistory(statusHistories2)
                 .build();
 
         // Рефлексивность
@@ -75,7 +68,6 @@ public class StatementEntityTest {
                 .signDate(now)
                 .sesCode("123456")
                 .appliedOffer("{\"offer\": {}}")
-                .statusHistory(statusHistories1)
                 .build();
         assertTrue(statement1.equals(statement2));
         assertTrue(statement2.equals(statement4));
@@ -102,7 +94,6 @@ public class StatementEntityTest {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Client client = Client.builder().firstName("John").lastName("Doe").build();
         Credit credit = Credit.builder().amount(BigDecimal.TEN).term(12).build();
-        List<StatusHistory> statusHistories = List.of(StatusHistory.builder().status("APPROVED").time(now).changeType(ChangeType.MANUAL).build());
 
         Statement statement = Statement.builder()
                 .client(client)
@@ -112,7 +103,6 @@ public class StatementEntityTest {
                 .signDate(now)
                 .sesCode("123456")
                 .appliedOffer("{\"offer\": {}}")
-                .statusHistory(statusHistories)
                 .build();
 
         String toString = statement.toString();
@@ -124,6 +114,5 @@ public class StatementEntityTest {
         assertTrue(toString.contains("signDate=" + now));
         assertTrue(toString.contains("sesCode=123456"));
         assertTrue(toString.contains("appliedOffer={\"offer\": {}}"));
-        assertTrue(toString.contains("statusHistory=" + statusHistories));
     }
 }
@@ -0,0 +1,63 @@
+package neoflex.deal.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionHoldTimeDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource targetDataSource = mock(DataSource.class);
+    private final Connection targetConnection = mock(Connection.class);
+    private final ConnectionHoldTimeDataSource dataSource = new ConnectionHoldTimeDataSource(targetDataSource, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testHoldTimeIsRecordedForRequestUri() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/deal/calculate/{statementId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+        connection.close();
+
+        Timer timer = meterRegistry.get(ConnectionHoldTimeDataSource.METRIC_NAME)
+                .tag("uri", "/deal/calculate/{statementId}")
+                .timer();
+        assertEquals(1, timer.count());
+        verify(targetConnection).setAutoCommit(false);
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    void testHoldTimeOutsideRequest() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(connection, connection);
+        connection.close();
+
+        assertEquals(1, meterRegistry.get(ConnectionHoldTimeDataSource.METRIC_NAME)
+                .tag("uri", ConnectionHoldTimeDataSource.NO_REQUEST)
+                .timer()
+                .count());
+    }
+}
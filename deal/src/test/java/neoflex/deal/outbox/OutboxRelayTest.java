@@ -0,0 +1,191 @@
+package neoflex.deal.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neoflex.deal.config.OutboxCallbackExecutorConfig;
+import neoflex.deal.entity.OutboxEvent;
+import neoflex.deal.repository.OutboxEventRepository;
+import neoflex.deal.service.DealService;
+import neoflex.dto.EmailMessage;
+import neoflex.enums.Theme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, EmailMessage> kafkaTemplate;
+
+    @Mock
+    private DealService dealService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, dealService,
+                transactionManager, Runnable::run, 2, 1000, 30000, meterRegistry);
+    }
+
+    @Test
+    void relayBatchShouldSendAndDeleteEvents() throws Exception {
+        OutboxEvent registration = event(1L, "finish-registration", Theme.FINISH_REGISTRATION);
+        OutboxEvent creditIssued = event(2L, "credit-issued", Theme.CREDIT_ISSUED);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(registration, creditIssued));
+        when(kafkaTemplate.send(anyString(), any(EmailMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        verify(kafkaTemplate).send(eq("finish-registration"), argThat(message -> message.getTheme() == Theme.FINISH_REGISTRATION));
+        verify(kafkaTemplate).send(eq("credit-issued"), argThat(message -> message.getTheme() == Theme.CREDIT_ISSUED));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).markSent(eq(List.of(2L)), any());
+        verify(dealService).handleKafkaCreditSuccess(Set.of(creditIssued.getStatementId()));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+        verifyNoMoreInteractions(dealService);
+        assertEquals(1.0, meterRegistry.get("deal.outbox.sent").tag("topic", "credit-issued").counter().count());
+        assertEquals(2, meterRegistry.get("deal.outbox.delay").timer().count());
+        assertEquals(1, meterRegistry.get("deal.outbox.callback").tag("topic", "credit-issued").timer().count());
+    }
+
+    @Test
+    void relayBatchShouldUpdateStatusesOfBatchTogether() throws Exception {
+        OutboxEvent first = event(1L, "send-documents", Theme.SEND_DOCUMENTS);
+        OutboxEvent second = event(2L, "send-documents", Theme.SEND_DOCUMENTS);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(anyString(), any(EmailMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        outboxRelay.relayBatch();
+
+        verify(dealService).handleKafkaDocumentSuccess(Set.of(first.getStatementId(), second.getStatementId()));
+        verifyNoMoreInteractions(dealService);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayBatchShouldKeepSentEventsWhenStatusUpdateFails() throws Exception {
+        OutboxEvent documents = event(1L, "send-documents", Theme.SEND_DOCUMENTS);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(documents));
+        when(kafkaTemplate.send(anyString(), any(EmailMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        doThrow(new IllegalStateException("База данных недоступна"))
+                .when(dealService).handleKafkaDocumentSuccess(any());
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(outboxEventRepository).markSent(eq(List.of(1L)), any());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("deal.outbox.callback.failures").tag("topic", "send-documents")
+                .counter().count());
+    }
+
+    @Test
+    void retryStatusUpdatesShouldUpdateAndDeleteSentEvents() throws Exception {
+        OutboxEvent creditIssued = event(1L, "credit-issued", Theme.CREDIT_ISSUED);
+        creditIssued.setSentAt(LocalDateTime.now().minusMinutes(1));
+        when(outboxEventRepository.lockSentBefore(anyString(), any(), eq(2))).thenReturn(List.of());
+        when(outboxEventRepository.lockSentBefore(eq("credit-issued"), any(), eq(2))).thenReturn(List.of(creditIssued));
+
+        outboxRelay.retryStatusUpdates();
+
+        verify(dealService).handleKafkaCreditSuccess(Set.of(creditIssued.getStatementId()));
+        verifyNoMoreInteractions(dealService);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void callbackExecutorShouldRunInCallerWhenQueueIsFull() {
+        OutboxCallbackExecutorConfig config = new OutboxCallbackExecutorConfig();
+        ReflectionTestUtils.setField(config, "poolSize", 1);
+        ReflectionTestUtils.setField(config, "queueCapacity", 1);
+        ThreadPoolTaskExecutor executor = config.outboxCallbackExecutor(meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+            Thread caller = Thread.currentThread();
+            AtomicReference<Thread> runner = new AtomicReference<>();
+
+            executor.execute(() -> runner.set(Thread.currentThread()));
+
+            assertEquals(caller, runner.get());
+            assertEquals(1.0, meterRegistry.get("deal.outbox.callback.caller-runs").counter().count());
+            assertEquals(1.0, meterRegistry.get("deal.outbox.callback.queue").gauge().value());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void relayShouldKeepEventsWhenKafkaFails() throws Exception {
+        OutboxEvent documents = event(1L, "send-documents", Theme.SEND_DOCUMENTS);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(documents));
+        when(kafkaTemplate.send(anyString(), any(EmailMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Kafka недоступна")));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(dealService);
+        assertEquals(1.0, meterRegistry.get("deal.outbox.failures").counter().count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OutboxEvent event(Long id, String topic, Theme theme) throws Exception {
+        UUID statementId = UUID.randomUUID();
+        EmailMessage emailMessage = EmailMessage.builder()
+                .statementId(statementId)
+                .theme(theme)
+                .address("test@example.com")
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(topic)
+                .statementId(statementId)
+                .payload(objectMapper.writeValueAsString(emailMessage))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package neoflex.deal.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import neoflex.deal.config.EntityCacheConfig;
+import neoflex.deal.entity.Statement;
+import neoflex.enums.ApplicationStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка кэша второго уровня на настоящем Hibernate и PostgreSQL: схема создается Liquibase, кэш включен.
+ * <p>
+ * Запускается, если задан {@code DATABASE_URL} (например, {@code jdbc:postgresql://localhost:5432/deal}
+ * при запущенном {@code docker-compose up postgres}); без базы тест пропускается.
+ * Транзакции теста не откатываются, иначе записи не попадут в кэш, поэтому созданные заявки удаляются после теста.
+ */
+@DataJpaTest(properties = {
+        "entity-cache.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EntityCacheConfig.class, StatementCacheIntegrationTest.MetricsConfig.class})
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = "jdbc:postgresql:.+")
+public class StatementCacheIntegrationTest {
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private StatementRepository statementRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> createdIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statementRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    void testSecondFindByIdIsServedFromCache() {
+        UUID statementId = createStatement();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        statementRepository.findById(statementId).orElseThrow();
+        Statement cached = statementRepository.findById(statementId).orElseThrow();
+
+        assertEquals(ApplicationStatus.PREAPPROVAL, cached.getStatus());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(Statement.class, statementId));
+    }
+
+    @Test
+    void testBulkStatusUpdateEvictsStatement() {
+        UUID statementId = createStatement();
+        Statement before = statementRepository.findById(statementId).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Statement.class, statementId));
+
+        // Так же, как DealService переводит заявки после отправки сообщений в Kafka
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<UUID> updatedIds = statementRepository.compareAndSetStatus(List.of(statementId),
+                    List.of(ApplicationStatus.PREAPPROVAL.name()), ApplicationStatus.APPROVED.name());
+            statementRepository.evictFromCache(updatedIds);
+        });
+
+        assertFalse(entityManagerFactory.getCache().contains(Statement.class, statementId));
+        Statement after = statementRepository.findById(statementId).orElseThrow();
+        assertEquals(ApplicationStatus.APPROVED, after.getStatus());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+    }
+
+    private UUID createStatement() {
+        Statement statement = statementRepository.save(Statement.builder()
+                .status(ApplicationStatus.PREAPPROVAL)
+                .creationDate(LocalDateTime.now())
+                .build());
+        createdIds.add(statement.getStatementId());
+        return statement.getStatementId();
+    }
+}
@@ -1,25 +1,39 @@
 package neoflex.deal.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import neoflex.deal.client.CalculatorClient;
+import neoflex.deal.config.KafkaProducerConfig;
 import neoflex.deal.entity.*;
 import neoflex.dto.*;
 import neoflex.enums.*;
+import neoflex.deal.outbox.OutboxPublisher;
 import neoflex.deal.repository.*;
 import neoflex.deal.util.SesCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,6 +49,37 @@ public class DealServiceTest {
     @Mock
     private CreditRepository creditRepository;
 
+    @Mock
+    private PaymentScheduleElementRepository paymentScheduleElementRepository;
+
+    @Mock
+    private PaymentScheduleStorage paymentScheduleStorage;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private StatusHistoryRepository statusHistoryRepository;
+
+    @Mock
+    private CalculatorClient calculatorClient;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private StatusTransitions statusTransitions = new StatusTransitions(meterRegistry);
 
     @InjectMocks
     private DealService dealService;
@@ -74,7 +119,6 @@ public class DealServiceTest {
                 .statementId(UUID.randomUUID())
                 .client(client)
                 .status(ApplicationStatus.PREAPPROVAL)
-                .statusHistory(List.of())
                 .creationDate(LocalDateTime.now())
                 .build();
         finishRegistrationRequestDto = FinishRegistrationRequestDto.builder()
@@ -97,34 +141,69 @@ public class DealServiceTest {
 
     @Test
     void signDocumentsShouldUpdateStatementAndReturnEmailMessage() {
+        statement.setStatus(ApplicationStatus.DOCUMENT_CREATED);
         when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
-        when(statementRepository.save(any(Statement.class))).thenReturn(statement);
+        when(statementRepository.saveAndFlush(any(Statement.class))).thenReturn(statement);
 
         EmailMessage result = dealService.signDocuments(statement.getStatementId().toString());
 
         assertNotNull(result);
         assertEquals(Theme.SEND_SES, result.getTheme());
+        verify(outboxPublisher).publish(KafkaProducerConfig.SEND_SES_TOPIC, result);
         assertEquals(statement.getClient().getEmail(), result.getAddress());
         assertNotNull(result.getText());
         assertTrue(result.getText().contains("Потвердите согласие на оформление кредита с помощью кода:"));
         verify(statementRepository, times(1)).findById(statement.getStatementId());
-        verify(statementRepository, times(1)).save(any(Statement.class));
+        verify(statementRepository, times(1)).saveAndFlush(any(Statement.class));
+    }
+
+    @Test
+    void signDocumentsShouldRejectStatementWithoutDocuments() {
+        statement.setStatus(ApplicationStatus.CC_APPROVED);
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
+
+        assertThrows(StatusTransitionException.class, () -> dealService.signDocuments(statement.getStatementId().toString()));
+        verify(statementRepository, never()).saveAndFlush(any(Statement.class));
+        verifyNoInteractions(outboxPublisher);
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "DOCUMENT_SIGNED", "outcome", "rejected").counter().count());
     }
 
     @Test
     void codeDocumentsShouldUpdateStatementAndReturnEmailMessage() {
         String sesCode = SesCodeGenerator.generateSesCode();
         statement.setSesCode(sesCode);
+        statement.setStatus(ApplicationStatus.DOCUMENT_CREATED);
         when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
-        when(statementRepository.save(any(Statement.class))).thenReturn(statement);
+        when(statementRepository.saveAndFlush(any(Statement.class))).thenReturn(statement);
 
         EmailMessage result = dealService.codeDocuments(statement.getStatementId().toString(), sesCode);
 
         assertNotNull(result);
         assertEquals(Theme.CREDIT_ISSUED, result.getTheme());
         assertEquals(statement.getClient().getEmail(), result.getAddress());
+        verify(outboxPublisher).publish(KafkaProducerConfig.CREDIT_ISSUED_TOPIC, result);
         verify(statementRepository, times(1)).findById(statement.getStatementId());
-        verify(statementRepository, times(1)).save(any(Statement.class));
+        verify(statementRepository, times(1)).saveAndFlush(any(Statement.class));
+        assertEquals(ApplicationStatus.DOCUMENT_SIGNED, statement.getStatus());
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "DOCUMENT_SIGNED", "outcome", "applied").counter().count());
+    }
+
+    @Test
+    void codeDocumentsShouldReportConcurrentModification() {
+        String sesCode = SesCodeGenerator.generateSesCode();
+        statement.setSesCode(sesCode);
+        statement.setStatus(ApplicationStatus.DOCUMENT_CREATED);
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
+        when(statementRepository.saveAndFlush(any(Statement.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Statement.class, statement.getStatementId()));
+
+        assertThrows(StatusTransitionException.class,
+                () -> dealService.codeDocuments(statement.getStatementId().toString(), sesCode));
+        verifyNoInteractions(statusHistoryRepository, outboxPublisher);
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "DOCUMENT_SIGNED", "outcome", "conflict").counter().count());
     }
 
     @Test
@@ -135,34 +214,269 @@ public class DealServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> dealService.codeDocuments(statement.getStatementId().toString(), "invalid"));
         verify(statementRepository, times(1)).findById(statement.getStatementId());
+        verify(statementRepository, never()).saveAndFlush(any(Statement.class));
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    void handleKafkaDocumentSuccessShouldUpdateStatementsInBatch() {
+        UUID skippedId = UUID.randomUUID();
+        List<UUID> statementIds = List.of(statement.getStatementId(), skippedId);
+        when(statementRepository.compareAndSetStatus(statementIds, List.of("PREPARE_DOCUMENTS"), "DOCUMENT_CREATED"))
+                .thenReturn(List.of(statement.getStatementId()));
+
+        dealService.handleKafkaDocumentSuccess(statementIds);
+
+        verify(statementRepository, never()).findById(any());
         verify(statementRepository, never()).save(any(Statement.class));
+        verify(statementRepository).evictFromCache(List.of(statement.getStatementId()));
+        ArgumentCaptor<List<StatusHistory>> statusHistoryCaptor = ArgumentCaptor.forClass(List.class);
+        verify(statusHistoryRepository).saveAll(statusHistoryCaptor.capture());
+        assertEquals(1, statusHistoryCaptor.getValue().size());
+        StatusHistory statusHistory = statusHistoryCaptor.getValue().get(0);
+        assertEquals(statement.getStatementId(), statusHistory.getStatementId());
+        assertEquals(ApplicationStatus.DOCUMENT_CREATED.name(), statusHistory.getStatus());
+        assertEquals(ChangeType.AUTOMATIC, statusHistory.getChangeType());
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "DOCUMENT_CREATED", "outcome", "applied").counter().count());
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "DOCUMENT_CREATED", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void getStatusHistoryShouldRejectUnknownStatement() {
+        when(statementRepository.existsById(statement.getStatementId())).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> dealService.getStatusHistory(statement.getStatementId()));
+        verifyNoInteractions(statusHistoryRepository);
+    }
+
+    @Test
+    void getStatusCountsShouldQueryWholeDaysOfPeriod() {
+        List<StatusCountDto> counts = List.of(new StatusCountDto(LocalDate.of(2025, 1, 1), "APPROVED", 3L));
+        when(statusHistoryRepository.countByDayAndStatus(LocalDate.of(2025, 1, 1).atStartOfDay(),
+                LocalDate.of(2025, 2, 1).atStartOfDay())).thenReturn(counts);
+
+        assertEquals(counts, dealService.getStatusCounts(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getStatusCounts(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 31)));
     }
 
     @Test
-    void handleKafkaDocumentSuccessShouldUpdateStatementStatus() {
+    void getPaymentsDueShouldQueryPeriodInclusive() {
+        List<ScheduledPaymentDto> payments = List.of(ScheduledPaymentDto.builder().number(1).build());
+        when(paymentScheduleElementRepository.findDueBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .thenReturn(payments);
+
+        assertEquals(payments, dealService.getPaymentsDue(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+    }
+
+    @Test
+    void getPaymentsDueShouldRejectInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getPaymentsDue(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getPaymentsDue(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1)));
+        verifyNoInteractions(paymentScheduleElementRepository);
+    }
+
+    @Test
+    void prepareDocumentsShouldLoadPaymentSchedule() {
+        statement.setCredit(credit);
+        statement.setStatus(ApplicationStatus.CC_APPROVED);
+        List<PaymentScheduleElement> paymentSchedule = List.of(PaymentScheduleElement.builder().number(1).build());
         when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
-        when(statementRepository.save(any(Statement.class))).thenReturn(statement);
+        when(paymentScheduleStorage.load(credit)).thenReturn(paymentSchedule);
 
-        dealService.handleKafkaDocumentSuccess(statement.getStatementId().toString());
+        Statement result = dealService.prepareDocuments(statement.getStatementId().toString());
 
-        assertEquals(ApplicationStatus.DOCUMENT_CREATED, statement.getStatus());
-        verify(statementRepository, times(1)).findById(statement.getStatementId());
-        verify(statementRepository, times(1)).save(any(Statement.class));
+        assertEquals(ApplicationStatus.PREPARE_DOCUMENTS, result.getStatus());
+        assertEquals(paymentSchedule, result.getCredit().getPaymentScheduleElements());
+    }
+
+    @Test
+    void getStatementsPageShouldReturnCursorWhenMoreStatementsExist() {
+        LocalDateTime creationDate = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<StatementSummaryDto> summaries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            summaries.add(StatementSummaryDto.builder()
+                    .statementId(UUID.randomUUID())
+                    .creationDate(creationDate.minusDays(i))
+                    .build());
+        }
+        when(statementRepository.findSummaries(ApplicationStatus.APPROVED, LocalDate.of(2025, 1, 1).atStartOfDay(),
+                LocalDate.of(2025, 1, 2).atStartOfDay(), null, 3)).thenReturn(summaries);
+
+        StatementPageDto page = dealService.getStatementsPage(ApplicationStatus.APPROVED,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1), null, 2);
+
+        assertEquals(summaries.subList(0, 2), page.getItems());
+        StatementCursor cursor = StatementCursor.decode(page.getNextCursor());
+        assertEquals(summaries.get(1).getCreationDate(), cursor.creationDate());
+        assertEquals(summaries.get(1).getStatementId(), cursor.statementId());
+    }
+
+    @Test
+    void getStatementsPageShouldContinueAfterCursor() {
+        StatementCursor cursor = new StatementCursor(LocalDateTime.of(2025, 1, 1, 10, 0), UUID.randomUUID());
+        when(statementRepository.findSummaries(null, null, null, cursor, DealService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(new StatementSummaryDto()));
+
+        StatementPageDto page = dealService.getStatementsPage(null, null, null, cursor.encode(), null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getStatementsPageShouldRejectInvalidRequest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getStatementsPage(null, null, null, null, DealService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> dealService.getStatementsPage(null, null, null, "not-a-cursor", null));
+        verifyNoInteractions(statementRepository);
     }
 
     @Test
     void handleKafkaCreditSuccessShouldUpdateStatementAndCreditStatus() {
+        List<UUID> statementIds = List.of(statement.getStatementId(), UUID.randomUUID());
+        when(statementRepository.compareAndSetStatus(statementIds, List.of("DOCUMENT_SIGNED"), "CREDIT_ISSUED"))
+                .thenReturn(statementIds);
+
+        dealService.handleKafkaCreditSuccess(statementIds);
+
+        verify(creditRepository).updateStatusByStatementIds(statementIds, CreditStatus.ISSUED);
+        verify(statusHistoryRepository).saveAll(argThat(statusHistories -> statusHistories.spliterator().getExactSizeIfKnown() == 2));
+        verify(creditRepository, never()).save(any(Credit.class));
+    }
+
+    @Test
+    void handleKafkaCreditSuccessShouldSkipStatementsInOtherStatus() {
+        List<UUID> statementIds = List.of(UUID.randomUUID());
+        when(statementRepository.compareAndSetStatus(statementIds, List.of("DOCUMENT_SIGNED"), "CREDIT_ISSUED"))
+                .thenReturn(List.of());
+
+        dealService.handleKafkaCreditSuccess(statementIds);
+
+        verifyNoInteractions(creditRepository, statusHistoryRepository);
+        verify(statementRepository, never()).evictFromCache(any());
+    }
+
+    @Test
+    void calculateLoanOffersShouldJoinStatementIdOntoOffers() {
+        setUpLoanOffersPipeline();
+        LoanStatementRequestDto request = LoanStatementRequestDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .build();
+        when(calculatorClient.calculateLoanOffers(request)).thenReturn(new ArrayList<>(List.of(new LoanOfferDto())));
+        when(statementRepository.save(any(Statement.class))).thenAnswer(invocation -> {
+            Statement saved = invocation.getArgument(0);
+            saved.setStatementId(statement.getStatementId());
+            return saved;
+        });
+
+        List<LoanOfferDto> result = dealService.calculateLoanOffers(request);
+
+        assertEquals(statement.getStatementId(), result.get(0).getStatementId());
+        verify(calculatorClient).calculateLoanOffers(request);
+        verify(transactionManager, times(1)).commit(any());
+        verify(statementRepository, never()).delete(any(Statement.class));
+    }
+
+    @Test
+    void calculateLoanOffersShouldDeleteStatementWhenCalculatorFails() {
+        setUpLoanOffersPipeline();
+        LoanStatementRequestDto request = LoanStatementRequestDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .build();
+        when(calculatorClient.calculateLoanOffers(request)).thenThrow(new IllegalStateException("Калькулятор недоступен"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> dealService.calculateLoanOffers(request));
+
+        assertEquals("Ошибка при получении предложений по кредиту", exception.getMessage());
+        InOrder inOrder = inOrder(statementRepository, clientRepository);
+        inOrder.verify(statementRepository).save(any(Statement.class));
+        inOrder.verify(statementRepository).delete(any(Statement.class));
+        inOrder.verify(clientRepository).delete(any(Client.class));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void calculateLoanOffersShouldFailWhenStatementIsNotSaved() {
+        setUpLoanOffersPipeline();
+        LoanStatementRequestDto request = LoanStatementRequestDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .build();
+        when(calculatorClient.calculateLoanOffers(request)).thenReturn(new ArrayList<>(List.of(new LoanOfferDto())));
+        when(statementRepository.save(any(Statement.class))).thenThrow(new IllegalStateException("БД недоступна"));
+
+        assertThrows(IllegalStateException.class, () -> dealService.calculateLoanOffers(request));
+        verify(transactionManager).rollback(any());
+        verify(statementRepository, never()).delete(any(Statement.class));
+    }
+
+    private void setUpLoanOffersPipeline() {
+        ReflectionTestUtils.setField(dealService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        // Расчет выполняется в потоке теста, чтобы порядок вызовов был детерминированным
+        ReflectionTestUtils.setField(dealService, "calculatorExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void finishRegistrationShouldSaveCreditInTransactionAfterCalculatorCall() {
+        ReflectionTestUtils.setField(dealService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        statement.setCredit(credit);
+        statement.setStatus(ApplicationStatus.APPROVED);
+        CreditDto creditDto = CreditDto.builder()
+                .amount(BigDecimal.valueOf(20000))
+                .term(12)
+                .monthlyPayment(BigDecimal.valueOf(1800))
+                .rate(BigDecimal.valueOf(0.1))
+                .psk(BigDecimal.valueOf(21600))
+                .isInsuranceEnabled(false)
+                .isSalaryClient(false)
+                .paymentSchedule(List.of())
+                .build();
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
+        when(calculatorClient.calculateCredit(any(ScoringDataDto.class))).thenReturn(creditDto);
+
+        EmailMessage result = dealService.finishRegistration(statement.getStatementId().toString(), finishRegistrationRequestDto);
+
+        assertEquals(Theme.CREATE_DOCUMENTS, result.getTheme());
+        assertEquals(ApplicationStatus.CC_APPROVED, statement.getStatus());
+        InOrder inOrder = inOrder(calculatorClient, transactionManager, creditRepository, paymentScheduleStorage);
+        inOrder.verify(calculatorClient).calculateCredit(any(ScoringDataDto.class));
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(creditRepository).save(any(Credit.class));
+        inOrder.verify(paymentScheduleStorage).saveRows(any(Credit.class), eq(List.of()));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void finishRegistrationShouldDenyStatementWhenCalculatorFails() {
+        ReflectionTestUtils.setField(dealService, "transactionTemplate", new TransactionTemplate(transactionManager));
         statement.setCredit(credit);
+        statement.setStatus(ApplicationStatus.APPROVED);
         when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
-        when(statementRepository.save(any(Statement.class))).thenReturn(statement);
-        when(creditRepository.save(any(Credit.class))).thenReturn(credit);
+        when(calculatorClient.calculateCredit(any(ScoringDataDto.class))).thenThrow(new IllegalArgumentException("Отказ"));
 
-        dealService.handleKafkaCreditSuccess(statement.getStatementId().toString());
+        EmailMessage result = dealService.finishRegistration(statement.getStatementId().toString(), finishRegistrationRequestDto);
 
-        assertEquals(ApplicationStatus.CREDIT_ISSUED, statement.getStatus());
-        assertEquals(CreditStatus.ISSUED, credit.getCreditStatus());
-        verify(statementRepository, times(1)).findById(statement.getStatementId());
-        verify(statementRepository, times(1)).save(any(Statement.class));
-        verify(creditRepository, times(1)).save(any(Credit.class));
+        assertEquals(Theme.STATEMENT_DENIED, result.getTheme());
+        assertEquals(ApplicationStatus.CC_DENIED, statement.getStatus());
+        verify(transactionManager, times(1)).commit(any());
+        verify(creditRepository, never()).save(any(Credit.class));
+    }
+
+    @Test
+    void finishRegistrationShouldNotCallCalculatorForStatementInOtherStatus() {
+        statement.setStatus(ApplicationStatus.CC_DENIED);
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Optional.of(statement));
+
+        assertThrows(StatusTransitionException.class,
+                () -> dealService.finishRegistration(statement.getStatementId().toString(), finishRegistrationRequestDto));
+        verifyNoInteractions(calculatorClient, creditRepository);
     }
 }
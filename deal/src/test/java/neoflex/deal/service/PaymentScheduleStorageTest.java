@@ -0,0 +1,83 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neoflex.deal.entity.Credit;
+import neoflex.deal.entity.PaymentScheduleElement;
+import neoflex.deal.repository.PaymentScheduleElementRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PaymentScheduleStorageTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PaymentScheduleElementRepository paymentScheduleElementRepository = mock(PaymentScheduleElementRepository.class);
+
+    private static List<PaymentScheduleElement> paymentSchedule() {
+        return List.of(
+                PaymentScheduleElement.builder()
+                        .number(1)
+                        .date(LocalDate.of(2025, 2, 15))
+                        .totalPayment(new BigDecimal("9000.00"))
+                        .build(),
+                PaymentScheduleElement.builder()
+                        .number(2)
+                        .date(LocalDate.of(2025, 3, 15))
+                        .totalPayment(new BigDecimal("9000.00"))
+                        .build());
+    }
+
+    @Test
+    void testJsonbStorageKeepsScheduleInCredit() {
+        PaymentScheduleStorage storage = new PaymentScheduleStorage(paymentScheduleElementRepository, objectMapper, "jsonb");
+        List<PaymentScheduleElement> paymentSchedule = paymentSchedule();
+        Credit credit = Credit.builder()
+                .creditId(UUID.randomUUID())
+                .paymentSchedule(storage.jsonbValue(paymentSchedule))
+                .build();
+
+        storage.saveRows(credit, paymentSchedule);
+
+        assertEquals(paymentSchedule, storage.load(credit));
+        verifyNoInteractions(paymentScheduleElementRepository);
+    }
+
+    @Test
+    void testTableStorageSavesRowsByCredit() {
+        PaymentScheduleStorage storage = new PaymentScheduleStorage(paymentScheduleElementRepository, objectMapper, "table");
+        List<PaymentScheduleElement> paymentSchedule = paymentSchedule();
+        Credit credit = Credit.builder()
+                .creditId(UUID.randomUUID())
+                .paymentSchedule(storage.jsonbValue(paymentSchedule))
+                .build();
+
+        storage.saveRows(credit, paymentSchedule);
+
+        assertNull(credit.getPaymentSchedule());
+        assertTrue(paymentSchedule.stream().allMatch(element -> credit.getCreditId().equals(element.getCreditId())));
+        verify(paymentScheduleElementRepository).saveAll(paymentSchedule);
+    }
+
+    @Test
+    void testLoadReadsTableWhenJsonbIsEmpty() {
+        PaymentScheduleStorage storage = new PaymentScheduleStorage(paymentScheduleElementRepository, objectMapper, "jsonb");
+        Credit credit = Credit.builder().creditId(UUID.randomUUID()).build();
+        List<PaymentScheduleElement> paymentSchedule = paymentSchedule();
+        when(paymentScheduleElementRepository.findByCreditIdOrderByNumberAsc(credit.getCreditId()))
+                .thenReturn(paymentSchedule);
+
+        assertEquals(paymentSchedule, storage.load(credit));
+    }
+
+    @Test
+    void testUnknownStorage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PaymentScheduleStorage(paymentScheduleElementRepository, objectMapper, "xml"));
+    }
+}
@@ -0,0 +1,268 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import neoflex.deal.client.CalculatorClient;
+import neoflex.deal.entity.*;
+import neoflex.deal.repository.ReactiveClientRepository;
+import neoflex.deal.repository.ReactiveCreditRepository;
+import neoflex.deal.repository.ReactiveOutboxEventRepository;
+import neoflex.deal.repository.ReactiveStatementRepository;
+import neoflex.deal.repository.ReactiveStatementRepository.Column;
+import neoflex.deal.repository.ReactiveStatusHistoryRepository;
+import neoflex.dto.*;
+import neoflex.enums.ApplicationStatus;
+import neoflex.enums.ChangeType;
+import neoflex.enums.CreditStatus;
+import neoflex.enums.Theme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveDealServiceTest {
+
+    @Mock
+    private ReactiveClientRepository clientRepository;
+
+    @Mock
+    private ReactiveStatementRepository statementRepository;
+
+    @Mock
+    private ReactiveCreditRepository creditRepository;
+
+    @Mock
+    private ReactiveStatusHistoryRepository statusHistoryRepository;
+
+    @Mock
+    private ReactiveOutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CalculatorClient calculatorClient;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private StatusTransitions statusTransitions = new StatusTransitions(meterRegistry);
+
+    @InjectMocks
+    private ReactiveDealService reactiveDealService;
+
+    private LoanStatementRequestDto request;
+    private Statement statement;
+
+    @BeforeEach
+    void setUp() {
+        request = LoanStatementRequestDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .email("test@example.com")
+                .build();
+        statement = Statement.builder()
+                .statementId(UUID.randomUUID())
+                .client(Client.builder()
+                        .clientId(UUID.randomUUID())
+                        .email("test@example.com")
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .passport(Passport.builder().series("1234").number("567890").build())
+                        .build())
+                .status(ApplicationStatus.PREAPPROVAL)
+                .build();
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(statusHistoryRepository.insert(any(StatusHistory.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(outboxEventRepository.insert(anyString(), any(EmailMessage.class))).thenReturn(Mono.empty());
+    }
+
+    private void mockSaveClientAndStatement() {
+        when(clientRepository.insert(any(Client.class))).thenAnswer(invocation -> {
+            Client saved = invocation.getArgument(0);
+            saved.setClientId(statement.getClient().getClientId());
+            return Mono.just(saved);
+        });
+        when(statementRepository.insert(any(Statement.class))).thenAnswer(invocation -> {
+            Statement saved = invocation.getArgument(0);
+            saved.setStatementId(statement.getStatementId());
+            return Mono.just(saved);
+        });
+    }
+
+    @Test
+    void calculateLoanOffersShouldJoinStatementIdOntoOffers() {
+        mockSaveClientAndStatement();
+        when(calculatorClient.calculateLoanOffersReactive(request))
+                .thenReturn(Mono.just(new ArrayList<>(List.of(new LoanOfferDto(), new LoanOfferDto()))));
+
+        StepVerifier.create(reactiveDealService.calculateLoanOffers(request))
+                .assertNext(offers -> {
+                    assertEquals(2, offers.size());
+                    offers.forEach(offer -> assertEquals(statement.getStatementId(), offer.getStatementId()));
+                })
+                .verifyComplete();
+        verify(statementRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void calculateLoanOffersShouldDeleteStatementWhenCalculatorFails() {
+        mockSaveClientAndStatement();
+        when(calculatorClient.calculateLoanOffersReactive(request))
+                .thenReturn(Mono.error(new IllegalStateException("Калькулятор недоступен")));
+        when(statementRepository.deleteById(statement.getStatementId())).thenReturn(Mono.empty());
+        when(clientRepository.deleteById(statement.getClient().getClientId())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveDealService.calculateLoanOffers(request))
+                .expectErrorMessage("Ошибка при получении предложений по кредиту")
+                .verify();
+        verify(statementRepository).deleteById(statement.getStatementId());
+        verify(clientRepository).deleteById(statement.getClient().getClientId());
+    }
+
+    @Test
+    void calculateLoanOffersShouldRejectInvalidRequest() {
+        when(validator.validate(request)).thenReturn(Set.of(mock(ConstraintViolation.class)));
+
+        StepVerifier.create(reactiveDealService.calculateLoanOffers(request))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(clientRepository, statementRepository);
+    }
+
+    @Test
+    void selectLoanOfferShouldSaveCreditAndApproveStatement() {
+        LoanOfferDto offer = LoanOfferDto.builder()
+                .statementId(statement.getStatementId())
+                .requestedAmount(BigDecimal.valueOf(100000))
+                .term(12)
+                .monthlyPayment(BigDecimal.valueOf(9000))
+                .rate(BigDecimal.valueOf(0.10))
+                .build();
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Mono.just(statement));
+        when(creditRepository.save(any(Credit.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(statementRepository.update(any(Statement.class), anySet())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reactiveDealService.selectLoanOffer(offer))
+                .assertNext(emailMessage -> assertEquals(Theme.FINISH_REGISTRATION, emailMessage.getTheme()))
+                .verifyComplete();
+        assertEquals(ApplicationStatus.APPROVED, statement.getStatus());
+        assertEquals(12, statement.getCredit().getTerm());
+        ArgumentCaptor<StatusHistory> statusHistoryCaptor = ArgumentCaptor.forClass(StatusHistory.class);
+        verify(statusHistoryRepository).insert(statusHistoryCaptor.capture());
+        assertEquals(statement.getStatementId(), statusHistoryCaptor.getValue().getStatementId());
+        assertEquals(ApplicationStatus.APPROVED.name(), statusHistoryCaptor.getValue().getStatus());
+        assertEquals(ChangeType.MANUAL, statusHistoryCaptor.getValue().getChangeType());
+        assertNotNull(statement.getAppliedOffer());
+        verify(statementRepository).update(statement, EnumSet.of(Column.CREDIT_ID, Column.APPLIED_OFFER));
+        verify(outboxEventRepository).insert(eq("finish-registration"), any(EmailMessage.class));
+    }
+
+    @Test
+    void finishRegistrationShouldSaveCalculatedCredit() {
+        statement.setStatus(ApplicationStatus.APPROVED);
+        statement.setCredit(Credit.builder().creditId(UUID.randomUUID()).amount(BigDecimal.valueOf(100000)).term(12).build());
+        CreditDto creditDto = CreditDto.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .term(12)
+                .monthlyPayment(BigDecimal.valueOf(9000))
+                .rate(BigDecimal.valueOf(0.10))
+                .psk(BigDecimal.valueOf(108000))
+                .isInsuranceEnabled(false)
+                .isSalaryClient(false)
+                .paymentSchedule(List.of())
+                .build();
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Mono.just(statement));
+        when(calculatorClient.calculateCreditReactive(any(ScoringDataDto.class))).thenReturn(Mono.just(creditDto));
+        when(creditRepository.save(any(Credit.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(statementRepository.update(any(Statement.class), anySet())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reactiveDealService.finishRegistration(statement.getStatementId().toString(), new FinishRegistrationRequestDto()))
+                .assertNext(emailMessage -> assertEquals(Theme.CREATE_DOCUMENTS, emailMessage.getTheme()))
+                .verifyComplete();
+        ArgumentCaptor<Credit> creditCaptor = ArgumentCaptor.forClass(Credit.class);
+        verify(creditRepository).save(creditCaptor.capture());
+        assertEquals(CreditStatus.CALCULATED, creditCaptor.getValue().getCreditStatus());
+        assertEquals(ApplicationStatus.CC_APPROVED, statement.getStatus());
+        verify(statementRepository).update(statement, EnumSet.of(Column.CREDIT_ID));
+    }
+
+    @Test
+    void finishRegistrationShouldDenyStatementWhenCalculatorFails() {
+        statement.setStatus(ApplicationStatus.APPROVED);
+        statement.setCredit(Credit.builder().creditId(UUID.randomUUID()).amount(BigDecimal.valueOf(100000)).term(12).build());
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Mono.just(statement));
+        when(calculatorClient.calculateCreditReactive(any(ScoringDataDto.class)))
+                .thenReturn(Mono.error(new IllegalStateException("Отказ в кредите")));
+        when(statementRepository.update(any(Statement.class), anySet())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(reactiveDealService.finishRegistration(statement.getStatementId().toString(), new FinishRegistrationRequestDto()))
+                .assertNext(emailMessage -> assertEquals(Theme.STATEMENT_DENIED, emailMessage.getTheme()))
+                .verifyComplete();
+        assertEquals(ApplicationStatus.CC_DENIED, statement.getStatus());
+        verify(statementRepository).update(statement, EnumSet.noneOf(Column.class));
+        verifyNoInteractions(creditRepository);
+    }
+
+    @Test
+    void selectLoanOfferShouldReportConcurrentModification() {
+        LoanOfferDto offer = LoanOfferDto.builder()
+                .statementId(statement.getStatementId())
+                .requestedAmount(BigDecimal.valueOf(100000))
+                .term(12)
+                .build();
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Mono.just(statement));
+        when(creditRepository.save(any(Credit.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(statementRepository.update(any(Statement.class), anySet()))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("Заявка изменена параллельно")));
+
+        StepVerifier.create(reactiveDealService.selectLoanOffer(offer))
+                .expectError(StatusTransitionException.class)
+                .verify();
+        verifyNoInteractions(statusHistoryRepository, outboxEventRepository);
+        assertEquals(1.0, meterRegistry.get("deal.statement.transitions")
+                .tags("to", "APPROVED", "outcome", "conflict").counter().count());
+    }
+
+    @Test
+    void finishRegistrationShouldRejectIssuedStatement() {
+        statement.setStatus(ApplicationStatus.CREDIT_ISSUED);
+        when(statementRepository.findById(statement.getStatementId())).thenReturn(Mono.just(statement));
+
+        StepVerifier.create(reactiveDealService.finishRegistration(statement.getStatementId().toString(), new FinishRegistrationRequestDto()))
+                .expectError(StatusTransitionException.class)
+                .verify();
+        verifyNoInteractions(calculatorClient, creditRepository);
+    }
+}
@@ -0,0 +1,118 @@
+package neoflex.deal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import neoflex.deal.repository.StatementRepository;
+import neoflex.dto.StatementSummaryDto;
+import neoflex.enums.ApplicationStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementExportServiceTest {
+
+    @Mock
+    private StatementRepository statementRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void exportShouldWriteOneJsonLinePerStatement() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(statementRepository.streamSummaries(ApplicationStatus.APPROVED, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 2, 1, 0, 0), 2))
+                .thenReturn(summaries(3).onClose(() -> closed.set(true)));
+        StatementExportService service = new StatementExportService(statementRepository, objectMapper,
+                transactionManager, 1, 2, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(ApplicationStatus.APPROVED, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), out);
+
+        assertEquals(3, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        for (int i = 0; i < 3; i++) {
+            StatementSummaryDto summary = objectMapper.readValue(lines[i], StatementSummaryDto.class);
+            assertEquals("Client" + i, summary.getLastName());
+        }
+        assertTrue(closed.get());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void exportShouldFlushOncePerFetch() throws Exception {
+        when(statementRepository.streamSummaries(null, null, null, 2)).thenReturn(summaries(5));
+        StatementExportService service = new StatementExportService(statementRepository, objectMapper,
+                transactionManager, 1, 2, 0);
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        assertEquals(5, service.export(null, null, null, out));
+
+        // После второй и четвертой строки и при закрытии генератора
+        assertEquals(3, flushes.get());
+        assertEquals(5, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void exportShouldBeRejectedWhenLimitIsReached() {
+        StatementExportService service = new StatementExportService(statementRepository, objectMapper,
+                transactionManager, 0, 500, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(RejectedExecutionException.class, () -> service.export(null, null, null, out));
+        assertEquals(0, out.size());
+        verifyNoInteractions(statementRepository, transactionManager);
+    }
+
+    @Test
+    void exportShouldThrottleRowsPerSecond() throws Exception {
+        when(statementRepository.streamSummaries(null, null, null, 1)).thenReturn(summaries(3));
+        StatementExportService service = new StatementExportService(statementRepository, objectMapper,
+                transactionManager, 1, 1, 20);
+
+        long start = System.nanoTime();
+        service.export(null, null, null, new ByteArrayOutputStream());
+
+        // 3 строки при 20 строках в секунду занимают не меньше 150 мс
+        assertTrue(System.nanoTime() - start >= 140_000_000L);
+    }
+
+    private static Stream<StatementSummaryDto> summaries(int count) {
+        return IntStream.range(0, count).mapToObj(i -> StatementSummaryDto.builder()
+                .statementId(UUID.randomUUID())
+                .status(ApplicationStatus.APPROVED)
+                .creationDate(LocalDateTime.of(2025, 1, 1, 10, 0).plusDays(i))
+                .lastName("Client" + i)
+                .build());
+    }
+}
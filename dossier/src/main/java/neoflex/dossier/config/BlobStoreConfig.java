@@ -0,0 +1,30 @@
+package neoflex.dossier.config;
+
+import neoflex.blob.BlobStore;
+import neoflex.blob.FileSystemBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Конфигурация хранилища документов, из которого читаются PDF, переданные МС Сделка в режиме
+ * {@code documents.attachment-mode=claim-check}.
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    @Value("${documents.blob-store.root}")
+    private Path root;
+
+    /**
+     * Создает хранилище документов в каталоге, общем с МС Сделка.
+     *
+     * @return хранилище документов
+     */
+    @Bean
+    public BlobStore documentBlobStore() {
+        return new FileSystemBlobStore(root);
+    }
+}
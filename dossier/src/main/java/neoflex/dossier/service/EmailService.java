@@ -1,5 +1,7 @@
 package neoflex.dossier.service;
 
+import neoflex.blob.BlobStore;
+import neoflex.dto.DocumentReferenceDto;
 import neoflex.dto.EmailMessage;
 import neoflex.enums.Theme;
 import org.slf4j.Logger;
@@ -26,12 +28,14 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
+    private final BlobStore blobStore;
     @Value("${mail.from}")
     private String mailFrom;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, BlobStore blobStore) {
         this.mailSender = mailSender;
+        this.blobStore = blobStore;
     }
 
     /**
@@ -119,7 +123,11 @@ public class EmailService {
             helper.setSubject(emailMessage.getTheme().toString());
             helper.setText(text);
 
-            if (emailMessage.getPdfDocumentBytes() != null) {
+            DocumentReferenceDto pdfDocument = emailMessage.getPdfDocument();
+            if (pdfDocument != null) {
+                // Документ читается из хранилища потоком при формировании письма, без загрузки в память целиком
+                helper.addAttachment("credit_agreement.pdf", () -> blobStore.open(pdfDocument), pdfDocument.getContentType());
+            } else if (emailMessage.getPdfDocumentBytes() != null) {
                 DataSource dataSource = new ByteArrayDataSource(emailMessage.getPdfDocumentBytes(), "application/pdf");
                 helper.addAttachment("credit_agreement.pdf", dataSource);
             }
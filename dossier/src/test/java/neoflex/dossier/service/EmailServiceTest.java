@@ -0,0 +1,117 @@
+package neoflex.dossier.service;
+
+import jakarta.mail.BodyPart;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import neoflex.blob.BlobStore;
+import neoflex.blob.FileSystemBlobStore;
+import neoflex.dto.DocumentReferenceDto;
+import neoflex.dto.EmailMessage;
+import neoflex.enums.Theme;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailServiceTest {
+
+    private static final byte[] PDF = "%PDF-1.4 credit agreement".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @TempDir
+    private Path blobStoreRoot;
+
+    private BlobStore blobStore;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new FileSystemBlobStore(blobStoreRoot);
+        emailService = new EmailService(mailSender, blobStore);
+        ReflectionTestUtils.setField(emailService, "mailFrom", "bank@example.com");
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+    }
+
+    @Test
+    void testSendDocumentsEmailAttachesDocumentFromBlobStore() throws Exception {
+        DocumentReferenceDto reference = blobStore.put(PDF, "application/pdf");
+
+        emailService.sendDocumentsEmail(documentsMessage(reference));
+
+        assertArrayEquals(PDF, attachment(sentMessage()));
+    }
+
+    @Test
+    void testSendDocumentsEmailFailsOnModifiedDocument() throws Exception {
+        DocumentReferenceDto reference = blobStore.put(PDF, "application/pdf");
+        Files.write(blobStoreRoot.resolve(reference.getKey()), "%PDF-1.5 credit agreement".getBytes(StandardCharsets.US_ASCII));
+
+        emailService.sendDocumentsEmail(documentsMessage(reference));
+
+        // Вложение читается потоком при записи письма, хэш проверяется в конце потока
+        MimeMessage message = sentMessage();
+        assertThrows(IOException.class, () -> message.writeTo(new ByteArrayOutputStream()));
+    }
+
+    private static EmailMessage documentsMessage(DocumentReferenceDto reference) {
+        EmailMessage emailMessage = new EmailMessage(UUID.randomUUID(), Theme.SEND_DOCUMENTS, "ivan@example.com");
+        emailMessage.setPdfDocument(reference);
+        return emailMessage;
+    }
+
+    private MimeMessage sentMessage() {
+        ArgumentCaptor<MimeMessage> message = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(message.capture());
+        return message.getValue();
+    }
+
+    private static byte[] attachment(MimeMessage message) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        MimeMessage received = new MimeMessage(null, new ByteArrayInputStream(out.toByteArray()));
+        Part part = findAttachment(received);
+        assertNotNull(part);
+        assertTrue(part.isMimeType("application/pdf"));
+        try (InputStream content = part.getInputStream()) {
+            return content.readAllBytes();
+        }
+    }
+
+    private static Part findAttachment(Part part) throws Exception {
+        if ("credit_agreement.pdf".equals(part.getFileName())) {
+            return part;
+        }
+        if (part.getContent() instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart bodyPart = multipart.getBodyPart(i);
+                Part found = findAttachment(bodyPart);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+// Нагрузочный тест /deal/statement напрямую, без МС Gateway и МС Заявка, для сравнения сервлетного и
+// реактивного вариантов МС Сделка при замедленном калькуляторе. Запросы идут с постоянной частотой,
+// поэтому при нехватке потоков растет число одновременных запросов (vus) и время ответа.
+//
+// k6 run -e BASE_URL=http://localhost:8081 -e RATE=500 -e DURATION=2m load-tests/reactive-deal/load-test.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const RATE = parseInt(__ENV.RATE || '500');
+const DURATION = __ENV.DURATION || '2m';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '5000');
+
+const statementDuration = new Trend('statement_duration', true);
+
+export const options = {
+    scenarios: {
+        statements: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.min(RATE * 4, MAX_VUS),
+            maxVUs: MAX_VUS,
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+const request = JSON.stringify({
+    firstName: 'Ivan',
+    lastName: 'Ivanov',
+    middleName: 'Ivanovich',
+    birthDate: '1990-01-01',
+    email: 'ivan.ivanov@example.com',
+    gender: 'MALE',
+    maritalStatus: 'MARRIED',
+    dependentAmount: 0,
+    amount: 500000,
+    term: 24,
+    passportSeries: '1234',
+    passportNumber: '567890',
+});
+
+export default function () {
+    const response = http.post(`${BASE_URL}/deal/statement`, request, {
+        headers: { 'Content-Type': 'application/json' },
+        timeout: '60s',
+    });
+    statementDuration.add(response.timings.duration);
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.statement_duration.values;
+    const failed = data.metrics.http_req_failed.values.rate;
+    const summary = [
+        `Одновременных запросов (max vus): ${data.metrics.vus.values.max}`,
+        `Выполнено запросов в секунду: ${data.metrics.http_reqs.values.rate.toFixed(1)}`,
+        `Время ответа p50/p99/max, мс: ${duration.med.toFixed(0)} / ${duration['p(99)'].toFixed(0)} / ${duration.max.toFixed(0)}`,
+        `Доля ошибок: ${(failed * 100).toFixed(2)}%`,
+    ].join('\n');
+    return { stdout: summary + '\n' };
+}